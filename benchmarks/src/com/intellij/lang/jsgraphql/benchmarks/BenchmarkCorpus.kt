@@ -0,0 +1,166 @@
+package com.intellij.lang.jsgraphql.benchmarks
+
+import com.intellij.lang.jsgraphql.GraphQLFileType
+import com.intellij.lang.jsgraphql.psi.GraphQLFile
+import com.intellij.lang.jsgraphql.schema.GraphQLPsiDocumentBuilder
+import com.intellij.lang.jsgraphql.types.language.Document
+import com.intellij.openapi.application.runReadAction
+import com.intellij.psi.PsiFileFactory
+import com.intellij.testFramework.EdtTestUtil
+import com.intellij.testFramework.LightProjectDescriptor
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory
+import java.nio.file.Path
+import kotlin.io.path.readText
+
+private const val TEST_DATA_PROPERTY = "graphql.benchmarks.testData"
+
+/**
+ * SDL sources used by the benchmarks. The documents are parsed once per JVM, outside the measured code.
+ */
+enum class BenchmarkCorpus {
+  /**
+   * The public GitHub schema, ~1.6k type definitions.
+   */
+  GITHUB {
+    override fun loadText(): String = testDataPath.resolve("resolve/schema/GithubSchema.graphql").readText()
+  },
+
+  /**
+   * An Apollo Federation supergraph composed of 20 subgraphs, every type is annotated with the join directives.
+   */
+  SUPERGRAPH {
+    override fun loadText(): String = generateSupergraph(entitiesCount = 2000, subgraphsCount = 20)
+  },
+
+  /**
+   * 10k generated types of all kinds, with interfaces and unions referencing each other.
+   */
+  SYNTHETIC_10K {
+    override fun loadText(): String = generateSchema(typesCount = 10000)
+  };
+
+  protected abstract fun loadText(): String
+
+  val documents: List<Document> by lazy { listOf(BenchmarkEnvironment.parse("${name.lowercase()}.graphql", loadText())) }
+}
+
+private val testDataPath: Path
+  get() = Path.of(System.getProperty(TEST_DATA_PROPERTY, "tests/testData/graphql"))
+
+/**
+ * Documents are built from PSI, the type system fork has no other parser,
+ * so parsing requires a headless application with the plugin loaded, unlike the AST built by [SyntheticCorpus].
+ */
+private object BenchmarkEnvironment {
+  // not disposed, the application lives until the benchmark JVM exits
+  private val fixture: IdeaProjectTestFixture by lazy {
+    val fixture = IdeaTestFixtureFactory.getFixtureFactory()
+      .createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, "graphql-benchmarks")
+      .fixture
+    EdtTestUtil.runInEdtAndWait<Throwable> { fixture.setUp() }
+    fixture
+  }
+
+  fun parse(fileName: String, text: String): Document = runReadAction {
+    val file = PsiFileFactory.getInstance(fixture.project).createFileFromText(fileName, GraphQLFileType.INSTANCE, text) as GraphQLFile
+    GraphQLPsiDocumentBuilder(file, text).createDocument()
+  }
+}
+
+private fun generateSupergraph(entitiesCount: Int, subgraphsCount: Int): String = buildString {
+  fun graph(index: Int) = "SUBGRAPH${index % subgraphsCount}"
+
+  appendLine("""
+    schema
+      @link(url: "https://specs.apollo.dev/link/v1.0")
+      @link(url: "https://specs.apollo.dev/join/v0.3", for: EXECUTION)
+    {
+      query: Query
+    }
+
+    directive @join__field(graph: join__Graph, requires: join__FieldSet, provides: join__FieldSet, type: String, external: Boolean, override: String, usedOverridden: Boolean) repeatable on FIELD_DEFINITION | INPUT_FIELD_DEFINITION
+    directive @join__graph(name: String!, url: String!) on ENUM_VALUE
+    directive @join__implements(graph: join__Graph!, interface: String!) repeatable on OBJECT | INTERFACE
+    directive @join__type(graph: join__Graph!, key: join__FieldSet, extension: Boolean! = false, resolvable: Boolean! = true, isInterfaceObject: Boolean! = false) repeatable on OBJECT | INTERFACE | UNION | ENUM | INPUT_OBJECT | SCALAR
+    directive @link(url: String, as: String, for: link__Purpose, import: [link__Import]) repeatable on SCHEMA
+
+    scalar join__FieldSet
+    scalar link__Import
+
+    enum link__Purpose {
+      SECURITY
+      EXECUTION
+    }
+  """.trimIndent())
+
+  appendLine("enum join__Graph {")
+  repeat(subgraphsCount) { appendLine("  ${graph(it)} @join__graph(name: \"subgraph$it\", url: \"http://subgraph$it.internal/graphql\")") }
+  appendLine("}")
+
+  appendLine("interface Node @join__type(graph: ${graph(0)}) {")
+  appendLine("  id: ID!")
+  appendLine("}")
+
+  append("type Query")
+  repeat(subgraphsCount) { append(" @join__type(graph: ${graph(it)})") }
+  appendLine(" {")
+  repeat(entitiesCount) { appendLine("  entity$it(id: ID!): Entity$it @join__field(graph: ${graph(it)})") }
+  appendLine("}")
+
+  repeat(entitiesCount) {
+    appendLine("""
+      type Entity$it implements Node
+        @join__implements(graph: ${graph(it)}, interface: "Node")
+        @join__type(graph: ${graph(it)}, key: "id")
+        @join__type(graph: ${graph(it + 1)}, key: "id")
+      {
+        id: ID!
+        name: String @join__field(graph: ${graph(it)})
+        createdAt: String @join__field(graph: ${graph(it)})
+        related(first: Int = 10): [Entity${(it + 1) % entitiesCount}!]! @join__field(graph: ${graph(it + 1)})
+        owner: Entity${(it + 7) % entitiesCount} @join__field(graph: ${graph(it + 1)}, requires: "name")
+      }
+    """.trimIndent())
+  }
+}
+
+private fun generateSchema(typesCount: Int): String = buildString {
+  appendLine("type Query {")
+  appendLine("  node(id: ID!): Node")
+  repeat(typesCount / 4) { appendLine("  object$it(filter: Input$it): Object$it") }
+  appendLine("}")
+
+  appendLine("interface Node {")
+  appendLine("  id: ID!")
+  appendLine("}")
+
+  // every group of four types has an object, an input, an enum and a union
+  repeat(typesCount / 4) {
+    val next = (it + 1) % (typesCount / 4)
+    appendLine("""
+      "Object type $it"
+      type Object$it implements Node {
+        id: ID!
+        name: String
+        status: Enum$it!
+        next: Object$next
+        items(first: Int = 10, filter: Input$next): [Union$it!]!
+      }
+
+      input Input$it {
+        name: String
+        status: Enum$it = FIRST
+        next: Input$next
+      }
+
+      enum Enum$it {
+        FIRST
+        SECOND
+        THIRD @deprecated(reason: "Use SECOND")
+      }
+
+      union Union$it = Object$it | Object$next
+    """.trimIndent())
+  }
+}
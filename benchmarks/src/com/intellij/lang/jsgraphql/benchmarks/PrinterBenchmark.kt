@@ -0,0 +1,54 @@
+package com.intellij.lang.jsgraphql.benchmarks
+
+import com.intellij.lang.jsgraphql.types.language.AstPrinter
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema
+import com.intellij.lang.jsgraphql.types.schema.idl.SchemaParser
+import com.intellij.lang.jsgraphql.types.schema.idl.SchemaPrinter
+import com.intellij.lang.jsgraphql.types.schema.idl.UnExecutableSchemaGenerator
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Printing is used for introspection results and the schema export, both print whole schemas at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class PrinterBenchmark {
+  @Param("GITHUB", "SUPERGRAPH", "SYNTHETIC_10K")
+  lateinit var corpus: BenchmarkCorpus
+
+  private lateinit var schema: GraphQLSchema
+
+  @Setup
+  fun setUp() {
+    val registry = SchemaParser().buildRegistry(corpus.documents.single())
+    schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry)
+  }
+
+  @Benchmark
+  fun schemaPrinter(): String {
+    return SchemaPrinter().print(schema)
+  }
+
+  @Benchmark
+  fun astPrinter(blackhole: Blackhole) {
+    for (document in corpus.documents) {
+      blackhole.consume(AstPrinter.printAst(document))
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.intellij.lang.jsgraphql.benchmarks
+
+import com.intellij.lang.jsgraphql.schema.builder.GraphQLCompositeRegistry
+import com.intellij.lang.jsgraphql.types.language.Document
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry
+import com.intellij.lang.jsgraphql.types.schema.idl.UnExecutableSchemaGenerator
+import com.intellij.lang.jsgraphql.types.schema.validation.SchemaValidationError
+import com.intellij.lang.jsgraphql.types.schema.validation.SchemaValidator
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * The steps of a schema build in [com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider],
+ * which together should fit into the `graphql.schema.build.timeout`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class SchemaBuildBenchmark {
+  @Param("GITHUB", "SUPERGRAPH", "SYNTHETIC_10K")
+  lateinit var corpus: BenchmarkCorpus
+
+  private lateinit var documents: List<Document>
+  private lateinit var registry: TypeDefinitionRegistry
+  private lateinit var schema: GraphQLSchema
+
+  @Setup
+  fun setUp() {
+    documents = corpus.documents
+    registry = compositeRegistry()
+    schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry)
+  }
+
+  @Benchmark
+  fun compositeRegistry(): TypeDefinitionRegistry {
+    return GraphQLCompositeRegistry().apply { documents.forEach { addFromDocument(it) } }.build()
+  }
+
+  @Benchmark
+  fun compositeRegistryParallel(): TypeDefinitionRegistry {
+    return runBlocking { GraphQLCompositeRegistry.fromDocuments(documents) }.build()
+  }
+
+  @Benchmark
+  fun makeUnExecutableSchema(): GraphQLSchema {
+    return UnExecutableSchemaGenerator.makeUnExecutableSchema(registry)
+  }
+
+  @Benchmark
+  fun validateSchema(): Set<SchemaValidationError> {
+    return SchemaValidator().validateSchema(schema)
+  }
+}
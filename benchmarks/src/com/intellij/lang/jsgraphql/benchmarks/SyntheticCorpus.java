@@ -0,0 +1,137 @@
+package com.intellij.lang.jsgraphql.benchmarks;
+
+import com.intellij.lang.jsgraphql.types.language.Argument;
+import com.intellij.lang.jsgraphql.types.language.Definition;
+import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.Field;
+import com.intellij.lang.jsgraphql.types.language.FieldDefinition;
+import com.intellij.lang.jsgraphql.types.language.FragmentDefinition;
+import com.intellij.lang.jsgraphql.types.language.FragmentSpread;
+import com.intellij.lang.jsgraphql.types.language.InputValueDefinition;
+import com.intellij.lang.jsgraphql.types.language.IntValue;
+import com.intellij.lang.jsgraphql.types.language.ListType;
+import com.intellij.lang.jsgraphql.types.language.NonNullType;
+import com.intellij.lang.jsgraphql.types.language.ObjectTypeDefinition;
+import com.intellij.lang.jsgraphql.types.language.OperationDefinition;
+import com.intellij.lang.jsgraphql.types.language.Selection;
+import com.intellij.lang.jsgraphql.types.language.SelectionSet;
+import com.intellij.lang.jsgraphql.types.language.Type;
+import com.intellij.lang.jsgraphql.types.language.TypeName;
+import com.intellij.lang.jsgraphql.types.language.VariableDefinition;
+import com.intellij.lang.jsgraphql.types.language.VariableReference;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
+import com.intellij.lang.jsgraphql.types.schema.idl.UnExecutableSchemaGenerator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates schemas and operations of a given size directly as AST nodes.
+ * <p>
+ * The type system fork parses text only through PSI, which requires a running IDE application,
+ * so building the nodes directly keeps the validator benchmark independent of the platform.
+ */
+public final class SyntheticCorpus {
+  private SyntheticCorpus() {
+  }
+
+  /**
+   * Creates object types {@code Type0..TypeN} referencing each other and a {@code Query} type with a root field for each of them.
+   */
+  public static TypeDefinitionRegistry createRegistry(int typesCount) {
+    TypeDefinitionRegistry registry = new TypeDefinitionRegistry();
+    ObjectTypeDefinition.Builder query = ObjectTypeDefinition.newObjectTypeDefinition().name("Query");
+    for (int i = 0; i < typesCount; i++) {
+      registry.add(ObjectTypeDefinition.newObjectTypeDefinition()
+                     .name(typeName(i))
+                     .fieldDefinition(field("id", new TypeName("ID")))
+                     .fieldDefinition(field("name", new TypeName("String")))
+                     .fieldDefinition(FieldDefinition.newFieldDefinition()
+                                        .name("count")
+                                        .type(new TypeName("Int"))
+                                        .inputValueDefinition(new InputValueDefinition("first", new TypeName("Int")))
+                                        .build())
+                     .fieldDefinition(field("next", new TypeName(typeName((i + 1) % typesCount))))
+                     .fieldDefinition(field("items", new ListType(new TypeName(typeName((i + 7) % typesCount)))))
+                     .build());
+
+      query.fieldDefinition(FieldDefinition.newFieldDefinition()
+                              .name(rootFieldName(i))
+                              .type(new TypeName(typeName(i)))
+                              .inputValueDefinition(new InputValueDefinition("id", new NonNullType(new TypeName("ID"))))
+                              .build());
+    }
+    registry.add(query.build());
+    return registry;
+  }
+
+  public static GraphQLSchema createSchema(int typesCount) {
+    return UnExecutableSchemaGenerator.makeUnExecutableSchema(createRegistry(typesCount));
+  }
+
+  /**
+   * Creates operations for a schema from {@link #createSchema(int)} and a fragment for each of the queried types.
+   * Every operation spreads the fragments of two types, one of them in a nested selection set.
+   */
+  @SuppressWarnings("rawtypes")
+  public static Document createOperations(int operationsCount, int typesCount) {
+    List<Definition> definitions = new ArrayList<>();
+    int fragmentsCount = Math.min(operationsCount + 1, typesCount);
+    for (int i = 0; i < fragmentsCount; i++) {
+      definitions.add(FragmentDefinition.newFragmentDefinition()
+                        .name(fragmentName(i))
+                        .typeCondition(new TypeName(typeName(i)))
+                        .selectionSet(selectionSet(
+                          new Field("id"),
+                          new Field("name"),
+                          new Field("next", selectionSet(new Field("id"), new Field("name")))
+                        ))
+                        .build());
+    }
+
+    for (int i = 0; i < operationsCount; i++) {
+      int type = i % typesCount;
+      int nextType = (type + 1) % typesCount;
+      definitions.add(OperationDefinition.newOperationDefinition()
+                        .name("Operation" + i)
+                        .operation(OperationDefinition.Operation.QUERY)
+                        .variableDefinition(new VariableDefinition("id", new NonNullType(new TypeName("ID"))))
+                        .selectionSet(selectionSet(new Field(
+                          rootFieldName(type),
+                          List.of(new Argument("id", new VariableReference("id"))),
+                          selectionSet(
+                            new Field("id"),
+                            new Field("name"),
+                            new FragmentSpread(fragmentName(type)),
+                            new Field("count", List.of(new Argument("first", new IntValue(BigInteger.TEN)))),
+                            new Field("next", selectionSet(new Field("name"), new FragmentSpread(fragmentName(nextType)))),
+                            new Field("items", selectionSet(new Field("id"), new Field("name")))
+                          )
+                        )))
+                        .build());
+    }
+    return Document.newDocument().definitions(definitions).build();
+  }
+
+  private static SelectionSet selectionSet(Selection<?>... selections) {
+    return new SelectionSet(List.of(selections));
+  }
+
+  private static FieldDefinition field(String name, Type<?> type) {
+    return FieldDefinition.newFieldDefinition().name(name).type(type).build();
+  }
+
+  private static String typeName(int index) {
+    return "Type" + index;
+  }
+
+  private static String rootFieldName(int index) {
+    return "type" + index;
+  }
+
+  private static String fragmentName(int index) {
+    return "Fragment" + index;
+  }
+}
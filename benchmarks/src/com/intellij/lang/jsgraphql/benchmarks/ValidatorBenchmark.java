@@ -0,0 +1,65 @@
+package com.intellij.lang.jsgraphql.benchmarks;
+
+import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.validation.AbstractRule;
+import com.intellij.lang.jsgraphql.types.validation.LanguageTraversal;
+import com.intellij.lang.jsgraphql.types.validation.RulesVisitor;
+import com.intellij.lang.jsgraphql.types.validation.ValidationContext;
+import com.intellij.lang.jsgraphql.types.validation.ValidationError;
+import com.intellij.lang.jsgraphql.types.validation.ValidationErrorCollector;
+import com.intellij.lang.jsgraphql.types.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RulesVisitor}, which dispatches every node to all the rules, with the default {@link Validator}
+ * based on {@link com.intellij.lang.jsgraphql.types.validation.FusedRulesVisitor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+  private static final int TYPES_COUNT = 500;
+
+  @Param({"100", "2000"})
+  public int operationsCount;
+
+  private GraphQLSchema schema;
+  private Document document;
+
+  @Setup
+  public void setUp() {
+    schema = SyntheticCorpus.createSchema(TYPES_COUNT);
+    document = SyntheticCorpus.createOperations(operationsCount, TYPES_COUNT);
+  }
+
+  @Benchmark
+  public List<ValidationError> rulesVisitor() {
+    ValidationContext validationContext = new ValidationContext(schema, document);
+    ValidationErrorCollector validationErrorCollector = new ValidationErrorCollector();
+    List<AbstractRule> rules = new Validator().createRules(validationContext, validationErrorCollector);
+    new LanguageTraversal().traverse(document, new RulesVisitor(validationContext, rules));
+    return validationErrorCollector.getErrors();
+  }
+
+  @Benchmark
+  public List<ValidationError> fusedRulesVisitor() {
+    return new Validator().validateDocument(schema, document);
+  }
+}
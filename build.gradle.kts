@@ -18,6 +18,7 @@ plugins {
     id("org.jetbrains.grammarkit") version "2022.3.1"
     id("com.github.ManifestClasspath") version "0.1.0-RELEASE"
     id("org.jetbrains.changelog") version "2.0.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = pluginGroup
@@ -49,6 +50,11 @@ sourceSets {
         java.srcDirs("src/test")
         resources.srcDir("test-resources")
     }
+
+    jmh {
+        java.srcDirs("benchmarks/src")
+        resources.srcDir("benchmarks/resources")
+    }
 }
 
 kotlin {
@@ -60,7 +66,14 @@ kotlin {
         test {
             kotlin.srcDir("src/test")
         }
+
+        named("jmh") {
+            kotlin.srcDir("benchmarks/src")
+        }
     }
+
+    // benchmarks measure internal classes, e.g. GraphQLCompositeRegistry
+    target.compilations.getByName("jmh").associateWith(target.compilations.getByName("main"))
 }
 
 dependencies {
@@ -75,6 +88,21 @@ dependencies {
     testImplementation(group = "junit", name = "junit", version = "4.13.1")
 }
 
+// the benchmarks are built only by Gradle, the Bazel build doesn't include the jmh source set
+configurations {
+    // the IDE and test framework classes aren't a part of the main runtime classpath
+    named("jmhImplementation") { extendsFrom(testImplementation.get()) }
+    named("jmhRuntimeOnly") { extendsFrom(testRuntimeOnly.get()) }
+}
+
+jmh {
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    jvmArgsAppend.add("-Dgraphql.benchmarks.testData=${projectDir}/tests/testData/graphql")
+    jvmArgsAppend.add("-Djava.awt.headless=true")
+}
+
 tasks {
     patchPluginXml {
         version.set(pluginVersion)
@@ -875,17 +875,20 @@ public final class GraphQLCompletionContributor extends CompletionContributor {
         final TypeDefinitionRegistry typeDefinitionRegistry = GraphQLRegistryProvider.getInstance(completionElement.getProject())
           .getRegistryInfo(parameters.getOriginalFile()).getTypeDefinitionRegistry();
 
-        final List<GraphQLFragmentDefinition> knownFragmentDefinitions = GraphQLPsiSearchHelper
-          .getInstance(completionElement.getProject()).findFragmentDefinitions(parameters.getOriginalFile());
-        for (GraphQLFragmentDefinition fragmentDefinition : knownFragmentDefinitions) {
-          final String name = fragmentDefinition.getName();
-          if (name != null) {
+        // fragment names and type conditions are taken from the index, no need to load the files defining them
+        final GraphQLType requiredTypeScope = typeScope;
+        final Set<String> suggestedNames = new HashSet<>();
+        GraphQLPsiSearchHelper.getInstance(completionElement.getProject()).processFragmentTypeConditions(
+          parameters.getOriginalFile(), (name, typeConditionName) -> {
             // suggest compatible fragments based on type conditions
-            if (GraphQLSchemaUtil.isFragmentApplicableInTypeScope(typeDefinitionRegistry, fragmentDefinition, typeScope)) {
+            if (!typeConditionName.isEmpty() &&
+                !suggestedNames.contains(name) &&
+                GraphQLSchemaUtil.isFragmentApplicableInTypeScope(typeDefinitionRegistry, typeConditionName, requiredTypeScope)) {
+              suggestedNames.add(name);
               result.addElement(GraphQLCompletionUtil.createTypeNameLookupElement(name));
             }
-          }
-        }
+            return true;
+          });
       }
     };
     extend(CompletionType.BASIC, psiElement().afterLeaf(psiElement(GraphQLElementTypes.SPREAD)), provider);
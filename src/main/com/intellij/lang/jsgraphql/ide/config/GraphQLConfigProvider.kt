@@ -40,9 +40,12 @@ import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.util.Key
 import com.intellij.openapi.util.ModificationTracker
 import com.intellij.openapi.util.SimpleModificationTracker
+import com.intellij.openapi.util.registry.Registry
 import com.intellij.openapi.vfs.LocalFileSystem
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
 import com.intellij.openapi.vfs.ex.temp.TempFileSystem
 import com.intellij.psi.PsiComment
 import com.intellij.psi.PsiFile
@@ -60,6 +63,7 @@ import com.intellij.util.concurrency.annotations.RequiresReadLock
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.debounce
@@ -73,7 +77,7 @@ import java.util.concurrent.atomic.AtomicReference
 import kotlin.time.Duration.Companion.milliseconds
 
 @Service(Service.Level.PROJECT)
-class GraphQLConfigProvider(private val project: Project, coroutineScope: CoroutineScope) : ModificationTracker, GraphQLConfigEnvironmentListener {
+class GraphQLConfigProvider(private val project: Project, private val coroutineScope: CoroutineScope) : ModificationTracker, GraphQLConfigEnvironmentListener {
   companion object {
     private val LOG = logger<GraphQLConfigProvider>()
 
@@ -86,6 +90,8 @@ class GraphQLConfigProvider(private val project: Project, coroutineScope: Corout
 
     private const val CONFIG_RELOAD_DELAY = 500
 
+    private const val PREBUILD_INDEX_KEY = "graphql.config.index.prebuild"
+
     @JvmStatic
     fun getInstance(project: Project): GraphQLConfigProvider = project.service<GraphQLConfigProvider>()
   }
@@ -133,6 +139,10 @@ class GraphQLConfigProvider(private val project: Project, coroutineScope: Corout
       CachedValueProvider.Result.create(ConcurrentHashMap(), scopeDependency)
     }
 
+  private val projectConfigIndex = GraphQLProjectConfigIndex(project)
+
+  private val projectConfigIndexPrebuild = AtomicReference<Job?>()
+
   init {
     GraphQLFileTypeContributor.EP_NAME.addChangeListener(coroutineScope, ::invalidate)
     GraphQLInjectedLanguage.EP_NAME.addChangeListener(coroutineScope, ::invalidate)
@@ -146,6 +156,12 @@ class GraphQLConfigProvider(private val project: Project, coroutineScope: Corout
       }
     })
 
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, object : BulkFileListener {
+      override fun after(events: List<VFileEvent>) {
+        projectConfigIndex.afterVfsChange(events)
+      }
+    })
+
     VirtualFileManager.getInstance().addAsyncFileListener(coroutineScope, GraphQLConfigFileListener(project))
 
     skipInTests {
@@ -164,6 +180,11 @@ class GraphQLConfigProvider(private val project: Project, coroutineScope: Corout
       return null
     }
 
+    val file = getPhysicalVirtualFile(context) ?: return resolveProjectConfigImpl(context)
+    return projectConfigIndex.getOrCompute(file) { resolveProjectConfigImpl(context) }
+  }
+
+  private fun resolveProjectConfigImpl(context: PsiFile): GraphQLProjectConfig? {
     val searchResult = findConfig(context)
     return when {
       searchResult == null -> null
@@ -448,11 +469,23 @@ class GraphQLConfigProvider(private val project: Project, coroutineScope: Corout
       }
 
       notifyConfigurationChanged()
+      scheduleProjectConfigIndexPrebuild()
     }
 
     initialized = true
   }
 
+  private fun scheduleProjectConfigIndexPrebuild() {
+    if (!Registry.`is`(PREBUILD_INDEX_KEY, true)) return
+
+    skipInTests {
+      val job = coroutineScope.launch {
+        projectConfigIndex.prebuild { resolveProjectConfig(it) }
+      }
+      projectConfigIndexPrebuild.getAndSet(job)?.cancel()
+    }
+  }
+
   private fun pollConfigContributors(explicitInvalidation: Boolean): Boolean {
     val prevSnapshot = contributedConfigs.get()
     val prevContributed = prevSnapshot.values.toSet()
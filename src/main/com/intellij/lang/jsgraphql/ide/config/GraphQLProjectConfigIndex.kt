@@ -0,0 +1,160 @@
+package com.intellij.lang.jsgraphql.ide.config
+
+import com.intellij.concurrency.ConcurrentCollectionFactory
+import com.intellij.ide.scratch.ScratchUtil
+import com.intellij.lang.jsgraphql.ide.config.model.GraphQLProjectConfig
+import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeDependency
+import com.intellij.lang.jsgraphql.ide.search.GraphQLFileTypesProvider
+import com.intellij.openapi.application.readAction
+import com.intellij.openapi.diagnostic.debug
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.checkCanceled
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectFileIndex
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.VirtualFileWithId
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent
+import com.intellij.util.containers.ConcurrentIntObjectMap
+import kotlin.time.Duration.Companion.nanoseconds
+
+private const val PREBUILD_CHUNK_SIZE = 500
+
+/**
+ * Up to this number of entries the descendants of a changed directory are removed one by one, a larger index is dropped as a whole.
+ */
+private const val DIRECTORY_SCAN_LIMIT = 1000
+
+/**
+ * Reverse index of the resolved project configs by file id, so resolving a config on the editor path is a single map lookup.
+ *
+ * It's filled in the background after each configuration reload and lazily on a miss.
+ * The entries of the moved, renamed and deleted files are dropped from the VFS events, for directories the index can be dropped entirely,
+ * the whole index is dropped on explicit [GraphQLScopeDependency] updates, e.g. when the configuration is reloaded, and when the project roots change.
+ * Unlike the caches depending on [GraphQLScopeDependency] it isn't dropped on every VFS structure change.
+ * Scratch files are never indexed, because they could override the config with a comment.
+ */
+internal class GraphQLProjectConfigIndex(private val project: Project) {
+  companion object {
+    private val LOG = logger<GraphQLProjectConfigIndex>()
+
+    private val NO_CONFIG = Any()
+  }
+
+  private val scopeDependency = GraphQLScopeDependency.getInstance(project)
+  private val projectRootManager = ProjectRootManager.getInstance(project)
+
+  private class Snapshot(val stamp: Long) {
+    val configs: ConcurrentIntObjectMap<Any> = ConcurrentCollectionFactory.createConcurrentIntObjectMap()
+  }
+
+  @Volatile
+  private var snapshot = Snapshot(-1)
+
+  private val currentSnapshot: Snapshot
+    get() {
+      val stamp = scopeDependency.updatesCount + projectRootManager.modificationCount
+      val current = snapshot
+      if (current.stamp == stamp) {
+        return current
+      }
+      return Snapshot(stamp).also { snapshot = it }
+    }
+
+  fun getOrCompute(file: VirtualFile, compute: () -> GraphQLProjectConfig?): GraphQLProjectConfig? {
+    if (file !is VirtualFileWithId || ScratchUtil.isScratch(file)) {
+      return compute()
+    }
+
+    // captured before computing, so a result computed during the invalidation is stored in the dropped snapshot
+    val snapshot = currentSnapshot
+    val cached = snapshot.configs.get(file.id)
+    if (cached != null) {
+      return cached as? GraphQLProjectConfig
+    }
+
+    val result = compute()
+    snapshot.configs.putIfAbsent(file.id, result ?: NO_CONFIG)
+    return result
+  }
+
+  /**
+   * Called in the same write action as the VFS change, so readers never observe the outdated entries.
+   */
+  fun afterVfsChange(events: List<VFileEvent>) {
+    val configs = snapshot.configs
+    if (configs.isEmpty) return
+
+    for (event in events) {
+      val isStructureChange = event is VFileMoveEvent || event is VFileDeleteEvent ||
+                              event is VFilePropertyChangeEvent && event.propertyName == VirtualFile.PROP_NAME
+      if (!isStructureChange) continue
+
+      val file = event.file ?: continue
+      if (file.isDirectory) {
+        if (configs.size() > DIRECTORY_SCAN_LIMIT) {
+          // checking every entry on the write thread costs more than resolving the configs again on demand
+          LOG.debug { "GraphQL project configs index dropped after a directory change: ${file.path}" }
+          snapshot = Snapshot(snapshot.stamp)
+          return
+        }
+        removeDescendants(configs, file)
+      }
+      else if (file is VirtualFileWithId) {
+        configs.remove(file.id)
+      }
+    }
+  }
+
+  private fun removeDescendants(configs: ConcurrentIntObjectMap<Any>, dir: VirtualFile) {
+    val fileManager = VirtualFileManager.getInstance()
+    for (id in configs.keys()) {
+      val file = fileManager.findFileById(id)
+      if (file == null || VfsUtilCore.isAncestor(dir, file, false)) {
+        configs.remove(id)
+      }
+    }
+  }
+
+  /**
+   * Resolves the configs of all GraphQL files in the project content in small read actions,
+   * so it doesn't block the write actions and isn't restarted from scratch after each of them.
+   *
+   * @param resolve resolves the config of a file, which puts it into this index
+   */
+  suspend fun prebuild(resolve: (VirtualFile) -> Unit) {
+    val start = System.nanoTime()
+    val fileTypesProvider = GraphQLFileTypesProvider.getService()
+    val files = readAction {
+      val result = mutableListOf<VirtualFile>()
+      ProjectFileIndex.getInstance(project).iterateContent {
+        ProgressManager.checkCanceled()
+        if (!it.isDirectory && fileTypesProvider.isAcceptedFile(it)) {
+          result.add(it)
+        }
+        true
+      }
+      result
+    }
+
+    for (chunk in files.chunked(PREBUILD_CHUNK_SIZE)) {
+      checkCanceled()
+      readAction {
+        val configs = currentSnapshot.configs
+        for (file in chunk) {
+          if (file.isValid && file is VirtualFileWithId && !configs.containsKey(file.id)) {
+            resolve(file)
+          }
+        }
+      }
+    }
+
+    LOG.debug { "GraphQL project configs resolved for ${files.size} files in ${(System.nanoTime() - start).nanoseconds}" }
+  }
+}
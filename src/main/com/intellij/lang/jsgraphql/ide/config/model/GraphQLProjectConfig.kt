@@ -93,6 +93,26 @@ class GraphQLProjectConfig(
       .toList()
   }
 
+  private val schemaGlobs: GraphQLConfigGlobMatcher by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    GraphQLConfigGlobMatcher.compile(schema.filterNot { it.isRemote }.mapNotNull { it.globPath }, dir)
+  }
+
+  private val remoteSchemaPaths: List<String> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    schema.filter { it.isRemote }.mapNotNull { it.outputPath }
+  }
+
+  private val documentGlobs: GraphQLConfigGlobMatcher by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    GraphQLConfigGlobMatcher.compile(documents, dir)
+  }
+
+  private val includeGlobs: GraphQLConfigGlobMatcher by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    GraphQLConfigGlobMatcher.compile(include, dir)
+  }
+
+  private val excludeGlobs: GraphQLConfigGlobMatcher by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    GraphQLConfigGlobMatcher.compile(exclude, dir)
+  }
+
   private val matchingCache = GraphQLFileMatcherCache.newInstance(project)
 
   private val matchingSchemaCache = GraphQLFileMatcherCache.newInstance(project)
@@ -140,7 +160,7 @@ class GraphQLProjectConfig(
       return generatedSourcesManager.getSourceFile(virtualFile)?.let { matches(it) } ?: false
     }
 
-    val isSchemaOrDocument = sequenceOf(schema, documents).any { matchPattern(virtualFile, it) }
+    val isSchemaOrDocument = matchesSchemaPattern(virtualFile) || documentGlobs.matches(virtualFile)
     if (isSchemaOrDocument) {
       return true
     }
@@ -162,7 +182,7 @@ class GraphQLProjectConfig(
       return generatedSourcesManager.getSourceFile(virtualFile)?.let { matchesSchema(it) } ?: false
     }
 
-    val isSchema = schema.any { matchPattern(virtualFile, it) }
+    val isSchema = matchesSchemaPattern(virtualFile)
     if (isSchema) {
       return true
     }
@@ -175,12 +195,11 @@ class GraphQLProjectConfig(
       return true
     }
 
-    val isExcluded = if (exclude.isNotEmpty()) matchPattern(virtualFile, exclude) else false
-    if (isExcluded) {
+    if (excludeGlobs.matches(virtualFile)) {
       return false
     }
 
-    return if (include.isNotEmpty()) matchPattern(virtualFile, include) else false
+    return includeGlobs.matches(virtualFile)
   }
 
   fun isIncludedOutOfScopeFile(virtualFile: VirtualFile): Boolean {
@@ -193,19 +212,8 @@ class GraphQLProjectConfig(
            && absolutePaths.any { FileUtil.pathsEqual(it, file.path) }
   }
 
-  private fun matchPattern(candidate: VirtualFile, pointer: Any?): Boolean {
-    return when (pointer) {
-      is List<*> -> pointer.any { matchPattern(candidate, it) }
-      is String -> GraphQLConfigGlobMatcher.getInstance(project).matches(candidate, pointer, dir)
-      is GraphQLSchemaPointer -> if (pointer.isRemote) {
-        FileUtil.pathsEqual(candidate.path, pointer.outputPath)
-      }
-      else {
-        matchPattern(candidate, pointer.globPath)
-      }
-
-      else -> false
-    }
+  private fun matchesSchemaPattern(candidate: VirtualFile): Boolean {
+    return schemaGlobs.matches(candidate) || remoteSchemaPaths.any { FileUtil.pathsEqual(candidate.path, it) }
   }
 
   private fun buildEndpoints(): List<GraphQLConfigEndpoint> {
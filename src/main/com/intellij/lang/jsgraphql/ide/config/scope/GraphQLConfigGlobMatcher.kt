@@ -1,89 +1,124 @@
 package com.intellij.lang.jsgraphql.ide.config.scope
 
 import com.intellij.openapi.application.ApplicationManager
-import com.intellij.openapi.components.Service
-import com.intellij.openapi.components.service
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.diagnostic.trace
-import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.getPathMatcher
 import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.vfs.VfsUtil
 import com.intellij.openapi.vfs.VirtualFile
-import com.intellij.openapi.vfs.VirtualFileManager
-import com.intellij.psi.util.CachedValue
-import com.intellij.psi.util.CachedValueProvider
-import com.intellij.psi.util.CachedValuesManager
+import com.intellij.util.containers.CollectionFactory
 import java.io.File
 import java.nio.file.Path
 import java.nio.file.PathMatcher
-import java.util.concurrent.ConcurrentHashMap
 
+private val GLOB_SPECIAL_CHARS = charArrayOf('*', '?', '[', '{')
 
-@Service(Service.Level.PROJECT)
-class GraphQLConfigGlobMatcher(project: Project) {
+/**
+ * Glob patterns of a project config compiled once into a single matcher.
+ *
+ * Patterns without wildcards are compared as plain paths using a set lookup.
+ * The wildcard ones are grouped by their literal leading directories, so a file is checked only against the globs rooted in one of its parents.
+ * Relative and absolute paths of a file are computed once per query instead of once per pattern.
+ * The results are not cached here, the callers cache them per file, see [GraphQLFileMatcherCache].
+ */
+class GraphQLConfigGlobMatcher private constructor(
+  private val context: VirtualFile,
+  private val relative: PatternSet,
+  private val absolute: PatternSet,
+) {
   companion object {
     private val LOG = logger<GraphQLConfigGlobMatcher>()
 
     @JvmStatic
-    fun getInstance(project: Project) = project.service<GraphQLConfigGlobMatcher>()
-  }
-
-  private val matchResults: CachedValue<MutableMap<Pair<String, String>, Boolean>> =
-    CachedValuesManager.getManager(project).createCachedValue {
-      CachedValueProvider.Result.create(
-        ConcurrentHashMap(),
-        VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
-      )
+    fun compile(patterns: Collection<String>, context: VirtualFile): GraphQLConfigGlobMatcher {
+      val (absolutePatterns, relativePatterns) = patterns.filter { it.isNotBlank() }.partition { isAbsolutePattern(it) }
+      return GraphQLConfigGlobMatcher(context, PatternSet(relativePatterns), PatternSet(absolutePatterns))
     }
 
-  private val matchers: MutableMap<String, PathMatcher> = ConcurrentHashMap()
-
-  fun matches(file: VirtualFile, pattern: String, context: VirtualFile): Boolean {
-    val path = if (isAbsolutePattern(pattern)) {
-      file.path
-    }
-    else {
-      VfsUtil.findRelativePath(context, file, File.separatorChar)
-    }?.let { FileUtil.toCanonicalPath(it) }
+    private fun isAbsolutePattern(string: String): Boolean {
+      if (ApplicationManager.getApplication().isUnitTestMode) {
+        return string.startsWith("/")
+      }
 
-    val glob = FileUtil.toCanonicalPath(pattern)
-    return matches(path, glob).also {
-      LOG.trace { "path=${file.path}, pattern=${pattern}, context=${context.path}, result=${it}" }
+      return FileUtil.isAbsolute(string)
     }
   }
 
-  private fun isAbsolutePattern(string: String): Boolean {
-    if (ApplicationManager.getApplication().isUnitTestMode) {
-      return string.startsWith("/")
+  val isEmpty: Boolean
+    get() = relative.isEmpty && absolute.isEmpty
+
+  fun matches(file: VirtualFile): Boolean {
+    if (isEmpty) {
+      return false
     }
 
-    return FileUtil.isAbsolute(string)
+    val result = absolute.matches(file.path) ||
+                 !relative.isEmpty && relative.matches(VfsUtil.findRelativePath(context, file, File.separatorChar))
+    LOG.trace { "path=${file.path}, context=${context.path}, result=${result}" }
+    return result
   }
 
-  private fun matches(path: String?, glob: String?): Boolean {
-    if (path.isNullOrBlank() || glob.isNullOrBlank()) {
-      return false
+  private class PatternSet(patterns: List<String>) {
+    private val literals: MutableSet<String> = CollectionFactory.createFilePathSet()
+
+    // globs grouped by the literal directory they're rooted in, an empty string for the ones starting with a wildcard
+    private val globsByRoot: MutableMap<String, MutableList<PathMatcher>> = CollectionFactory.createFilePathMap()
+
+    init {
+      for (pattern in patterns) {
+        val glob = FileUtil.toCanonicalPath(pattern)
+        val wildcardIndex = glob.indexOfAny(GLOB_SPECIAL_CHARS)
+        if (wildcardIndex < 0) {
+          literals.add(glob)
+          continue
+        }
+
+        val matcher = try {
+          getPathMatcher(glob)
+        }
+        catch (e: Exception) {
+          LOG.warn("glob=$glob", e)
+          continue
+        }
+        val root = glob.substring(0, glob.lastIndexOf('/', wildcardIndex).coerceAtLeast(0))
+        globsByRoot.getOrPut(root) { mutableListOf() }.add(matcher)
+      }
     }
 
-    return matchResults.value.computeIfAbsent(path to glob) { (path, glob) ->
-      try {
-        getOrCreateMatcher(glob).matches(Path.of(path))
+    val isEmpty: Boolean = literals.isEmpty() && globsByRoot.isEmpty()
+
+    fun matches(rawPath: String?): Boolean {
+      if (rawPath.isNullOrBlank() || isEmpty) {
+        return false
+      }
+
+      val path = FileUtil.toCanonicalPath(rawPath)
+      if (path in literals) {
+        return true
+      }
+      if (globsByRoot.isEmpty()) {
+        return false
+      }
+
+      val nioPath = try {
+        Path.of(path)
       }
       catch (e: Exception) {
-        LOG.warn("path=$path, glob=$glob", e)
-        false
+        LOG.warn("path=$path", e)
+        return false
       }
-    }
-  }
 
-  private fun getOrCreateMatcher(glob: String): PathMatcher {
-    val cached = matchers[glob]
-    if (cached != null) {
-      return cached
+      // walk up the parent directories looking for the globs rooted in them
+      var dir = path
+      while (dir.isNotEmpty()) {
+        dir = dir.substring(0, dir.lastIndexOf('/').coerceAtLeast(0))
+        val globs = globsByRoot[dir]
+        if (globs != null && globs.any { it.matches(nioPath) }) {
+          return true
+        }
+      }
+      return false
     }
-
-    val matcher = getPathMatcher(glob)
-    return matchers.putIfAbsent(glob, matcher) ?: matcher
   }
 }
@@ -1,13 +1,15 @@
 package com.intellij.lang.jsgraphql.ide.config.scope
 
+import com.intellij.ide.scratch.ScratchUtil
 import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigProvider
 import com.intellij.lang.jsgraphql.ide.config.model.GraphQLProjectConfig
+import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeDependency
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiManager
 import com.intellij.psi.search.DelegatingGlobalSearchScope
 import com.intellij.psi.search.GlobalSearchScope
-import com.intellij.psi.util.PsiModificationTracker
+import java.util.concurrent.atomic.AtomicLong
 
 open class GraphQLConfigScope(
   project: Project,
@@ -18,15 +20,37 @@ open class GraphQLConfigScope(
   private val psiManager = PsiManager.getInstance(project)
   private val configProvider = GraphQLConfigProvider.getInstance(project)
 
-  private val matchingFiles =
-    GraphQLFileMatcherCache.newInstance(project, PsiModificationTracker.MODIFICATION_COUNT)
+  /**
+   * Membership depends only on the configuration, the project roots and the VFS structure, see [GraphQLScopeDependency],
+   * so editing files doesn't drop it.
+   */
+  private val matchingFiles = GraphQLFileMatcherCache.newInstance(project)
+
+  private val requests = AtomicLong()
+  private val misses = AtomicLong()
+
+  val cacheHitsCount: Long
+    get() = requests.get() - misses.get()
+
+  val cacheMissesCount: Long
+    get() = misses.get()
 
   final override fun contains(file: VirtualFile): Boolean {
     if (!super.contains(file)) {
       return false
     }
 
-    return matchingFiles.value.match(file, ::match)
+    requests.incrementAndGet()
+    if (ScratchUtil.isScratch(file)) {
+      // scratch files can override the config with a comment, so the result depends on the content
+      misses.incrementAndGet()
+      return match(file)
+    }
+
+    return matchingFiles.value.match(file) {
+      misses.incrementAndGet()
+      match(it)
+    }
   }
 
   protected open fun match(file: VirtualFile): Boolean {
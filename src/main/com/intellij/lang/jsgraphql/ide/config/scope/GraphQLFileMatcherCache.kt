@@ -1,19 +1,23 @@
 package com.intellij.lang.jsgraphql.ide.config.scope
 
+import com.intellij.concurrency.ConcurrentCollectionFactory
 import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeDependency
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.vfs.VfsUtil
 import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileWithId
 import com.intellij.psi.util.CachedValue
 import com.intellij.psi.util.CachedValueProvider
 import com.intellij.psi.util.CachedValuesManager
-import java.util.concurrent.locks.ReentrantReadWriteLock
-import kotlin.concurrent.read
-import kotlin.concurrent.write
+import com.intellij.util.containers.ConcurrentIntObjectMap
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * It is recommended to use this class instead of a standard Map<VirtualFile, Boolean?>
  * due to the potential for a large number of files in a project.
+ *
+ * Results are stored in a concurrent map keyed by the file id, so concurrent lookups never block each other,
+ * and its size depends on the number of checked files rather than on the largest file id in the application.
+ * A result could be computed more than once by racing threads, but it's the same for the same dependencies.
  */
 class GraphQLFileMatcherCache {
   companion object {
@@ -27,9 +31,10 @@ class GraphQLFileMatcherCache {
       }
   }
 
-  private val lock = ReentrantReadWriteLock()
-  private val matchingFiles = VfsUtil.createCompactVirtualFileSet() // lock
-  private val excludedFiles = VfsUtil.createCompactVirtualFileSet() // lock
+  private val files: ConcurrentIntObjectMap<Boolean> = ConcurrentCollectionFactory.createConcurrentIntObjectMap()
+
+  // files without id, e.g. light virtual files
+  private val otherFiles = ConcurrentHashMap<VirtualFile, Boolean>()
 
   fun match(virtualFile: VirtualFile, matcher: (VirtualFile) -> Boolean): Boolean {
     val status = getMatchResult(virtualFile)
@@ -41,36 +46,21 @@ class GraphQLFileMatcherCache {
   }
 
   private fun getMatchResult(virtualFile: VirtualFile): Match {
-    return lock.read {
-      if (matchingFiles.contains(virtualFile)) {
-        Match.MATCHING
-      }
-      else if (excludedFiles.contains(virtualFile)) {
-        Match.EXCLUDED
-      }
-      else {
-        Match.UNKNOWN
-      }
+    if (virtualFile !is VirtualFileWithId) {
+      return otherFiles[virtualFile]?.let { if (it) Match.MATCHING else Match.EXCLUDED } ?: Match.UNKNOWN
     }
+
+    return files.get(virtualFile.id)?.let { if (it) Match.MATCHING else Match.EXCLUDED } ?: Match.UNKNOWN
   }
 
   private fun cacheResult(virtualFile: VirtualFile, isMatching: Boolean): Match {
-    return lock.write {
-      // need to re-check to prevent races
-      val concurrentMatch = getMatchResult(virtualFile)
-
-      if (concurrentMatch != Match.UNKNOWN) {
-        concurrentMatch
-      }
-      else if (isMatching) {
-        matchingFiles.add(virtualFile)
-        Match.MATCHING
-      }
-      else {
-        excludedFiles.add(virtualFile)
-        Match.EXCLUDED
-      }
+    if (virtualFile !is VirtualFileWithId) {
+      otherFiles.putIfAbsent(virtualFile, isMatching)
+    }
+    else {
+      files.putIfAbsent(virtualFile.id, isMatching)
     }
+    return if (isMatching) Match.MATCHING else Match.EXCLUDED
   }
 
   enum class Match {
@@ -7,72 +7,67 @@
  */
 package com.intellij.lang.jsgraphql.ide.indexing;
 
-import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionUtils;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLFileTypesProvider;
 import com.intellij.lang.jsgraphql.psi.GraphQLDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition;
-import com.intellij.openapi.util.Ref;
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeCondition;
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeName;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiLanguageInjectionHost;
 import com.intellij.psi.PsiRecursiveElementVisitor;
-import com.intellij.psi.text.BlockSupport;
-import com.intellij.psi.xml.XmlFile;
 import com.intellij.util.indexing.DataIndexer;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.FileBasedIndexExtension;
 import com.intellij.util.indexing.FileContent;
 import com.intellij.util.indexing.ID;
-import com.intellij.util.io.BooleanDataDescriptor;
 import com.intellij.util.io.DataExternalizer;
 import com.intellij.util.io.EnumeratorStringDescriptor;
 import com.intellij.util.io.KeyDescriptor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Index for processing files that contain one or more GraphQL fragment definitions
+ * Index of GraphQL fragment definitions by fragment name, including the injected ones.
+ * The value is the name of the type in the type condition of the fragment, or an empty string if it's missing.
+ * Injections are lexed without building PSI, see {@link GraphQLInjectedIndexData}.
  */
-public final class GraphQLFragmentNameIndex extends FileBasedIndexExtension<String, Boolean> {
+public final class GraphQLFragmentNameIndex extends FileBasedIndexExtension<String, String> {
 
-  public static final ID<String, Boolean> NAME = ID.create("GraphQLFragmentNameIndex");
+  public static final ID<String, String> NAME = ID.create("GraphQLFragmentNameIndex");
 
-  public static final String HAS_FRAGMENTS = "fragments";
-  public static final int VERSION = 1;
+  public static final int VERSION = 3;
 
   private static final String FRAGMENT_MARKER = "fragment ";
 
-  private final DataIndexer<String, Boolean, FileContent> myDataIndexer = inputData -> {
+  private final DataIndexer<String, String, FileContent> myDataIndexer = inputData -> {
     if (!StringUtil.contains(inputData.getContentAsText(), FRAGMENT_MARKER)) {
       return Collections.emptyMap();
     }
 
     PsiFile psiFile = inputData.getPsiFile();
-    if (psiFile instanceof XmlFile && BlockSupport.isTooDeep(psiFile)) {
-      return Collections.emptyMap();
+    if (!(psiFile instanceof GraphQLFile)) {
+      return GraphQLInjectedIndexData.getInstance(inputData).getFragments();
     }
 
-    Ref<Boolean> hasFragments = Ref.create(false);
+    Map<String, String> fragments = new HashMap<>();
     PsiRecursiveElementVisitor identifierVisitor = new PsiRecursiveElementVisitor() {
       @Override
       public void visitElement(@NotNull PsiElement element) {
-        if (hasFragments.get()) {
-          // done
-          return;
-        }
         if (element instanceof GraphQLDefinition) {
-          if (element instanceof GraphQLFragmentDefinition) {
-            hasFragments.set(true);
+          if (element instanceof GraphQLFragmentDefinition fragmentDefinition) {
+            String fragmentName = fragmentDefinition.getName();
+            if (fragmentName != null) {
+              fragments.putIfAbsent(fragmentName, StringUtil.notNullize(getTypeConditionName(fragmentDefinition)));
+            }
           }
           return; // no need to visit deeper than definitions since fragments are top level
         }
-        else if (element instanceof PsiLanguageInjectionHost host) {
-          if (GraphQLInjectionUtils.visitInjectionAsRawText(host, this)) {
-            return;
-          }
-        }
 
         super.visitElement(element);
       }
@@ -80,32 +75,33 @@ public final class GraphQLFragmentNameIndex extends FileBasedIndexExtension<Stri
 
     psiFile.accept(identifierVisitor);
 
-    if (hasFragments.get()) {
-      return Collections.singletonMap(HAS_FRAGMENTS, true);
-    }
-    else {
-      return Collections.emptyMap();
-    }
+    return fragments;
   };
 
+  private static @Nullable String getTypeConditionName(@NotNull GraphQLFragmentDefinition fragmentDefinition) {
+    GraphQLTypeCondition typeCondition = fragmentDefinition.getTypeCondition();
+    GraphQLTypeName typeName = typeCondition != null ? typeCondition.getTypeName() : null;
+    return typeName != null ? typeName.getName() : null;
+  }
+
   @Override
-  public @NotNull ID<String, Boolean> getName() {
+  public @NotNull ID<String, String> getName() {
     return NAME;
   }
 
   @Override
-  public @NotNull DataIndexer<String, Boolean, FileContent> getIndexer() {
+  public @NotNull DataIndexer<String, String, FileContent> getIndexer() {
     return myDataIndexer;
   }
 
   @Override
   public @NotNull KeyDescriptor<String> getKeyDescriptor() {
-    return new EnumeratorStringDescriptor();
+    return EnumeratorStringDescriptor.INSTANCE;
   }
 
   @Override
-  public @NotNull DataExternalizer<Boolean> getValueExternalizer() {
-    return BooleanDataDescriptor.INSTANCE;
+  public @NotNull DataExternalizer<String> getValueExternalizer() {
+    return EnumeratorStringDescriptor.INSTANCE;
   }
 
   @Override
@@ -14,14 +14,12 @@ import com.intellij.json.psi.JsonProperty;
 import com.intellij.json.psi.JsonStringLiteral;
 import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionUtils;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLFileTypesProvider;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiLanguageInjectionHost;
 import com.intellij.psi.PsiRecursiveElementVisitor;
-import com.intellij.psi.text.BlockSupport;
-import com.intellij.psi.xml.XmlFile;
 import com.intellij.util.indexing.DataIndexer;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.FileBasedIndexExtension;
@@ -34,17 +32,17 @@ import com.intellij.util.io.KeyDescriptor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Indexes GraphQL identifiers in GraphQL files, GraphQL injections, and JSON GraphQL introspection query result files.
+ * Injections are lexed without building PSI, see {@link GraphQLInjectedIndexData}.
  */
 public final class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, GraphQLIdentifierIndex.IdentifierKind> {
 
   public static final ID<String, IdentifierKind> NAME = ID.create("GraphQLIdentifierIndex");
-  public static final int VERSION = 3;
+  public static final int VERSION = 5;
 
   public enum IdentifierKind {
     IDENTIFIER_NAME
@@ -52,11 +50,14 @@ public final class GraphQLIdentifierIndex extends FileBasedIndexExtension<String
 
   private final DataIndexer<String, IdentifierKind, FileContent> myDataIndexer = inputData -> {
     PsiFile psiFile = inputData.getPsiFile();
-    if (psiFile instanceof XmlFile && BlockSupport.isTooDeep(psiFile)) {
-      return Collections.emptyMap();
+    final Map<String, IdentifierKind> identifiers = new HashMap<>();
+    if (!(psiFile instanceof GraphQLFile) && !(psiFile instanceof JsonFile)) {
+      for (String identifier : GraphQLInjectedIndexData.getInstance(inputData).getIdentifiers()) {
+        identifiers.put(identifier, IdentifierKind.IDENTIFIER_NAME);
+      }
+      return identifiers;
     }
 
-    final Map<String, IdentifierKind> identifiers = new HashMap<>();
     PsiRecursiveElementVisitor visitor = new PsiRecursiveElementVisitor() {
       @Override
       public void visitElement(@NotNull PsiElement element) {
@@ -86,11 +87,6 @@ public final class GraphQLIdentifierIndex extends FileBasedIndexExtension<String
             }
           }
         }
-        else if (element instanceof PsiLanguageInjectionHost host) {
-          if (GraphQLInjectionUtils.visitInjectionAsRawText(host, this)) {
-            return;
-          }
-        }
 
         super.visitElement(element);
       }
@@ -0,0 +1,253 @@
+package com.intellij.lang.jsgraphql.ide.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLLexerAdapter;
+import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectedLanguage;
+import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionUtils;
+import com.intellij.lang.jsgraphql.psi.GraphQLExtendedElementTypes;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiLanguageInjectionHost;
+import com.intellij.psi.PsiRecursiveElementVisitor;
+import com.intellij.psi.text.BlockSupport;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.util.indexing.FileContent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.AMP;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.AT;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.BRACE_L;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.BRACE_R;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.ENUM_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.EQUALS;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.FRAGMENT_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.IMPLEMENTS_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.INPUT_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.INTERFACE_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.MUTATION_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.NAME;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.ON_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.PAREN_L;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.PAREN_R;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.PIPE;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.QUERY_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.SCALAR_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.SPREAD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.SUBSCRIPTION_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.TYPE_KEYWORD;
+import static com.intellij.lang.jsgraphql.psi.GraphQLElementTypes.UNION_KEYWORD;
+
+/**
+ * GraphQL injected into a host file, e.g. tagged templates in JS/TS, collected once per indexed file and shared by
+ * {@link GraphQLIdentifierIndex}, {@link GraphQLFragmentNameIndex} and {@link GraphQLInjectionIndex}.
+ * <p>
+ * The injected text is only lexed, GraphQL PSI is never built for it. The same {@link FileContent} is passed to all indexes of a file,
+ * so the result is kept in its user data and the host PSI is visited only once.
+ * Must be used instead of {@link com.intellij.lang.injection.InjectedLanguageManager} during indexing,
+ * since it doesn't work consistently with non-physical PSI.
+ */
+public final class GraphQLInjectedIndexData {
+
+  private static final Key<GraphQLInjectedIndexData> INJECTED_INDEX_DATA_KEY = Key.create("graphql.injected.index.data");
+
+  private static final GraphQLInjectedIndexData EMPTY =
+    new GraphQLInjectedIndexData(false, Collections.emptySet(), Collections.emptyMap());
+
+  private static final TokenSet IDENTIFIERS = TokenSet.orSet(TokenSet.create(NAME), GraphQLExtendedElementTypes.KEYWORDS);
+  private static final TokenSet SKIPPED = TokenSet.orSet(GraphQLExtendedElementTypes.WHITE_SPACES, GraphQLExtendedElementTypes.COMMENTS);
+
+  /**
+   * Tokens which are followed by a name at the top level, e.g. {@code query type}, {@code type input} or {@code implements on}.
+   * A keyword after {@code extend} starts a definition, the name follows that keyword.
+   */
+  private static final TokenSet NAME_PREDECESSORS = TokenSet.create(
+    QUERY_KEYWORD, MUTATION_KEYWORD, SUBSCRIPTION_KEYWORD, FRAGMENT_KEYWORD, TYPE_KEYWORD, INPUT_KEYWORD, INTERFACE_KEYWORD,
+    ENUM_KEYWORD, UNION_KEYWORD, SCALAR_KEYWORD, IMPLEMENTS_KEYWORD, AMP, EQUALS, PIPE);
+
+  private final boolean myHasInjections;
+  private final Set<String> myIdentifiers;
+  private final Map<String, String> myFragments;
+
+  private GraphQLInjectedIndexData(boolean hasInjections, @NotNull Set<String> identifiers, @NotNull Map<String, String> fragments) {
+    myHasInjections = hasInjections;
+    myIdentifiers = identifiers;
+    myFragments = fragments;
+  }
+
+  /**
+   * @return {@code true} if an injection is expected in the file, no matter if it's correctly injected or not
+   */
+  public boolean hasInjections() {
+    return myHasInjections;
+  }
+
+  /**
+   * Names of the identifiers in the injections, excluding the template placeholders.
+   * Keywords are included only when they're used as names, e.g. a field named {@code type}.
+   */
+  public @NotNull Set<String> getIdentifiers() {
+    return myIdentifiers;
+  }
+
+  /**
+   * Names of the injected fragment definitions mapped to the type condition name, or an empty string if it's missing.
+   */
+  public @NotNull Map<String, String> getFragments() {
+    return myFragments;
+  }
+
+  public static @NotNull GraphQLInjectedIndexData getInstance(@NotNull FileContent content) {
+    GraphQLInjectedIndexData data = content.getUserData(INJECTED_INDEX_DATA_KEY);
+    if (data == null) {
+      data = compute(content);
+      content.putUserData(INJECTED_INDEX_DATA_KEY, data);
+    }
+    return data;
+  }
+
+  private static @NotNull GraphQLInjectedIndexData compute(@NotNull FileContent content) {
+    PsiFile psiFile = content.getPsiFile();
+    if (psiFile instanceof XmlFile && BlockSupport.isTooDeep(psiFile)) {
+      return EMPTY;
+    }
+
+    Collector collector = new Collector();
+    psiFile.accept(new PsiRecursiveElementVisitor() {
+      @Override
+      public void visitElement(@NotNull PsiElement element) {
+        if (element instanceof PsiLanguageInjectionHost) {
+          GraphQLInjectedLanguage injectedLanguage = GraphQLInjectedLanguage.forElement(element);
+          if (injectedLanguage != null && injectedLanguage.isLanguageInjectionTarget(element)) {
+            collector.hasInjections = true;
+            String injectedText = injectedLanguage.getInjectedTextForIndexing(element);
+            if (injectedText != null) {
+              collector.collect(injectedText);
+            }
+            return;
+          }
+        }
+
+        super.visitElement(element);
+      }
+    });
+
+    return collector.hasInjections
+           ? new GraphQLInjectedIndexData(true, collector.identifiers, collector.fragments)
+           : EMPTY;
+  }
+
+  private static final class Collector {
+    private final Set<String> identifiers = new HashSet<>();
+    private final Map<String, String> fragments = new HashMap<>();
+    private boolean hasInjections;
+
+    void collect(@NotNull CharSequence text) {
+      Lexer lexer = new GraphQLLexerAdapter();
+      lexer.start(text);
+
+      int braceDepth = 0;
+      int parenDepth = 0;
+      IElementType previous = null;
+      // a fragment definition is a top level 'fragment' Name 'on' TypeName, the type condition is optional only in broken code
+      boolean expectFragmentName = false;
+      boolean expectTypeCondition = false;
+      boolean expectTypeConditionName = false;
+      String fragmentName = null;
+
+      for (IElementType tokenType; (tokenType = lexer.getTokenType()) != null; lexer.advance()) {
+        if (SKIPPED.contains(tokenType)) continue;
+
+        String name = IDENTIFIERS.contains(tokenType) ? lexer.getTokenText() : null;
+        if (expectFragmentName) {
+          expectFragmentName = false;
+          if (name != null && tokenType != ON_KEYWORD) {
+            fragmentName = name;
+            expectTypeCondition = true;
+            addIdentifier(name);
+            previous = NAME;
+            continue;
+          }
+        }
+        else if (expectTypeCondition) {
+          expectTypeCondition = false;
+          if (tokenType == ON_KEYWORD) {
+            expectTypeConditionName = true;
+            previous = tokenType;
+            continue;
+          }
+          addFragment(fragmentName, null);
+        }
+        else if (expectTypeConditionName) {
+          expectTypeConditionName = false;
+          addFragment(fragmentName, name);
+          if (name != null) {
+            addIdentifier(name);
+            previous = NAME;
+            continue;
+          }
+        }
+
+        if (tokenType == BRACE_L) {
+          braceDepth++;
+        }
+        else if (tokenType == BRACE_R) {
+          braceDepth = Math.max(0, braceDepth - 1);
+        }
+        else if (tokenType == PAREN_L) {
+          parenDepth++;
+        }
+        else if (tokenType == PAREN_R) {
+          parenDepth = Math.max(0, parenDepth - 1);
+        }
+        else if (tokenType == FRAGMENT_KEYWORD && braceDepth == 0 && parenDepth == 0) {
+          expectFragmentName = true;
+        }
+        else if (tokenType == NAME) {
+          addIdentifier(name);
+        }
+        else if (name != null && isKeywordUsedAsName(tokenType, previous, braceDepth, parenDepth)) {
+          addIdentifier(name);
+          // the next token follows a name, e.g. 'implements' in 'type type implements Node' is a keyword again
+          tokenType = NAME;
+        }
+        previous = tokenType;
+      }
+
+      if (expectTypeCondition || expectTypeConditionName) {
+        addFragment(fragmentName, null);
+      }
+    }
+
+    private static boolean isKeywordUsedAsName(@NotNull IElementType tokenType,
+                                               @Nullable IElementType previous,
+                                               int braceDepth,
+                                               int parenDepth) {
+      if (previous == AT) return true;
+      if (tokenType == ON_KEYWORD && previous == SPREAD) return false;
+      // definitions start only at the top level, so any keyword in a selection set or an argument list is a name
+      if (braceDepth > 0 || parenDepth > 0) return true;
+      // at the top level a keyword is a name only where the grammar expects one, otherwise it starts a definition
+      return previous != null && NAME_PREDECESSORS.contains(previous);
+    }
+
+    private void addIdentifier(@NotNull String name) {
+      if (!GraphQLInjectionUtils.isTemplatePlaceholderName(name)) {
+        identifiers.add(name);
+      }
+    }
+
+    private void addFragment(@NotNull String name, @Nullable String typeCondition) {
+      fragments.putIfAbsent(name, typeCondition != null ? typeCondition : "");
+    }
+  }
+}
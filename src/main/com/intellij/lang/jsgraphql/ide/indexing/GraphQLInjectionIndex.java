@@ -8,15 +8,7 @@
 package com.intellij.lang.jsgraphql.ide.indexing;
 
 import com.intellij.lang.jsgraphql.GraphQLFileType;
-import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectedLanguage;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLFileTypesProvider;
-import com.intellij.openapi.util.Ref;
-import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiLanguageInjectionHost;
-import com.intellij.psi.PsiRecursiveElementVisitor;
-import com.intellij.psi.text.BlockSupport;
-import com.intellij.psi.xml.XmlFile;
 import com.intellij.util.indexing.DataIndexer;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.FileContent;
@@ -31,6 +23,7 @@ import java.util.Map;
 
 /**
  * Indexes files which contain GraphQL Injection to enable discovery of type definitions written using injected Schema IDL.
+ * Shares the pass over the host file with the other indexes, see {@link GraphQLInjectedIndexData}.
  */
 public final class GraphQLInjectionIndex extends ScalarIndexExtension<String> {
 
@@ -38,32 +31,10 @@ public final class GraphQLInjectionIndex extends ScalarIndexExtension<String> {
   public static final String INJECTION_MARKER = "true";
 
   private static final Map<String, Void> INJECTED_KEY = Collections.singletonMap(INJECTION_MARKER, null);
-  public static final int VERSION = 3;
+  public static final int VERSION = 4;
 
-  private final DataIndexer<String, Void, FileContent> myDataIndexer = inputData -> {
-    PsiFile psiFile = inputData.getPsiFile();
-    if (psiFile instanceof XmlFile && BlockSupport.isTooDeep(psiFile)) {
-      return Collections.emptyMap();
-    }
-
-    final Ref<Boolean> isInjected = new Ref<>(Boolean.FALSE);
-    psiFile.accept(new PsiRecursiveElementVisitor() {
-      @Override
-      public void visitElement(@NotNull PsiElement element) {
-        if (element instanceof PsiLanguageInjectionHost) {
-          GraphQLInjectedLanguage injectedLanguage = GraphQLInjectedLanguage.forElement(element);
-          if (injectedLanguage != null && injectedLanguage.isLanguageInjectionTarget(element)) {
-            isInjected.set(Boolean.TRUE);
-          }
-        }
-        else if (isInjected.get() == Boolean.FALSE) {
-          // visit deeper until injection found
-          super.visitElement(element);
-        }
-      }
-    });
-    return isInjected.get() == Boolean.FALSE ? Collections.emptyMap() : INJECTED_KEY;
-  };
+  private final DataIndexer<String, Void, FileContent> myDataIndexer =
+    inputData -> GraphQLInjectedIndexData.getInstance(inputData).hasInjections() ? INJECTED_KEY : Collections.emptyMap();
 
   @Override
   public @NotNull ID<String, Void> getName() {
@@ -0,0 +1,189 @@
+package com.intellij.lang.jsgraphql.ide.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLFileType;
+import com.intellij.lang.jsgraphql.psi.GraphQLDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLEnumValueDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLEnumValueDefinitions;
+import com.intellij.lang.jsgraphql.psi.GraphQLFieldDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLFieldsDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
+import com.intellij.lang.jsgraphql.psi.GraphQLInputObjectValueDefinitions;
+import com.intellij.lang.jsgraphql.psi.GraphQLInputValueDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLNamedTypeDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLNamedTypeExtension;
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeName;
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeNameDefinition;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps schema coordinates of the definitions in GraphQL files to the offsets of their name identifiers:
+ * <ul>
+ *   <li>{@code Type.field} for fields of object types, interfaces and input objects, including type extensions</li>
+ *   <li>{@code Enum.VALUE} for enum values</li>
+ * </ul>
+ * Allows resolving a member of a known type without loading every file which contains an identifier with the same name.
+ * Arguments are not indexed, they're resolved from the field or the directive definition their owner is resolved to,
+ * so an argument never resolves to another one of several duplicate definitions.
+ * Injected GraphQL is not covered.
+ */
+public final class GraphQLSchemaCoordinateIndex extends FileBasedIndexExtension<String, Integer> {
+
+  public static final ID<String, Integer> NAME = ID.create("GraphQLSchemaCoordinateIndex");
+
+  public static final int VERSION = 2;
+
+  private final DataIndexer<String, Integer, FileContent> myDataIndexer = inputData -> {
+    if (!(inputData.getPsiFile() instanceof GraphQLFile file)) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, Integer> coordinates = new HashMap<>();
+    for (GraphQLDefinition definition : file.getDefinitions()) {
+      String typeName = getTypeName(definition);
+      if (typeName == null) continue;
+
+      GraphQLFieldsDefinition fieldsDefinition = PsiTreeUtil.getChildOfType(definition, GraphQLFieldsDefinition.class);
+      if (fieldsDefinition != null) {
+        for (GraphQLFieldDefinition field : fieldsDefinition.getFieldDefinitionList()) {
+          addCoordinate(coordinates, memberCoordinate(typeName, field.getName()), field.getNameIdentifier());
+        }
+      }
+
+      GraphQLInputObjectValueDefinitions inputFields = PsiTreeUtil.getChildOfType(definition, GraphQLInputObjectValueDefinitions.class);
+      if (inputFields != null) {
+        for (GraphQLInputValueDefinition inputField : inputFields.getInputValueDefinitionList()) {
+          addCoordinate(coordinates, memberCoordinate(typeName, inputField.getName()), inputField.getNameIdentifier());
+        }
+      }
+
+      GraphQLEnumValueDefinitions enumValues = PsiTreeUtil.getChildOfType(definition, GraphQLEnumValueDefinitions.class);
+      if (enumValues != null) {
+        for (GraphQLEnumValueDefinition enumValue : enumValues.getEnumValueDefinitionList()) {
+          GraphQLIdentifier nameIdentifier = enumValue.getEnumValue().getNameIdentifier();
+          addCoordinate(coordinates, memberCoordinate(typeName, nameIdentifier.getText()), nameIdentifier);
+        }
+      }
+    }
+    return coordinates;
+  };
+
+  private static @Nullable String getTypeName(@NotNull GraphQLDefinition definition) {
+    if (definition instanceof GraphQLNamedTypeDefinition typeDefinition) {
+      GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
+      return typeNameDefinition != null ? typeNameDefinition.getName() : null;
+    }
+    if (definition instanceof GraphQLNamedTypeExtension typeExtension) {
+      GraphQLTypeName typeName = typeExtension.getTypeName();
+      return typeName != null ? typeName.getName() : null;
+    }
+    return null;
+  }
+
+  private static void addCoordinate(@NotNull Map<String, Integer> coordinates,
+                                    @Nullable String coordinate,
+                                    @Nullable GraphQLIdentifier nameIdentifier) {
+    if (coordinate == null || nameIdentifier == null) return;
+    // the first definition wins, the same as when the named elements of a file are processed in order
+    coordinates.putIfAbsent(coordinate, nameIdentifier.getTextRange().getStartOffset());
+  }
+
+  /**
+   * @return a coordinate of a field, an input field or an enum value, e.g. {@code Query.user} or {@code Color.RED}
+   */
+  public static @Nullable String memberCoordinate(@Nullable String typeName, @Nullable String memberName) {
+    if (typeName == null || memberName == null) return null;
+    return typeName + "." + memberName;
+  }
+
+  /**
+   * Finds the name identifier of the definition with the given coordinate in the GraphQL files of the scope.
+   *
+   * @return the first found identifier or null if there are no definitions or the index is not ready
+   */
+  public static @Nullable GraphQLIdentifier findDefinition(@NotNull Project project,
+                                                           @NotNull String coordinate,
+                                                           @NotNull GlobalSearchScope scope) {
+    if (DumbService.isDumb(project)) return null;
+
+    PsiManager psiManager = PsiManager.getInstance(project);
+    Ref<GraphQLIdentifier> result = Ref.create();
+    try {
+      FileBasedIndex.getInstance().processValues(NAME, coordinate, null, (virtualFile, offset) -> {
+        PsiFile psiFile = psiManager.findFile(virtualFile);
+        if (psiFile == null) return true;
+
+        PsiElement leaf = psiFile.findElementAt(offset);
+        GraphQLIdentifier identifier = leaf != null ? PsiTreeUtil.getParentOfType(leaf, GraphQLIdentifier.class, false) : null;
+        if (identifier != null && identifier.getTextRange().getStartOffset() == offset) {
+          result.set(identifier);
+          return false;
+        }
+        return true;
+      }, scope);
+    }
+    catch (IndexNotReadyException e) {
+      return null;
+    }
+    return result.get();
+  }
+
+  @Override
+  public @NotNull ID<String, Integer> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull DataIndexer<String, Integer, FileContent> getIndexer() {
+    return myDataIndexer;
+  }
+
+  @Override
+  public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @Override
+  public @NotNull DataExternalizer<Integer> getValueExternalizer() {
+    return EnumeratorIntegerDescriptor.INSTANCE;
+  }
+
+  @Override
+  public int getVersion() {
+    return GraphQLIndexUtil.INDEX_BASE_VERSION + VERSION;
+  }
+
+  @Override
+  public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GraphQLFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+}
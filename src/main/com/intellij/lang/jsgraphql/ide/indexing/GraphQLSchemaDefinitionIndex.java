@@ -0,0 +1,90 @@
+package com.intellij.lang.jsgraphql.ide.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLFileType;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLPsiDocumentBuilder;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaDocumentSerializer;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.ByteArraySequence;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.SingleEntryFileBasedIndexExtension;
+import com.intellij.util.indexing.SingleEntryIndexer;
+import com.intellij.util.io.ByteSequenceDataExternalizer;
+import com.intellij.util.io.DataExternalizer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Stores the type system definitions of each GraphQL file in a compact serialized form,
+ * see {@link GraphQLSchemaDocumentSerializer}.
+ * Allows building a schema registry without parsing the files which aren't loaded yet, e.g. libraries and introspection results.
+ * Injected GraphQL is not covered and is still processed using PSI.
+ */
+public final class GraphQLSchemaDefinitionIndex extends SingleEntryFileBasedIndexExtension<ByteArraySequence> {
+  private static final Logger LOG = Logger.getInstance(GraphQLSchemaDefinitionIndex.class);
+
+  public static final ID<Integer, ByteArraySequence> NAME = ID.create("GraphQLSchemaDefinitionIndex");
+
+  public static final int VERSION = 1;
+
+  private final SingleEntryIndexer<ByteArraySequence> myIndexer = new SingleEntryIndexer<>(false) {
+    @Override
+    protected @Nullable ByteArraySequence computeValue(@NotNull FileContent inputData) {
+      PsiFile psiFile = inputData.getPsiFile();
+      if (!(psiFile instanceof GraphQLFile file)) {
+        return null;
+      }
+
+      try {
+        return GraphQLSchemaDocumentSerializer.write(
+          new GraphQLPsiDocumentBuilder(file, inputData.getContentAsText()).createSchemaDocument());
+      }
+      catch (IOException e) {
+        LOG.warn("Unable to serialize type definitions: " + inputData.getFile().getPath(), e);
+        return null;
+      }
+    }
+  };
+
+  /**
+   * @return serialized type definitions or null if the file is not indexed
+   */
+  public static @Nullable ByteArraySequence getFileData(@NotNull Project project, @NotNull VirtualFile file) {
+    Map<Integer, ByteArraySequence> data = FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    return data.isEmpty() ? null : data.values().iterator().next();
+  }
+
+  @Override
+  public @NotNull ID<Integer, ByteArraySequence> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull SingleEntryIndexer<ByteArraySequence> getIndexer() {
+    return myIndexer;
+  }
+
+  @Override
+  public @NotNull DataExternalizer<ByteArraySequence> getValueExternalizer() {
+    return ByteSequenceDataExternalizer.INSTANCE;
+  }
+
+  @Override
+  public int getVersion() {
+    return GraphQLIndexUtil.INDEX_BASE_VERSION + VERSION;
+  }
+
+  @Override
+  public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GraphQLFileType.INSTANCE);
+  }
+}
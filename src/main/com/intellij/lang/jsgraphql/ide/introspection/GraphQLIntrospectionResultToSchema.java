@@ -1,8 +1,13 @@
 package com.intellij.lang.jsgraphql.ide.introspection;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.intellij.lang.jsgraphql.GraphQLBundle;
 import com.intellij.lang.jsgraphql.psi.GraphQLElementFactory;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.types.language.Argument;
+import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.Description;
 import com.intellij.lang.jsgraphql.types.language.Directive;
 import com.intellij.lang.jsgraphql.types.language.DirectiveDefinition;
@@ -30,16 +35,20 @@ import com.intellij.lang.jsgraphql.types.language.Value;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static com.intellij.lang.jsgraphql.types.Assert.assertNotNull;
 import static com.intellij.lang.jsgraphql.types.Assert.assertShouldNeverHappen;
@@ -51,9 +60,28 @@ public class GraphQLIntrospectionResultToSchema {
   private static final Logger LOG = Logger.getInstance(GraphQLIntrospectionResultToSchema.class);
 
   private final Project myProject;
+  private final boolean mySkipDefaultValues;
+  private final Gson myGson = new Gson();
 
   public GraphQLIntrospectionResultToSchema(@NotNull Project project) {
+    this(project, false);
+  }
+
+  /**
+   * @param skipDefaultValues whether to omit the default values of arguments and input fields, which are potentially non-spec compliant
+   */
+  public GraphQLIntrospectionResultToSchema(@NotNull Project project, boolean skipDefaultValues) {
     myProject = project;
+    mySkipDefaultValues = skipDefaultValues;
+  }
+
+  /**
+   * Thrown when the introspection query response contains errors.
+   */
+  public static final class IntrospectionErrorsException extends IllegalArgumentException {
+    public IntrospectionErrorsException(@NotNull String message) {
+      super(message);
+    }
   }
 
   /**
@@ -67,9 +95,149 @@ public class GraphQLIntrospectionResultToSchema {
     assertTrue(introspectionResult.get("__schema") != null, () -> "__schema expected");
     Map<String, Object> schema = (Map<String, Object>)introspectionResult.get("__schema");
 
+    Document.Builder document = Document.newDocument();
+    SchemaDefinition schemaDefinition = createSchemaDefinition(
+      (Map<String, Object>)schema.get("queryType"),
+      (Map<String, Object>)schema.get("mutationType"),
+      (Map<String, Object>)schema.get("subscriptionType")
+    );
+    if (schemaDefinition != null) {
+      document.definition(schemaDefinition);
+    }
+
+    List<Map<String, Object>> types = (List<Map<String, Object>>)schema.get("types");
+    if (types != null) {
+      for (Map<String, Object> type : types) {
+        if (type == null) continue;
+        TypeDefinition<?> typeDefinition = createTypeDefinition(type);
+        document.definition(typeDefinition);
+      }
+    }
+
+    List<Map<String, Object>> directives = (List<Map<String, Object>>)schema.get("directives");
+    if (directives != null) {
+      for (Map<String, Object> directive : directives) {
+        if (directive == null) continue;
+        DirectiveDefinition directiveDefinition = createDirectiveDefinition(directive);
+        document.definition(directiveDefinition);
+      }
+    }
+
+    return document.build();
+  }
+
+  /**
+   * Returns a IDL Document that represents the schema read from the introspection result JSON.
+   * Accepts both the introspection result and a full query response containing it in the {@code data} member.
+   * <p>
+   * Unlike {@link #createSchemaDefinition(Map)}, the JSON is never materialized as a whole,
+   * only a single type or directive is kept in memory while it's converted to a definition.
+   *
+   * @param reader the reader positioned at the start of the top-level JSON object
+   * @return a IDL Document of the schema
+   * @throws IntrospectionErrorsException if the query response contains errors
+   * @throws IllegalArgumentException     if the response doesn't contain a schema
+   */
+  public @NotNull Document createSchemaDefinition(@NotNull JsonReader reader) throws IOException {
+    Document document = null;
+    List<?> errors = null;
+    boolean hasData = false;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "__schema" -> document = readSchema(reader);
+        case "errors" -> errors = myGson.fromJson(reader, List.class);
+        case "data" -> {
+          hasData = true;
+          if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            continue;
+          }
+          reader.beginObject();
+          while (reader.hasNext()) {
+            if ("__schema".equals(reader.nextName())) {
+              document = readSchema(reader);
+            }
+            else {
+              reader.skipValue();
+            }
+          }
+          reader.endObject();
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    // same precedence as for the parsed response: the errors are reported even if the data is present
+    if (errors != null && !errors.isEmpty()) {
+      throw new IntrospectionErrorsException(GraphQLBundle.message("graphql.introspection.errors", myGson.toJson(errors)));
+    }
+    if (document == null) {
+      throw new IllegalArgumentException(GraphQLBundle.message(
+        hasData ? "graphql.introspection.missing.schema" : "graphql.introspection.missing.data"));
+    }
+    return document;
+  }
+
+  @SuppressWarnings("unchecked")
+  private @NotNull Document readSchema(@NotNull JsonReader reader) throws IOException {
+    Map<String, Map<String, Object>> operationTypes = new HashMap<>();
+    List<Definition> definitions = new ArrayList<>();
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      switch (name) {
+        case "queryType", "mutationType", "subscriptionType" -> operationTypes.put(name, myGson.fromJson(reader, Map.class));
+        case "types" -> readObjects(reader, type -> definitions.add(createTypeDefinition(type)));
+        case "directives" -> readObjects(reader, directive -> definitions.add(createDirectiveDefinition(directive)));
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    SchemaDefinition schemaDefinition = createSchemaDefinition(
+      operationTypes.get("queryType"),
+      operationTypes.get("mutationType"),
+      operationTypes.get("subscriptionType")
+    );
+    if (schemaDefinition != null) {
+      definitions.add(0, schemaDefinition);
+    }
+    return Document.newDocument().definitions(definitions).build();
+  }
+
+  /**
+   * Reads the elements of a JSON array one at a time, skipping the null ones.
+   */
+  @SuppressWarnings("unchecked")
+  private void readObjects(@NotNull JsonReader reader, @NotNull Consumer<Map<String, Object>> consumer) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return;
+    }
+
+    reader.beginArray();
+    while (reader.hasNext()) {
+      ProgressManager.checkCanceled();
+      Map<String, Object> object = myGson.fromJson(reader, Map.class);
+      if (object != null) {
+        consumer.accept(object);
+      }
+    }
+    reader.endArray();
+  }
+
+  /**
+   * Returns a schema definition only if some of the operation types have non-default names.
+   */
+  private static @Nullable SchemaDefinition createSchemaDefinition(@Nullable Map<String, Object> queryType,
+                                                                   @Nullable Map<String, Object> mutationType,
+                                                                   @Nullable Map<String, Object> subscriptionType) {
     SchemaDefinition.Builder schemaDefinition = SchemaDefinition.newSchemaDefinition();
 
-    Map<String, Object> queryType = (Map<String, Object>)schema.get("queryType");
     boolean nonDefaultQueryName = false;
     if (queryType != null) {
       TypeName query = TypeName.newTypeName().name((String)queryType.get("name")).build();
@@ -78,7 +246,6 @@ public class GraphQLIntrospectionResultToSchema {
         OperationTypeDefinition.newOperationTypeDefinition().name("query").typeName(query).build());
     }
 
-    Map<String, Object> mutationType = (Map<String, Object>)schema.get("mutationType");
     boolean nonDefaultMutationName = false;
     if (mutationType != null) {
       TypeName mutation = TypeName.newTypeName().name((String)mutationType.get("name")).build();
@@ -87,7 +254,6 @@ public class GraphQLIntrospectionResultToSchema {
         OperationTypeDefinition.newOperationTypeDefinition().name("mutation").typeName(mutation).build());
     }
 
-    Map<String, Object> subscriptionType = (Map<String, Object>)schema.get("subscriptionType");
     boolean nonDefaultSubscriptionName = false;
     if (subscriptionType != null) {
       TypeName subscription = TypeName.newTypeName().name(((String)subscriptionType.get("name"))).build();
@@ -97,30 +263,7 @@ public class GraphQLIntrospectionResultToSchema {
           .typeName(subscription).build());
     }
 
-    Document.Builder document = Document.newDocument();
-    if (nonDefaultQueryName || nonDefaultMutationName || nonDefaultSubscriptionName) {
-      document.definition(schemaDefinition.build());
-    }
-
-    List<Map<String, Object>> types = (List<Map<String, Object>>)schema.get("types");
-    if (types != null) {
-      for (Map<String, Object> type : types) {
-        if (type == null) continue;
-        TypeDefinition<?> typeDefinition = createTypeDefinition(type);
-        document.definition(typeDefinition);
-      }
-    }
-
-    List<Map<String, Object>> directives = (List<Map<String, Object>>)schema.get("directives");
-    if (directives != null) {
-      for (Map<String, Object> directive : directives) {
-        if (directive == null) continue;
-        DirectiveDefinition directiveDefinition = createDirectiveDefinition(directive);
-        document.definition(directiveDefinition);
-      }
-    }
-
-    return document.build();
+    return nonDefaultQueryName || nonDefaultMutationName || nonDefaultSubscriptionName ? schemaDefinition.build() : null;
   }
 
   private @NotNull TypeDefinition<?> createTypeDefinition(@NotNull Map<String, Object> type) {
@@ -168,7 +311,7 @@ public class GraphQLIntrospectionResultToSchema {
       if (inputValue == null) continue;
 
       Type argType = createTypeReference((Map<String, Object>)inputValue.get("type"));
-      String valueLiteral = (String)inputValue.get("defaultValue");
+      String valueLiteral = mySkipDefaultValues ? null : (String)inputValue.get("defaultValue");
       Value defaultValue = valueLiteral != null ? valueFromAst(valueLiteral) : null;
       InputValueDefinition inputValueDefinition = InputValueDefinition.newInputValueDefinition()
         .name((String)inputValue.get("name"))
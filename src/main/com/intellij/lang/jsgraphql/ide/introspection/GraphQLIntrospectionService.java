@@ -9,6 +9,8 @@ package com.intellij.lang.jsgraphql.ide.introspection;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.lang.jsgraphql.GraphQLBundle;
 import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigListener;
@@ -43,16 +45,16 @@ import com.intellij.openapi.options.advanced.AdvancedSettings;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.util.Consumer;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -169,29 +171,32 @@ public final class GraphQLIntrospectionService implements Disposable {
       () -> propertiesComponent.setValue(GRAPHQL_TRUST_ALL_HOSTS, true));
   }
 
+  /**
+   * Converts the introspection JSON to SDL reading it as a token stream, so the parsed JSON is never held in memory as a whole.
+   */
   public static @NotNull String printIntrospectionAsGraphQL(@NotNull Project project, @NotNull String introspectionJson) {
-    return printIntrospectionAsGraphQL(project, GraphQLQueryClient.parseResponseJsonAsMap(introspectionJson));
+    Document schemaDefinition;
+    try (JsonReader reader = new JsonReader(new StringReader(GraphQLQueryClient.sanitizeResponseJson(introspectionJson)))) {
+      schemaDefinition = createIntrospectionResultToSchema(project).createSchemaDefinition(reader);
+    }
+    catch (IOException | IllegalStateException e) {
+      // malformed JSON or an unexpected token
+      throw new JsonSyntaxException(e);
+    }
+    return printSchemaDefinition(project, schemaDefinition);
   }
 
   public static @NotNull String printIntrospectionAsGraphQL(@NotNull Project project, @NotNull Map<String, Object> introspection) {
     introspection = getIntrospectionSchemaDataFromParsedResponse(introspection);
+    return printSchemaDefinition(project, createIntrospectionResultToSchema(project).createSchemaDefinition(introspection));
+  }
 
-    if (AdvancedSettings.getBoolean("graphql.introspection.skip.default.values")) {
-      // strip out the defaultValues that are potentially non-spec compliant
-      Ref<Consumer<Object>> defaultValueVisitJson = Ref.create();
-      defaultValueVisitJson.set((value) -> {
-        if (value instanceof Collection) {
-          ((Collection<?>)value).forEach(colValue -> defaultValueVisitJson.get().consume(colValue));
-        }
-        else if (value instanceof Map) {
-          ((Map<?, ?>)value).remove("defaultValue");
-          ((Map<?, ?>)value).values().forEach(mapValue -> defaultValueVisitJson.get().consume(mapValue));
-        }
-      });
-      defaultValueVisitJson.get().consume(introspection);
-    }
+  private static @NotNull GraphQLIntrospectionResultToSchema createIntrospectionResultToSchema(@NotNull Project project) {
+    // strip out the defaultValues that are potentially non-spec compliant
+    return new GraphQLIntrospectionResultToSchema(project, AdvancedSettings.getBoolean("graphql.introspection.skip.default.values"));
+  }
 
-    Document schemaDefinition = new GraphQLIntrospectionResultToSchema(project).createSchemaDefinition(introspection);
+  private static @NotNull String printSchemaDefinition(@NotNull Project project, @NotNull Document schemaDefinition) {
     SchemaPrinter.Options options = SchemaPrinter.Options
       .defaultOptions()
       .includeScalarTypes(true)
@@ -237,42 +242,30 @@ public final class GraphQLIntrospectionService implements Disposable {
   record IntrospectionOutput(@NotNull String schemaText, @NotNull IntrospectionOutputFormat format) {
   }
 
-  private static @Nullable Map<String, Object> parseIntrospectionResponse(@NotNull Project project,
-                                                                          @NotNull GraphQLConfigEndpoint endpoint,
-                                                                          @NotNull String introspectionResponse) {
-    try {
-      Map<String, Object> introspection = GraphQLQueryClient.parseResponseJsonAsMap(introspectionResponse);
-      if (GraphQLIntrospectionUtil.getErrorCountFromResponse(introspection) > 0) {
-        GraphQLUIProjectService.getInstance(project).showQueryResult(introspectionResponse);
-      }
-      return introspection;
-    }
-    catch (JsonParseException exception) {
-      handleIntrospectionError(project, endpoint, exception,
-                               GraphQLBundle.message("graphql.notification.introspection.parse.error"),
-                               introspectionResponse);
-      return null;
-    }
-  }
-
   static @Nullable IntrospectionOutput parseIntrospectionOutput(@NotNull Project project,
                                                                 @NotNull GraphQLConfigEndpoint endpoint,
                                                                 @NotNull String schemaPath,
                                                                 @NotNull String rawIntrospectionResponse) {
-    var parsedIntrospection = parseIntrospectionResponse(project, endpoint, rawIntrospectionResponse);
-    if (parsedIntrospection == null) return null;
-
     IntrospectionOutputFormat format = schemaPath.endsWith(".json") ? IntrospectionOutputFormat.JSON : IntrospectionOutputFormat.SDL;
     try {
       // always try to print the schema to validate it since that will be done in schema discovery of the JSON anyway
-      String schemaAsSDL = printIntrospectionAsGraphQL(project, parsedIntrospection);
+      String schemaAsSDL = printIntrospectionAsGraphQL(project, rawIntrospectionResponse);
       String schemaText = format == IntrospectionOutputFormat.SDL ? schemaAsSDL : rawIntrospectionResponse;
       return new IntrospectionOutput(schemaText, format);
     }
     catch (CancellationException exception) {
       throw exception;
     }
+    catch (JsonParseException exception) {
+      handleIntrospectionError(project, endpoint, exception,
+                               GraphQLBundle.message("graphql.notification.introspection.parse.error"),
+                               rawIntrospectionResponse);
+      return null;
+    }
     catch (Exception exception) {
+      if (exception instanceof GraphQLIntrospectionResultToSchema.IntrospectionErrorsException) {
+        GraphQLUIProjectService.getInstance(project).showQueryResult(rawIntrospectionResponse);
+      }
       handleIntrospectionError(project, endpoint, exception, null, rawIntrospectionResponse);
       return null;
     }
@@ -61,9 +61,4 @@ fun promptForEnvVariables(project: Project, endpoint: GraphQLConfigEndpoint?): G
   }
 
   return endpoint.withUpdatedEnvironment()
-}
-
-internal fun getErrorCountFromResponse(introspection: Map<String, Any?>): Int {
-  val errors = introspection["errors"]
-  return if (errors is Collection<*>) errors.size else 0
 }
\ No newline at end of file
@@ -70,7 +70,8 @@ class GraphQLQueryClient(private val project: Project) {
      * @param responseJson the JSON to sanitize
      * @return a sanitized version where the character ranges are within those allowed by the GraphQL Language Specification
      */
-    private fun sanitizeResponseJson(responseJson: String): String {
+    @JvmStatic
+    fun sanitizeResponseJson(responseJson: String): String {
       // Strip out emojis (e.g. the one in the GitHub schema) since they're outside the allowed range
       @Suppress("RegExpDuplicateAlternationBranch")
       return responseJson.replace("[\ud83c\udf00-\ud83d\ude4f]|[\ud83d\ude80-\ud83d\udeff]".toRegex(), "")
@@ -0,0 +1,46 @@
+package com.intellij.lang.jsgraphql.ide.project.schemastatus
+
+import com.intellij.icons.AllIcons
+import com.intellij.lang.jsgraphql.GraphQLBundle
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaBuildMetrics
+import com.intellij.ui.treeStructure.CachingSimpleNode
+import com.intellij.ui.treeStructure.SimpleNode
+
+/**
+ * Tree node which shows the build counters and the timings of the last build of a schema
+ */
+class GraphQLSchemaBuildMetricsNode(parent: SimpleNode, metrics: GraphQLSchemaBuildMetrics.ScopeMetrics) : CachingSimpleNode(parent) {
+
+  init {
+    myName = GraphQLBundle.message("graphql.toolwindow.schema.metrics.node.name")
+
+    val cacheHitRate = if (metrics.requestsCount > 0) metrics.cacheHitsCount * 100 / metrics.requestsCount else 0
+    templatePresentation.locationString = "- " + GraphQLBundle.message(
+      "graphql.toolwindow.schema.metrics.summary",
+      metrics.buildsCount,
+      metrics.reusedBuildsCount,
+      metrics.cancellationsCount,
+      cacheHitRate,
+      metrics.waiting.total.inWholeMilliseconds
+    )
+
+    templatePresentation.tooltip = GraphQLSchemaBuildMetrics.Phase.values().joinToString(", ") {
+      val timer = metrics.getPhase(it)
+      GraphQLBundle.message(
+        "graphql.toolwindow.schema.metrics.phase",
+        it.id,
+        timer.last.inWholeMilliseconds,
+        timer.max.inWholeMilliseconds
+      )
+    }
+    icon = AllIcons.Actions.Profile
+  }
+
+  public override fun buildChildren(): Array<SimpleNode> {
+    return NO_CHILDREN
+  }
+
+  override fun isAlwaysLeaf(): Boolean {
+    return true
+  }
+}
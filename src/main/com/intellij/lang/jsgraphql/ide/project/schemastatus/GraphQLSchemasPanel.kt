@@ -20,6 +20,7 @@ import com.intellij.lang.jsgraphql.ide.project.toolwindow.GraphQLToolWindow
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaCacheChangeListener
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaContentChangeListener
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaContentTracker
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider
 import com.intellij.openapi.Disposable
 import com.intellij.openapi.actionSystem.ActionManager
 import com.intellij.openapi.actionSystem.ActionUpdateThread
@@ -27,11 +28,16 @@ import com.intellij.openapi.actionSystem.AnAction
 import com.intellij.openapi.actionSystem.AnActionEvent
 import com.intellij.openapi.actionSystem.DefaultActionGroup
 import com.intellij.openapi.application.ModalityState
+import com.intellij.openapi.fileChooser.FileChooserFactory
+import com.intellij.openapi.fileChooser.FileSaverDescriptor
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.Task
 import com.intellij.openapi.project.DumbService
 import com.intellij.openapi.project.IndexNotReadyException
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.ui.Messages
 import com.intellij.openapi.wm.ToolWindow
 import com.intellij.openapi.wm.ToolWindowManager
 import com.intellij.openapi.wm.ex.ToolWindowManagerListener
@@ -52,6 +58,7 @@ import com.intellij.util.messages.MessageBusConnection
 import com.intellij.util.ui.tree.TreeUtil
 import java.awt.BorderLayout
 import java.awt.Component
+import java.io.IOException
 import java.util.concurrent.atomic.AtomicBoolean
 import javax.swing.JPanel
 import javax.swing.tree.TreePath
@@ -249,6 +256,36 @@ internal class GraphQLSchemasPanel(private val project: Project, private val too
       group.add(it)
     }
 
+    group.add(object : AnAction(
+      GraphQLBundle.message("graphql.action.export.schema.metrics.text"),
+      GraphQLBundle.message("graphql.action.export.schema.metrics.description"),
+      AllIcons.ToolbarDecorator.Export
+    ) {
+      override fun actionPerformed(e: AnActionEvent) {
+        val descriptor = FileSaverDescriptor(
+          GraphQLBundle.message("graphql.dialog.title.export.schema.metrics"),
+          GraphQLBundle.message("graphql.action.export.schema.metrics.description"),
+          "json"
+        )
+        val fileWrapper = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project)
+                            .save("graphql-schema-metrics.json") ?: return
+        object : Task.Backgroundable(project, GraphQLBundle.message("graphql.progress.title.exporting.schema.metrics"), false) {
+          override fun run(indicator: ProgressIndicator) {
+            fileWrapper.file.writeText(GraphQLSchemaProvider.getInstance(project).metrics.toJson())
+          }
+
+          override fun onThrowable(error: Throwable) {
+            if (error is IOException) {
+              Messages.showErrorDialog(project, error.message, GraphQLBundle.message("graphql.dialog.title.export.schema.metrics"))
+            }
+            else {
+              super.onThrowable(error)
+            }
+          }
+        }.queue()
+      }
+    })
+
     group.add(object : AnAction(
       GraphQLBundle.message("graphql.action.schemas.panel.help.text"),
       GraphQLBundle.message("graphql.action.schemas.panel.open.documentation.description"),
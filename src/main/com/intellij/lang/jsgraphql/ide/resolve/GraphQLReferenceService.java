@@ -8,6 +8,8 @@
 package com.intellij.lang.jsgraphql.ide.resolve;
 
 import com.google.common.collect.Maps;
+import com.intellij.lang.jsgraphql.GraphQLFileType;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLSchemaCoordinateIndex;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
 import com.intellij.lang.jsgraphql.psi.GraphQLArgument;
 import com.intellij.lang.jsgraphql.psi.GraphQLArgumentsDefinition;
@@ -42,10 +44,12 @@ import com.intellij.lang.jsgraphql.schema.GraphQLSchemaUtil;
 import com.intellij.lang.jsgraphql.schema.library.GraphQLBundledLibraryTypes;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.PsiReference;
@@ -53,6 +57,8 @@ import com.intellij.psi.PsiReferenceBase;
 import com.intellij.psi.impl.AnyPsiChangeListener;
 import com.intellij.psi.impl.PsiManagerImpl;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.psi.search.DelegatingGlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -176,6 +182,7 @@ public class GraphQLReferenceService implements Disposable {
       if (directive != null) {
         final GraphQLIdentifier directiveNameIdentifier = directive.getNameIdentifier();
         if (directiveNameIdentifier != null) {
+          // the argument must belong to the same definition as the directive is resolved to, even if there are duplicates
           final PsiReference directiveReference = directiveNameIdentifier.getReference();
           if (directiveReference != null) {
             final PsiElement directiveIdentifier = directiveReference.resolve();
@@ -194,7 +201,7 @@ public class GraphQLReferenceService implements Disposable {
         }
         return null;
       }
-      // field argument
+      // field argument, resolved from the field definition which is found using a schema coordinate
       final GraphQLFieldImpl field = PsiTreeUtil.getParentOfType(element, GraphQLFieldImpl.class);
       if (field != null) {
         final PsiReference fieldPsiReference = field.getNameIdentifier().getReference();
@@ -254,38 +261,32 @@ public class GraphQLReferenceService implements Disposable {
       if (reference.isNull() && typeScopeProvider != null) {
         GraphQLType typeScope = typeScopeProvider.getTypeScope();
         if (typeScope != null) {
-          final GraphQLType fieldType = GraphQLSchemaUtil.getUnmodified(typeScope);
-          myPsiSearchHelper.processNamedElements(element, name, psiNamedElement -> {
+          final String typeName = GraphQLSchemaUtil.getTypeName(GraphQLSchemaUtil.getUnmodified(typeScope));
+          reference.set(resolveUsingCoordinate(element, GraphQLSchemaCoordinateIndex.memberCoordinate(typeName, name), psiNamedElement -> {
             if (psiNamedElement.getParent() instanceof GraphQLFieldDefinition fieldDefinition) {
               if (!Objects.equals(fieldDefinition.getName(), name)) {
                 // field name doesn't match, keep looking
-                return true;
+                return false;
               }
-              boolean isTypeMatch = false;
               final GraphQLTypeDefinition typeDefinition =
                 PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLTypeDefinition.class);
               if (typeDefinition != null) {
                 final GraphQLTypeNameDefinition typeNameDefinition =
                   PsiTreeUtil.findChildOfType(typeDefinition, GraphQLTypeNameDefinition.class);
-                isTypeMatch = typeNameDefinition != null &&
-                              GraphQLSchemaUtil.getTypeName(fieldType).equals(typeNameDefinition.getName());
-              }
-              if (!isTypeMatch) {
-                // check type extension
-                final GraphQLTypeExtension typeExtension =
-                  PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLTypeExtension.class);
-                if (typeExtension != null) {
-                  final GraphQLTypeName typeName = PsiTreeUtil.findChildOfType(typeExtension, GraphQLTypeName.class);
-                  isTypeMatch = typeName != null && GraphQLSchemaUtil.getTypeName(fieldType).equals(typeName.getName());
+                if (typeNameDefinition != null && typeName.equals(typeNameDefinition.getName())) {
+                  return true;
                 }
               }
-              if (isTypeMatch) {
-                reference.set(createReference(element, psiNamedElement));
-                return false; // done searching
+              // check type extension
+              final GraphQLTypeExtension typeExtension =
+                PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLTypeExtension.class);
+              if (typeExtension != null) {
+                final GraphQLTypeName extensionTypeName = PsiTreeUtil.findChildOfType(typeExtension, GraphQLTypeName.class);
+                return extensionTypeName != null && typeName.equals(extensionTypeName.getName());
               }
             }
-            return true;
-          });
+            return false;
+          }));
         }
       }
     }
@@ -327,10 +328,19 @@ public class GraphQLReferenceService implements Disposable {
 
   @Nullable
   PsiReference resolveFragmentDefinition(@NotNull GraphQLReferenceMixin element) {
-    return resolveUsingIndex(element,
-                             psiNamedElement -> psiNamedElement instanceof GraphQLIdentifier &&
-                                                psiNamedElement.getParent() instanceof GraphQLFragmentDefinition
-    );
+    final String name = element.getName();
+    if (name == null) {
+      return null;
+    }
+    // only the files defining a fragment with this name are loaded, not every file which spreads it
+    final GlobalSearchScope scope = GraphQLScopeProvider.getInstance(element.getProject()).getResolveScope(element);
+    for (GraphQLFragmentDefinition fragmentDefinition : myPsiSearchHelper.findFragmentDefinitions(name, scope)) {
+      final GraphQLIdentifier nameIdentifier = fragmentDefinition.getNameIdentifier();
+      if (nameIdentifier != null) {
+        return createReference(element, nameIdentifier);
+      }
+    }
+    return null;
   }
 
   private @Nullable PsiReference resolveObjectField(@NotNull GraphQLReferenceMixin element, @NotNull GraphQLObjectField field) {
@@ -341,7 +351,7 @@ public class GraphQLReferenceService implements Disposable {
         GraphQLType typeScope = fieldTypeScopeProvider.getTypeScope();
         if (typeScope != null) {
           final String namedTypeScope = GraphQLSchemaUtil.getUnmodified(typeScope).getName();
-          return resolveUsingIndex(element, psiNamedElement -> {
+          return resolveUsingCoordinate(element, GraphQLSchemaCoordinateIndex.memberCoordinate(namedTypeScope, name), psiNamedElement -> {
             if (psiNamedElement.getParent() instanceof GraphQLInputValueDefinition) {
               final GraphQLInputObjectTypeDefinition inputTypeDefinition =
                 PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLInputObjectTypeDefinition.class);
@@ -365,7 +375,7 @@ public class GraphQLReferenceService implements Disposable {
         GraphQLType typeScope = enumTypeScopeProvider.getTypeScope();
         if (typeScope != null) {
           final String namedTypeScope = GraphQLSchemaUtil.getUnmodified(typeScope).getName();
-          return resolveUsingIndex(element, psiNamedElement -> {
+          return resolveUsingCoordinate(element, GraphQLSchemaCoordinateIndex.memberCoordinate(namedTypeScope, name), psiNamedElement -> {
             if (psiNamedElement.getParent() instanceof GraphQLEnumValue) {
               final GraphQLEnumTypeDefinition enumTypeDefinition =
                 PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLEnumTypeDefinition.class);
@@ -386,12 +396,48 @@ public class GraphQLReferenceService implements Disposable {
       psiNamedElement instanceof GraphQLIdentifier && psiNamedElement.getParent() instanceof GraphQLDirectiveDefinition);
   }
 
+  /**
+   * Looks up the definition with the given schema coordinate in the GraphQL files of the resolve scope.
+   * Injected GraphQL is not indexed by coordinates, so it's searched by name and filtered with the predicate.
+   */
+  private @Nullable PsiReference resolveUsingCoordinate(@NotNull GraphQLReferenceMixin element,
+                                                        @Nullable String coordinate,
+                                                        @NotNull Predicate<? super PsiNamedElement> predicate) {
+    final PsiReference reference = findUsingCoordinate(element, coordinate);
+    if (reference != null) {
+      return reference;
+    }
+    final GlobalSearchScope scope = GraphQLScopeProvider.getInstance(element.getProject()).getResolveScope(element);
+    return resolveUsingIndex(element, predicate, new DelegatingGlobalSearchScope(scope) {
+      @Override
+      public boolean contains(@NotNull VirtualFile file) {
+        return !FileTypeRegistry.getInstance().isFileOfType(file, GraphQLFileType.INSTANCE) && super.contains(file);
+      }
+    });
+  }
+
+  private @Nullable PsiReference findUsingCoordinate(@NotNull GraphQLReferenceMixin element, @Nullable String coordinate) {
+    final String name = element.getName();
+    if (name == null || coordinate == null) {
+      return null;
+    }
+    final GlobalSearchScope scope = GraphQLScopeProvider.getInstance(element.getProject()).getResolveScope(element);
+    final GraphQLIdentifier definition = GraphQLSchemaCoordinateIndex.findDefinition(element.getProject(), coordinate, scope);
+    return definition != null && name.equals(definition.getText()) ? createReference(element, definition) : null;
+  }
+
   private @Nullable PsiReference resolveUsingIndex(@NotNull GraphQLReferenceMixin element,
                                                    @NotNull Predicate<? super PsiNamedElement> predicate) {
+    return resolveUsingIndex(element, predicate, GraphQLScopeProvider.getInstance(element.getProject()).getResolveScope(element));
+  }
+
+  private @Nullable PsiReference resolveUsingIndex(@NotNull GraphQLReferenceMixin element,
+                                                   @NotNull Predicate<? super PsiNamedElement> predicate,
+                                                   @NotNull GlobalSearchScope scope) {
     final String name = element.getName();
     Ref<PsiReference> reference = new Ref<>();
     if (name != null) {
-      myPsiSearchHelper.processNamedElements(element, name, psiNamedElement -> {
+      myPsiSearchHelper.processNamedElements(element.getProject(), name, scope, psiNamedElement -> {
         ProgressManager.checkCanceled();
         if (predicate.test(psiNamedElement)) {
           reference.set(new PsiReferenceBase<PsiNamedElement>(element, TextRange.from(0, element.getTextLength())) {
@@ -18,6 +18,12 @@ class GraphQLScopeDependency(project: Project) : ModificationTracker {
     projectRootManager.modificationCount +
     modificationTracker.modificationCount
 
+  /**
+   * Changes only on [update], unlike [getModificationCount] it doesn't track the VFS structure and the project roots.
+   */
+  val updatesCount: Long
+    get() = modificationTracker.modificationCount
+
   fun update() {
     modificationTracker.incModificationCount()
   }
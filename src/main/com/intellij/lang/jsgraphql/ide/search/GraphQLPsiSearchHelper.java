@@ -22,6 +22,7 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiLanguageInjectionHost;
@@ -31,15 +32,17 @@ import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.PairProcessor;
 import com.intellij.util.Processor;
-import com.intellij.util.containers.MultiMap;
 import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -72,23 +75,34 @@ public class GraphQLPsiSearchHelper implements Disposable {
     if (DumbService.isDumb(context.getProject())) return Collections.emptyList();
 
     try {
-      List<GraphQLFragmentDefinition> fragmentDefinitions = new ArrayList<>();
       GlobalSearchScope scope = GraphQLScopeProvider.getInstance(myProject).getResolveScope(context, false);
-      PsiManager psiManager = PsiManager.getInstance(myProject);
-      FileBasedIndex.getInstance().processFilesContainingAllKeys(
-        GraphQLFragmentNameIndex.NAME,
-        Collections.singleton(GraphQLFragmentNameIndex.HAS_FRAGMENTS),
-        scope,
-        null,
-        virtualFile -> {
-          PsiFile psiFile = psiManager.findFile(virtualFile);
-          if (psiFile != null) {
-            fragmentDefinitions.addAll(collectFragmentDefinitions(psiFile));
-          }
-          return true; // process all known fragments
+      // a single lookup for all the names, each file is visited once regardless of the number of fragments it defines
+      Set<VirtualFile> files = new LinkedHashSet<>();
+      FileBasedIndex.getInstance().processFilesContainingAnyKey(
+        GraphQLFragmentNameIndex.NAME, collectFragmentNames(scope), scope, null, null, file -> {
+          files.add(file);
+          return true;
         });
+      return findFragmentDefinitions(files, null);
+    }
+    catch (IndexNotReadyException e) {
+      LOG.warn(e);
+    }
+    return Collections.emptyList();
+  }
 
-      return fragmentDefinitions;
+  /**
+   * Finds fragment definitions with the specified name in the scope.
+   * Only the files which define a fragment with this name are loaded.
+   *
+   * @return a list of fragment definitions, or an empty list if the index is not yet ready
+   */
+  public @NotNull List<GraphQLFragmentDefinition> findFragmentDefinitions(@NotNull String fragmentName, @NotNull GlobalSearchScope scope) {
+    if (DumbService.isDumb(myProject)) return Collections.emptyList();
+
+    try {
+      return findFragmentDefinitions(
+        FileBasedIndex.getInstance().getContainingFiles(GraphQLFragmentNameIndex.NAME, fragmentName, scope), fragmentName);
     }
     catch (IndexNotReadyException e) {
       LOG.warn(e);
@@ -96,6 +110,66 @@ public class GraphQLPsiSearchHelper implements Disposable {
     return Collections.emptyList();
   }
 
+  private @NotNull List<GraphQLFragmentDefinition> findFragmentDefinitions(@NotNull Collection<VirtualFile> files,
+                                                                           @Nullable String fragmentName) {
+    List<GraphQLFragmentDefinition> fragmentDefinitions = new ArrayList<>();
+    for (VirtualFile virtualFile : files) {
+      PsiFile psiFile = myPsiManager.findFile(virtualFile);
+      if (psiFile != null) {
+        for (GraphQLFragmentDefinition fragmentDefinition : collectFragmentDefinitions(psiFile)) {
+          if (fragmentName == null || fragmentName.equals(fragmentDefinition.getName())) {
+            fragmentDefinitions.add(fragmentDefinition);
+          }
+        }
+      }
+    }
+    return fragmentDefinitions;
+  }
+
+  /**
+   * The keys can include the names of fragments defined only outside the scope, so they need to be checked with a scoped lookup.
+   * Collected before the lookups, because the index can't be queried while its keys are processed.
+   */
+  private static @NotNull Collection<String> collectFragmentNames(@NotNull GlobalSearchScope scope) {
+    Set<String> fragmentNames = new LinkedHashSet<>();
+    FileBasedIndex.getInstance().processAllKeys(GraphQLFragmentNameIndex.NAME, fragmentName -> {
+      fragmentNames.add(fragmentName);
+      return true;
+    }, scope, null);
+    return fragmentNames;
+  }
+
+  /**
+   * Processes the names and the type conditions of the fragments defined inside the scope of the specified element.
+   * The data is taken from the index, so no files are loaded.
+   * A fragment defined in several files with the same type condition is processed once.
+   *
+   * @param processor receives a fragment name and the name of the type in its type condition,
+   *                  which is empty if the type condition is missing
+   */
+  public void processFragmentTypeConditions(@NotNull PsiElement context, @NotNull PairProcessor<String, String> processor) {
+    if (DumbService.isDumb(context.getProject())) return;
+
+    try {
+      GlobalSearchScope scope = GraphQLScopeProvider.getInstance(myProject).getResolveScope(context, false);
+      FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+      for (String fragmentName : collectFragmentNames(scope)) {
+        ProgressManager.checkCanceled();
+        Set<String> typeConditions = new LinkedHashSet<>();
+        fileBasedIndex.processValues(GraphQLFragmentNameIndex.NAME, fragmentName, null, (file, typeCondition) -> {
+          typeConditions.add(typeCondition);
+          return true;
+        }, scope);
+        for (String typeCondition : typeConditions) {
+          if (!processor.process(fragmentName, typeCondition)) return;
+        }
+      }
+    }
+    catch (IndexNotReadyException e) {
+      LOG.warn(e);
+    }
+  }
+
   private static @NotNull Collection<GraphQLFragmentDefinition> collectFragmentDefinitions(@NotNull PsiFile file) {
     return CachedValuesManager.getCachedValue(file, () -> {
       List<GraphQLFragmentDefinition> fragmentDefinitions = collectGraphQLFilesIncludingInjections(file).stream()
@@ -148,7 +222,8 @@ public class GraphQLPsiSearchHelper implements Disposable {
   }
 
   /**
-   * Processes all named elements that match the specified name, e.g. the declaration of a type name
+   * Processes all named definitions that match the specified name, e.g. the declaration of a type name.
+   * Usages, e.g. fields in selection sets, are not processed, see {@link GraphQLFile#processNamedDefinitions}.
    */
   public void processNamedElements(@NotNull Project project,
                                    @NotNull String name,
@@ -161,10 +236,7 @@ public class GraphQLPsiSearchHelper implements Disposable {
         PsiFile psiFile = myPsiManager.findFile(virtualFile);
         if (psiFile != null) {
           for (GraphQLFile graphQLFile : collectGraphQLFilesIncludingInjections(psiFile)) {
-            MultiMap<String, PsiNamedElement> namedElements = graphQLFile.getNamedElements();
-            for (PsiNamedElement namedElement : namedElements.get(name)) {
-              if (!processor.process(namedElement)) return false;
-            }
+            if (!graphQLFile.processNamedDefinitions(name, processor)) return false;
           }
         }
         return true;
@@ -12,6 +12,7 @@ import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigWatcher
 import com.intellij.lang.jsgraphql.ide.config.env.GraphQLConfigEnvironment
 import com.intellij.lang.jsgraphql.ide.introspection.source.GraphQLGeneratedSourcesUpdater
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaContentTracker
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaWarmer
 import com.intellij.lang.jsgraphql.schema.library.GraphQLLibraryManager
 import com.intellij.lang.jsgraphql.ui.GraphQLUIProjectService
 import com.intellij.openapi.application.ApplicationManager
@@ -26,6 +27,7 @@ class GraphQLStartupActivity : ProjectActivity {
     project.serviceAsync<GraphQLConfigWatcher>()
     project.serviceAsync<GraphQLGeneratedSourcesUpdater>()
     project.serviceAsync<GraphQLConfigEnvironment>()
+    project.serviceAsync<GraphQLSchemaWarmer>()
 
     val configProvider = project.serviceAsync<GraphQLConfigProvider>()
     val libraryManager = GraphQLLibraryManager.getInstanceAsync(project)
@@ -22,13 +22,13 @@ import com.intellij.lang.jsgraphql.psi.GraphQLTypeName;
 import com.intellij.lang.jsgraphql.psi.GraphQLTypeNameDefinition;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaInfo;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaResult;
 import com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil;
 import com.intellij.lang.jsgraphql.types.GraphQLError;
 import com.intellij.lang.jsgraphql.types.language.Node;
 import com.intellij.lang.jsgraphql.types.language.SourceLocation;
 import com.intellij.lang.jsgraphql.types.validation.ValidationError;
 import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType;
-import com.intellij.lang.jsgraphql.types.validation.Validator;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
@@ -66,14 +66,20 @@ public final class GraphQLSchemaAnnotator implements Annotator {
     }
 
     try {
-      GraphQLSchemaInfo schemaInfo = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(psiElement);
+      GraphQLSchemaResult schemaResult = GraphQLSchemaProvider.getInstance(project).getSchemaResult(psiElement);
+      if (!schemaResult.isFresh()) {
+        // the build didn't finish in time, errors against a stale schema would be misleading,
+        // highlighting is restarted once the schema is built
+        return;
+      }
+
+      GraphQLSchemaInfo schemaInfo = schemaResult.getSchemaInfo();
       if (schemaInfo.isTooComplex() && !Registry.is("graphql.error.validation.for.complex.schemas")) {
         return;
       }
 
-      List<GraphQLError> schemaErrors = schemaInfo.getErrors(project);
-      if (!schemaErrors.isEmpty()) {
-        showSchemaErrors(annotationHolder, schemaErrors, file);
+      if (!schemaInfo.getErrors(project).isEmpty()) {
+        showSchemaErrors(annotationHolder, schemaInfo.getErrors(project, file), file);
       }
       else {
         showDocumentErrors(annotationHolder, schemaInfo, file);
@@ -149,7 +155,7 @@ public final class GraphQLSchemaAnnotator implements Annotator {
 
   private static @NotNull List<? extends GraphQLError> validateQueryDocument(@NotNull GraphQLSchemaInfo schemaInfo,
                                                                              @NotNull GraphQLFile file) {
-    return new Validator().validateDocument(schemaInfo.getSchema(), file.getDocument());
+    return GraphQLValidationResultCache.getInstance(file.getProject()).validate(schemaInfo.getSchema(), file);
   }
 
   private static void showSchemaErrors(@NotNull AnnotationHolder annotationHolder,
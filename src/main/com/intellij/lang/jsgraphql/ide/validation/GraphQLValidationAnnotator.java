@@ -34,6 +34,7 @@ import com.intellij.lang.jsgraphql.psi.GraphQLTypeName;
 import com.intellij.lang.jsgraphql.psi.GraphQLTypeScopeProvider;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaInfo;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaResult;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaUtil;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldsContainer;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLInputFieldsContainer;
@@ -75,13 +76,15 @@ public final class GraphQLValidationAnnotator implements Annotator {
       return;
     }
 
-    GraphQLSchemaInfo schemaInfo = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(psiElement);
+    GraphQLSchemaResult schemaResult = GraphQLSchemaProvider.getInstance(project).getSchemaResult(psiElement);
+    GraphQLSchemaInfo schemaInfo = schemaResult.getSchemaInfo();
     if (schemaInfo.isTooComplex() && !Registry.is("graphql.error.validation.for.complex.schemas")) {
       return;
     }
 
     // identifiers - fields, fragment spreads, field arguments, directives, type names, input object fields
-    if (psiElement instanceof GraphQLIdentifier) {
+    // unresolved references are not reported against a stale schema, they could be just added to the schema sources
+    if (psiElement instanceof GraphQLIdentifier && schemaResult.isFresh()) {
       checkIdentifierReferences(psiElement, annotationHolder);
     }
 
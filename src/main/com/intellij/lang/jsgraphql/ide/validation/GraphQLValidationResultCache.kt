@@ -0,0 +1,163 @@
+package com.intellij.lang.jsgraphql.ide.validation
+
+import com.intellij.lang.jsgraphql.psi.GraphQLDefinition
+import com.intellij.lang.jsgraphql.psi.GraphQLFile
+import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition
+import com.intellij.lang.jsgraphql.psi.GraphQLFragmentSpread
+import com.intellij.lang.jsgraphql.psi.GraphQLOperationDefinition
+import com.intellij.lang.jsgraphql.schema.GraphQLPsiDocumentBuilder
+import com.intellij.lang.jsgraphql.schema.sourceLocation
+import com.intellij.lang.jsgraphql.types.language.Document
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema
+import com.intellij.lang.jsgraphql.types.validation.ValidationError
+import com.intellij.lang.jsgraphql.types.validation.Validator
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.util.concurrency.annotations.RequiresReadLock
+import com.intellij.util.containers.CollectionFactory
+
+private const val CACHE_BY_DEFINITION_KEY = "graphql.validation.cache.definitions"
+
+/**
+ * Keeps the results of [Validator] for GraphQL files, so the validation rules aren't run again
+ * while neither the file nor its schema is changed, e.g. when a daemon pass is restarted by a change in another file.
+ *
+ * A file is also split into independent units: an operation together with all the fragments it spreads directly or transitively,
+ * or a single type system definition. The result of a unit is reused while its text and position stay the same,
+ * so editing one operation in a large file doesn't validate the other ones again.
+ * The position is a part of the key because the errors refer to the elements by their line and column.
+ * A file containing duplicate operation or fragment names, or an anonymous operation next to other ones,
+ * is validated as a whole, because these rules depend on all the definitions at once.
+ */
+@Service(Service.Level.PROJECT)
+class GraphQLValidationResultCache : Disposable {
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project) = project.service<GraphQLValidationResultCache>()
+  }
+
+  private val cache = CollectionFactory.createConcurrentWeakMap<PsiFile, Entry>()
+
+  @RequiresReadLock
+  fun validate(schema: GraphQLSchema, file: GraphQLFile): List<ValidationError> {
+    val modificationStamp = file.modificationStamp
+    val cached = cache[file]?.takeIf { it.schema === schema }
+    if (cached != null && cached.modificationStamp == modificationStamp) {
+      return cached.errors
+    }
+
+    val units = if (Registry.`is`(CACHE_BY_DEFINITION_KEY, true)) splitIntoUnits(file) else null
+    if (units == null) {
+      val errors = Validator().validateDocument(schema, file.document)
+      cache[file] = Entry(schema, modificationStamp, errors, emptyMap())
+      return errors
+    }
+
+    val builder = GraphQLPsiDocumentBuilder(file)
+    val unitErrors = LinkedHashMap<List<DefinitionKey>, List<ValidationError>>(units.size)
+    for (unit in units) {
+      ProgressManager.checkCanceled()
+      unitErrors[unit.key] = cached?.unitErrors?.get(unit.key) ?: validateUnit(schema, builder, unit)
+    }
+
+    val errors = unitErrors.values.flatten()
+    cache[file] = Entry(schema, modificationStamp, errors, unitErrors)
+    return errors
+  }
+
+  private fun validateUnit(schema: GraphQLSchema, builder: GraphQLPsiDocumentBuilder, unit: ValidationUnit): List<ValidationError> {
+    val document = Document.newDocument()
+      .definitions(unit.definitions.mapNotNull { builder.createDefinition(it) })
+      .build()
+    return Validator().validateDocument(schema, document)
+  }
+
+  /**
+   * @return null if the file should be validated as a whole
+   */
+  private fun splitIntoUnits(file: GraphQLFile): List<ValidationUnit>? {
+    val definitions = file.definitions.toList()
+
+    val operationNames = HashSet<String>()
+    val fragmentIndexes = HashMap<String, Int>()
+    var operationsCount = 0
+    var hasAnonymousOperation = false
+    definitions.forEachIndexed { index, definition ->
+      when (definition) {
+        is GraphQLOperationDefinition -> {
+          operationsCount++
+          val name = definition.name
+          if (name == null) {
+            hasAnonymousOperation = true
+          }
+          else if (!operationNames.add(name)) {
+            return null
+          }
+        }
+
+        is GraphQLFragmentDefinition -> {
+          val name = definition.name ?: return@forEachIndexed
+          if (fragmentIndexes.putIfAbsent(name, index) != null) {
+            return null
+          }
+        }
+      }
+    }
+    if (hasAnonymousOperation && operationsCount > 1) {
+      return null
+    }
+
+    val parents = IntArray(definitions.size) { it }
+    fun findRoot(index: Int): Int {
+      var root = index
+      while (parents[root] != root) {
+        root = parents[root]
+      }
+      parents[index] = root
+      return root
+    }
+
+    definitions.forEachIndexed { index, definition ->
+      if (definition !is GraphQLOperationDefinition && definition !is GraphQLFragmentDefinition) {
+        return@forEachIndexed
+      }
+      for (spread in PsiTreeUtil.findChildrenOfType(definition, GraphQLFragmentSpread::class.java)) {
+        val fragmentIndex = spread.name?.let { fragmentIndexes[it] } ?: continue
+        parents[findRoot(fragmentIndex)] = findRoot(index)
+      }
+    }
+
+    val groups = LinkedHashMap<Int, MutableList<GraphQLDefinition>>()
+    definitions.forEachIndexed { index, definition ->
+      groups.getOrPut(findRoot(index)) { mutableListOf() }.add(definition)
+    }
+    return groups.values.map { group ->
+      ValidationUnit(group, group.map {
+        val location = it.sourceLocation
+        DefinitionKey(it.text, location.line, location.column)
+      })
+    }
+  }
+
+  override fun dispose() {
+    cache.clear()
+  }
+
+  private class ValidationUnit(val definitions: List<GraphQLDefinition>, val key: List<DefinitionKey>)
+
+  private data class DefinitionKey(val text: String, val line: Int, val column: Int)
+
+  private class Entry(
+    val schema: GraphQLSchema,
+    val modificationStamp: Long,
+    val errors: List<ValidationError>,
+    val unitErrors: Map<List<DefinitionKey>, List<ValidationError>>,
+  )
+}
@@ -20,6 +20,7 @@ import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Processor;
 import com.intellij.util.containers.MultiMap;
 import org.jetbrains.annotations.NotNull;
 
@@ -70,6 +71,10 @@ public class GraphQLFile extends PsiFileBase implements GraphQLElement {
       PsiTreeUtil.getChildrenOfTypeAsList(this, GraphQLTypeSystemDefinition.class), this));
   }
 
+  /**
+   * All named elements of the file including usages, e.g. every field in selection sets.
+   * Expensive for large files, use {@link #processNamedDefinitions(String, Processor)} to look up definitions.
+   */
   public @NotNull MultiMap<String, PsiNamedElement> getNamedElements() {
     return CachedValuesManager.getCachedValue(this, () -> {
       MultiMap<String, PsiNamedElement> map = MultiMap.create();
@@ -83,6 +88,18 @@ public class GraphQLFile extends PsiFileBase implements GraphQLElement {
     });
   }
 
+  /**
+   * Processes the named elements with the given name which can be a target of a reference,
+   * i.e. the names of definitions and the members of types and directives, see {@link GraphQLNamedDefinitions}.
+   *
+   * @return false if the processor stopped the processing
+   */
+  public boolean processNamedDefinitions(@NotNull String name, @NotNull Processor<? super PsiNamedElement> processor) {
+    GraphQLNamedDefinitions namedDefinitions = CachedValuesManager.getCachedValue(this, () -> CachedValueProvider.Result.create(
+      new GraphQLNamedDefinitions(this), this));
+    return namedDefinitions.process(name, processor);
+  }
+
   public @NotNull Document getDocument() {
     return CachedValuesManager.getCachedValue(this, () -> {
       Document document = new GraphQLPsiDocumentBuilder(this).createDocument();
@@ -0,0 +1,105 @@
+package com.intellij.lang.jsgraphql.psi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named elements which can be a target of a reference: the names of definitions and extensions together with
+ * the types they implement or include, and the members of types and directives, i.e. fields, arguments, input fields and enum values.
+ * Usages in selection sets, field types, default values and applied directives are not collected.
+ * <p>
+ * Members are collected separately for each type, only once a lookup isn't stopped by the definition names.
+ *
+ * @see GraphQLFile#processNamedDefinitions(String, Processor)
+ */
+final class GraphQLNamedDefinitions {
+  private final MultiMap<String, PsiNamedElement> myDefinitionElements = MultiMap.create();
+  private final List<Members> myMembers = new ArrayList<>();
+
+  GraphQLNamedDefinitions(@NotNull GraphQLFile file) {
+    for (GraphQLDefinition definition : file.getDefinitions()) {
+      definition.accept(new PsiRecursiveElementWalkingVisitor() {
+        @Override
+        public void visitElement(@NotNull PsiElement element) {
+          if (isMembersContainer(element)) {
+            myMembers.add(new Members(element));
+            return;
+          }
+          if (element instanceof GraphQLSelectionSet ||
+              element instanceof GraphQLDirective ||
+              element instanceof GraphQLVariableDefinitions ||
+              element instanceof GraphQLOperationTypeDefinitions) {
+            return;
+          }
+          addNamedElement(myDefinitionElements, element);
+          super.visitElement(element);
+        }
+      });
+    }
+  }
+
+  boolean process(@NotNull String name, @NotNull Processor<? super PsiNamedElement> processor) {
+    for (PsiNamedElement element : myDefinitionElements.get(name)) {
+      if (!processor.process(element)) return false;
+    }
+    for (Members members : myMembers) {
+      for (PsiNamedElement element : members.getElements().get(name)) {
+        if (!processor.process(element)) return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isMembersContainer(@NotNull PsiElement element) {
+    return element instanceof GraphQLFieldsDefinition ||
+           element instanceof GraphQLInputObjectValueDefinitions ||
+           element instanceof GraphQLEnumValueDefinitions ||
+           element instanceof GraphQLArgumentsDefinition && element.getParent() instanceof GraphQLDirectiveDefinition;
+  }
+
+  private static void addNamedElement(@NotNull MultiMap<String, PsiNamedElement> elements, @NotNull PsiElement element) {
+    if (element instanceof PsiNamedElement namedElement) {
+      String name = namedElement.getName();
+      if (name != null) {
+        elements.putValue(name, namedElement);
+      }
+    }
+  }
+
+  private static final class Members {
+    private final PsiElement myContainer;
+    private volatile MultiMap<String, PsiNamedElement> myElements;
+
+    Members(@NotNull PsiElement container) {
+      myContainer = container;
+    }
+
+    @NotNull MultiMap<String, PsiNamedElement> getElements() {
+      MultiMap<String, PsiNamedElement> elements = myElements;
+      if (elements == null) {
+        MultiMap<String, PsiNamedElement> collected = MultiMap.create();
+        myContainer.accept(new PsiRecursiveElementWalkingVisitor() {
+          @Override
+          public void visitElement(@NotNull PsiElement element) {
+            if (element instanceof GraphQLType ||
+                element instanceof GraphQLDefaultValue ||
+                element instanceof GraphQLDirective) {
+              return;
+            }
+            addNamedElement(collected, element);
+            super.visitElement(element);
+          }
+        });
+        myElements = elements = collected;
+      }
+      return elements;
+    }
+  }
+}
@@ -18,6 +18,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldsContainer;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLFieldMixin extends GraphQLNamedElementImpl implements GraphQLField, GraphQLTypeScopeProvider {
   public GraphQLFieldMixin(@NotNull ASTNode node) {
@@ -26,6 +27,10 @@ public abstract class GraphQLFieldMixin extends GraphQLNamedElementImpl implemen
 
   @Override
   public GraphQLType getTypeScope() {
+    return GraphQLTypeScopeCache.getTypeScope(this, this::computeTypeScope);
+  }
+
+  private @Nullable GraphQLType computeTypeScope() {
     final String fieldName = getName();
     if (fieldName != null) {
       // the type scope for a field is the output type of the field, given the name of the field and its parent
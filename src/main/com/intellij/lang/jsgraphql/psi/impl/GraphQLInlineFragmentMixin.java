@@ -16,6 +16,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLInlineFragmentMixin extends GraphQLElementImpl implements GraphQLInlineFragment, GraphQLTypeScopeProvider {
   public GraphQLInlineFragmentMixin(@NotNull ASTNode node) {
@@ -24,6 +25,10 @@ public abstract class GraphQLInlineFragmentMixin extends GraphQLElementImpl impl
 
   @Override
   public GraphQLType getTypeScope() {
+    return GraphQLTypeScopeCache.getTypeScope(this, this::computeTypeScope);
+  }
+
+  private @Nullable GraphQLType computeTypeScope() {
     final GraphQLSchema schema = GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(this).getSchema();
     if (getTypeCondition() != null) {
       final GraphQLTypeName typeName = getTypeCondition().getTypeName();
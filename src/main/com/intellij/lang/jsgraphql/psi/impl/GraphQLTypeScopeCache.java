@@ -0,0 +1,65 @@
+package com.intellij.lang.jsgraphql.psi.impl;
+
+import com.intellij.lang.jsgraphql.psi.GraphQLDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeScopeProvider;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaContentTracker;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Type scopes of the elements in an operation or a fragment are computed from the scope of the parent element,
+ * so without a cache a field at depth d requests the schema and looks up d - 1 parent fields.
+ * The scopes are memoized per top-level definition, each one is computed once from the already cached parent scope.
+ * <p>
+ * The cache is dropped when the file is changed, the schema sources are changed, or a newer schema build becomes available.
+ */
+final class GraphQLTypeScopeCache {
+  private static final Key<CachedValue<ConcurrentMap<GraphQLTypeScopeProvider, Optional<GraphQLType>>>> TYPE_SCOPES_KEY =
+    Key.create("graphql.type.scopes");
+
+  private GraphQLTypeScopeCache() {
+  }
+
+  static @Nullable GraphQLType getTypeScope(@NotNull GraphQLTypeScopeProvider element, @NotNull Supplier<GraphQLType> computation) {
+    GraphQLDefinition definition = PsiTreeUtil.getParentOfType(element, GraphQLDefinition.class, false);
+    if (definition == null) {
+      return computation.get();
+    }
+
+    ConcurrentMap<GraphQLTypeScopeProvider, Optional<GraphQLType>> typeScopes = getTypeScopes(definition);
+    Optional<GraphQLType> cached = typeScopes.get(element);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
+
+    // not computeIfAbsent, the computation requests the scopes of the parent elements from the same map
+    GraphQLType typeScope = computation.get();
+    typeScopes.putIfAbsent(element, Optional.ofNullable(typeScope));
+    return typeScope;
+  }
+
+  private static @NotNull ConcurrentMap<GraphQLTypeScopeProvider, Optional<GraphQLType>> getTypeScopes(@NotNull GraphQLDefinition definition) {
+    return CachedValuesManager.getCachedValue(definition, TYPE_SCOPES_KEY, () -> {
+      Project project = definition.getProject();
+      return CachedValueProvider.Result.create(
+        new ConcurrentHashMap<>(),
+        definition.getContainingFile(),
+        GraphQLSchemaContentTracker.getInstance(project),
+        GraphQLSchemaProvider.getInstance(project).getCacheModificationTracker()
+      );
+    });
+  }
+}
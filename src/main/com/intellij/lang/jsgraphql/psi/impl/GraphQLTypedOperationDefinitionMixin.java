@@ -16,6 +16,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.tree.IElementType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLTypedOperationDefinitionMixin extends GraphQLNamedElementImpl
   implements GraphQLTypedOperationDefinition, GraphQLTypeScopeProvider {
@@ -25,6 +26,10 @@ public abstract class GraphQLTypedOperationDefinitionMixin extends GraphQLNamedE
 
   @Override
   public GraphQLType getTypeScope() {
+    return GraphQLTypeScopeCache.getTypeScope(this, this::computeTypeScope);
+  }
+
+  private @Nullable GraphQLType computeTypeScope() {
     final GraphQLSchema schema = GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(this).getSchema();
     final IElementType operationType = getOperationType().getNode().getFirstChildNode().getElementType();
     if (operationType == GraphQLElementTypes.QUERY_KEYWORD) {
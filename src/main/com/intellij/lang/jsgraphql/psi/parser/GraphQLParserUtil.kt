@@ -14,7 +14,7 @@ class GraphQLParserUtil : GeneratedParserUtilBase() {
     fun parseNameIfNotPlaceholder(b: PsiBuilder, level: Int): Boolean {
       if (!recursion_guard_(b, level, "parseNameIfNotPlaceholder")) return false
       if (b.tokenType != GraphQLElementTypes.NAME) return false
-      if (b.tokenText?.startsWith(GraphQLInjectionUtils.GRAPHQL_EXTERNAL_FRAGMENT) == false) {
+      if (b.tokenText?.let(GraphQLInjectionUtils::isTemplatePlaceholderName) == false) {
         b.advanceLexer()
         return true
       }
@@ -28,7 +28,7 @@ class GraphQLParserUtil : GeneratedParserUtilBase() {
       val marker = b.mark()
       var result = false
       if (b.tokenType == GraphQLElementTypes.NAME &&
-          b.tokenText?.startsWith(GraphQLInjectionUtils.GRAPHQL_EXTERNAL_FRAGMENT) == true) {
+          b.tokenText?.let(GraphQLInjectionUtils::isTemplatePlaceholderName) == true) {
         result = true
         b.advanceLexer()
         marker.error(GraphQLBundle.message("graphql.parsing.error.injection.placeholder"))
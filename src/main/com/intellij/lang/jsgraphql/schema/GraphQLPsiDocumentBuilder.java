@@ -128,13 +128,17 @@ import com.intellij.lang.jsgraphql.types.language.Value;
 import com.intellij.lang.jsgraphql.types.language.VariableDefinition;
 import com.intellij.lang.jsgraphql.types.language.VariableReference;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.Interner;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -147,11 +151,14 @@ import static com.intellij.lang.jsgraphql.types.collect.ImmutableKit.mapNotNull;
 public final class GraphQLPsiDocumentBuilder {
   private static final Logger LOG = Logger.getInstance(GraphQLPsiDocumentBuilder.class);
 
-  private static final String IS_IN_LIBRARY_KEY = "is.in.library";
-  private static final String TYPE_DEFINITIONS_COUNT = "type.definitions.count";
+  static final String IS_IN_LIBRARY_KEY = "is.in.library";
+  static final String TYPE_DEFINITIONS_COUNT = "type.definitions.count";
+
+  private static final Interner<String> ourNameInterner = Interner.createWeakInterner();
 
   private final GraphQLFile myFile;
   private final boolean myIsInLibrary;
+  private final int @Nullable [] myLineStartOffsets;
 
   public static boolean isInLibrary(@NotNull Node<?> node) {
     return node.getAdditionalData().containsKey(IS_IN_LIBRARY_KEY);
@@ -175,13 +182,35 @@ public final class GraphQLPsiDocumentBuilder {
   public GraphQLPsiDocumentBuilder(@NotNull GraphQLFile file) {
     myFile = file;
     myIsInLibrary = GraphQLLibraryManager.getInstance(file.getProject()).isLibraryRoot(file.getVirtualFile());
+    myLineStartOffsets = null;
+  }
+
+  /**
+   * Creates a builder which doesn't depend on a project, e.g. during indexing.
+   * Source locations are computed from the given file text and don't have a source name,
+   * the library flag is never set.
+   */
+  public GraphQLPsiDocumentBuilder(@NotNull GraphQLFile file, @NotNull CharSequence fileText) {
+    myFile = file;
+    myIsInLibrary = false;
+    myLineStartOffsets = computeLineStartOffsets(fileText);
   }
 
   public @NotNull Document createDocument() {
+    return createDocument(myFile.getDefinitions());
+  }
+
+  /**
+   * Creates a document with type system definitions and extensions only, operations and fragments are skipped.
+   */
+  public @NotNull Document createSchemaDocument() {
+    return createDocument(myFile.getTypeDefinitions());
+  }
+
+  private @NotNull Document createDocument(@NotNull Collection<? extends GraphQLDefinition> psiDefinitions) {
     Document.Builder document = Document.newDocument();
     addCommonData(document, myFile);
 
-    Collection<GraphQLDefinition> psiDefinitions = myFile.getDefinitions();
     var definitions = new ArrayList<Definition>(psiDefinitions.size());
     var typeDefinitionsCount = 0;
     for (GraphQLDefinition psiDefinition : psiDefinitions) {
@@ -443,7 +472,7 @@ public final class GraphQLPsiDocumentBuilder {
   private @Nullable TypeName createTypeName(@Nullable GraphQLTypeName typeName) {
     if (typeName == null) return null;
     TypeName.Builder builder = TypeName.newTypeName();
-    builder.name(typeName.getName());
+    builder.name(internName(typeName.getName()));
     addCommonData(builder, typeName);
     return checkNode(builder.build());
   }
@@ -474,7 +503,7 @@ public final class GraphQLPsiDocumentBuilder {
   private @Nullable Argument createArgument(@NotNull GraphQLArgument argument) {
     Argument.Builder builder = Argument.newArgument();
     addCommonData(builder, argument);
-    builder.name(argument.getName());
+    builder.name(internName(argument.getName()));
     builder.value(createValue(argument.getValue()));
     return checkNode(builder.build());
   }
@@ -493,7 +522,7 @@ public final class GraphQLPsiDocumentBuilder {
 
   private @Nullable Directive createDirective(@NotNull GraphQLDirective directive) {
     Directive.Builder builder = Directive.newDirective();
-    builder.name(directive.getName());
+    builder.name(internName(directive.getName()));
     addCommonData(builder, directive);
     builder.arguments(createArguments(directive.getArguments()));
     return checkNode(builder.build());
@@ -540,7 +569,7 @@ public final class GraphQLPsiDocumentBuilder {
     ScalarTypeDefinition.Builder def = ScalarTypeDefinition.newScalarTypeDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, typeDefinition);
     def.description(newDescription(typeDefinition.getDescription()));
@@ -552,7 +581,7 @@ public final class GraphQLPsiDocumentBuilder {
     ScalarTypeExtensionDefinition.Builder def = ScalarTypeExtensionDefinition.newScalarTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -563,7 +592,7 @@ public final class GraphQLPsiDocumentBuilder {
     ObjectTypeDefinition.Builder def = ObjectTypeDefinition.newObjectTypeDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, typeDefinition);
     def.description(newDescription(typeDefinition.getDescription()));
@@ -577,7 +606,7 @@ public final class GraphQLPsiDocumentBuilder {
     ObjectTypeExtensionDefinition.Builder def = ObjectTypeExtensionDefinition.newObjectTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -599,7 +628,7 @@ public final class GraphQLPsiDocumentBuilder {
 
   private @Nullable FieldDefinition createFieldDefinition(@NotNull GraphQLFieldDefinition fieldDefinition) {
     FieldDefinition.Builder def = FieldDefinition.newFieldDefinition();
-    def.name(fieldDefinition.getName());
+    def.name(internName(fieldDefinition.getName()));
     def.type(createType(fieldDefinition.getType()));
     addCommonData(def, fieldDefinition);
     def.description(newDescription(fieldDefinition.getDescription()));
@@ -617,7 +646,7 @@ public final class GraphQLPsiDocumentBuilder {
 
   private @Nullable InputValueDefinition createInputValueDefinition(@NotNull GraphQLInputValueDefinition valueDefinition) {
     InputValueDefinition.Builder def = InputValueDefinition.newInputValueDefinition();
-    def.name(valueDefinition.getName());
+    def.name(internName(valueDefinition.getName()));
     def.type(createType(valueDefinition.getType()));
     addCommonData(def, valueDefinition);
     def.description(newDescription(valueDefinition.getDescription()));
@@ -633,7 +662,7 @@ public final class GraphQLPsiDocumentBuilder {
     InterfaceTypeDefinition.Builder def = InterfaceTypeDefinition.newInterfaceTypeDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, typeDefinition);
     def.description(newDescription(typeDefinition.getDescription()));
@@ -648,7 +677,7 @@ public final class GraphQLPsiDocumentBuilder {
     InterfaceTypeExtensionDefinition.Builder def = InterfaceTypeExtensionDefinition.newInterfaceTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -662,7 +691,7 @@ public final class GraphQLPsiDocumentBuilder {
     UnionTypeDefinition.Builder def = UnionTypeDefinition.newUnionTypeDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, typeDefinition);
     def.description(newDescription(typeDefinition.getDescription()));
@@ -688,7 +717,7 @@ public final class GraphQLPsiDocumentBuilder {
     UnionTypeExtensionDefinition.Builder def = UnionTypeExtensionDefinition.newUnionTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -713,7 +742,7 @@ public final class GraphQLPsiDocumentBuilder {
     EnumTypeDefinition.Builder def = EnumTypeDefinition.newEnumTypeDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = enumTypeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, enumTypeDefinition);
     def.description(newDescription(enumTypeDefinition.getDescription()));
@@ -730,7 +759,7 @@ public final class GraphQLPsiDocumentBuilder {
     EnumTypeExtensionDefinition.Builder def = EnumTypeExtensionDefinition.newEnumTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -744,7 +773,7 @@ public final class GraphQLPsiDocumentBuilder {
 
   private @Nullable EnumValueDefinition createEnumValueDefinition(@NotNull GraphQLEnumValueDefinition valueDefinition) {
     EnumValueDefinition.Builder def = EnumValueDefinition.newEnumValueDefinition();
-    def.name(valueDefinition.getEnumValue().getName());
+    def.name(internName(valueDefinition.getEnumValue().getName()));
     addCommonData(def, valueDefinition);
     def.description(newDescription(valueDefinition.getDescription()));
     def.directives(createDirectives(valueDefinition.getDirectives()));
@@ -755,7 +784,7 @@ public final class GraphQLPsiDocumentBuilder {
     InputObjectTypeDefinition.Builder def = InputObjectTypeDefinition.newInputObjectDefinition();
     GraphQLTypeNameDefinition typeNameDefinition = typeDefinition.getTypeNameDefinition();
     if (typeNameDefinition != null) {
-      def.name(typeNameDefinition.getName());
+      def.name(internName(typeNameDefinition.getName()));
     }
     addCommonData(def, typeDefinition);
     def.description(newDescription(typeDefinition.getDescription()));
@@ -771,7 +800,7 @@ public final class GraphQLPsiDocumentBuilder {
     InputObjectTypeExtensionDefinition.Builder def = InputObjectTypeExtensionDefinition.newInputObjectTypeExtensionDefinition();
     GraphQLTypeName typeName = extensionDefinition.getTypeName();
     if (typeName != null) {
-      def.name(typeName.getName());
+      def.name(internName(typeName.getName()));
     }
     addCommonData(def, extensionDefinition);
     def.directives(createDirectives(extensionDefinition.getDirectives()));
@@ -786,7 +815,7 @@ public final class GraphQLPsiDocumentBuilder {
     DirectiveDefinition.Builder def = DirectiveDefinition.newDirectiveDefinition();
     GraphQLIdentifier nameIdentifier = directiveDefinition.getNameIdentifier();
     if (nameIdentifier != null) {
-      def.name(nameIdentifier.getText());
+      def.name(internName(nameIdentifier.getText()));
     }
     addCommonData(def, directiveDefinition);
     def.description(newDescription(directiveDefinition.getDescription()));
@@ -901,18 +930,61 @@ public final class GraphQLPsiDocumentBuilder {
   }
 
   private void addCommonData(NodeBuilder nodeBuilder, @NotNull GraphQLElement element) {
-    nodeBuilder.sourceLocation(GraphQLTypeDefinitionUtil.getSourceLocation(element));
+    nodeBuilder.sourceLocation(getSourceLocation(element));
 
     if (myIsInLibrary) {
       nodeBuilder.additionalData(IS_IN_LIBRARY_KEY, "");
     }
   }
 
-  private static @Nullable Description newDescription(@Nullable GraphQLDescription description) {
+  private @NotNull SourceLocation getSourceLocation(@NotNull GraphQLElement element) {
+    if (myLineStartOffsets == null) {
+      return GraphQLTypeDefinitionUtil.getSourceLocation(element);
+    }
+
+    int offset = element.getNavigationElement().getTextRange().getStartOffset();
+    if (offset < 0) {
+      return SourceLocation.EMPTY;
+    }
+    int line = Arrays.binarySearch(myLineStartOffsets, offset);
+    if (line < 0) {
+      line = -line - 2;
+    }
+    return new SourceLocation(line, offset - myLineStartOffsets[line]);
+  }
+
+  private static int @NotNull [] computeLineStartOffsets(@NotNull CharSequence text) {
+    IntArrayList offsets = new IntArrayList();
+    offsets.add(0);
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\n') {
+        offsets.add(i + 1);
+      }
+      else if (c == '\r') {
+        if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        offsets.add(i + 1);
+      }
+    }
+    return offsets.toIntArray();
+  }
+
+  /**
+   * The same type, field and directive names are repeated across many schema files and in every schema built from them,
+   * so they are shared instead of keeping a separate copy for each PSI element.
+   */
+  private static @Nullable String internName(@Nullable String name) {
+    if (name == null || !Registry.is("graphql.schema.intern.names", true)) return name;
+    return ourNameInterner.intern(name);
+  }
+
+  private @Nullable Description newDescription(@Nullable GraphQLDescription description) {
     if (description == null) return null;
     String content = description.getContent();
     boolean multiLine = description.isMultiLine();
-    SourceLocation sourceLocation = GraphQLTypeDefinitionUtil.getSourceLocation(description);
+    SourceLocation sourceLocation = getSourceLocation(description);
     return new Description(content, sourceLocation, multiLine);
   }
 
@@ -0,0 +1,204 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.google.gson.GsonBuilder
+import com.google.gson.JsonArray
+import com.google.gson.JsonObject
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.containers.CollectionFactory
+import java.util.EnumMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.nanoseconds
+
+/**
+ * Counters and timings of the schema builds made by [GraphQLSchemaProvider].
+ * Collected regardless of the log level, so slow projects can be diagnosed from the GraphQL tool window or an exported JSON report.
+ * Metrics are kept per scope while the scope is alive, and in total for the project.
+ */
+class GraphQLSchemaBuildMetrics {
+
+  enum class Phase(val id: String) {
+    /**
+     * Collecting the schema documents of the files in the scope.
+     */
+    DOCUMENTS("documents"),
+
+    /**
+     * Merging the documents into a composite type definition registry.
+     */
+    REGISTRY("registry"),
+
+    /**
+     * Generating a schema from the registry.
+     */
+    SCHEMA("schema"),
+
+    /**
+     * Validating the generated schema.
+     */
+    VALIDATION("validation"),
+  }
+
+  class Timer {
+    private val count = AtomicLong()
+    private val totalNanos = AtomicLong()
+    private val maxNanos = AtomicLong()
+    private val lastNanos = AtomicLong()
+
+    val callsCount: Long
+      get() = count.get()
+
+    val total: Duration
+      get() = totalNanos.get().nanoseconds
+
+    val max: Duration
+      get() = maxNanos.get().nanoseconds
+
+    val last: Duration
+      get() = lastNanos.get().nanoseconds
+
+    fun record(duration: Duration) {
+      val nanos = duration.inWholeNanoseconds
+      count.incrementAndGet()
+      totalNanos.addAndGet(nanos)
+      maxNanos.accumulateAndGet(nanos) { current, value -> maxOf(current, value) }
+      lastNanos.set(nanos)
+    }
+
+    fun toJson(): JsonObject = JsonObject().apply {
+      addProperty("count", callsCount)
+      addProperty("totalMs", total.inWholeMilliseconds)
+      addProperty("maxMs", max.inWholeMilliseconds)
+      addProperty("lastMs", last.inWholeMilliseconds)
+    }
+  }
+
+  /**
+   * @param hasSchemaSize false for the project total, the schemas of different scopes share most of their documents,
+   * so their sizes can't be combined
+   */
+  class ScopeMetrics(val scopeId: String, val scopeName: String, private val hasSchemaSize: Boolean = true) {
+    private val requests = AtomicLong()
+    private val cacheHits = AtomicLong()
+    private val builds = AtomicLong()
+    private val reusedBuilds = AtomicLong()
+    private val incrementalBuilds = AtomicLong()
+    private val cancellations = AtomicLong()
+    private val failures = AtomicLong()
+    private val phases = EnumMap<Phase, Timer>(Phase::class.java).apply { Phase.values().forEach { put(it, Timer()) } }
+
+    /**
+     * Time spent by the callers waiting for a build to complete.
+     */
+    val waiting = Timer()
+
+    @Volatile
+    var documentsCount: Int = 0
+      private set
+
+    @Volatile
+    var typeDefinitionsCount: Int = 0
+      private set
+
+    val requestsCount: Long
+      get() = requests.get()
+
+    val cacheHitsCount: Long
+      get() = cacheHits.get()
+
+    val buildsCount: Long
+      get() = builds.get()
+
+    val reusedBuildsCount: Long
+      get() = reusedBuilds.get()
+
+    /**
+     * Builds whose registry was patched from the previous build instead of being built from all documents.
+     */
+    val incrementalBuildsCount: Long
+      get() = incrementalBuilds.get()
+
+    val cancellationsCount: Long
+      get() = cancellations.get()
+
+    val failuresCount: Long
+      get() = failures.get()
+
+    fun getPhase(phase: Phase): Timer = phases.getValue(phase)
+
+    internal fun recordRequest(cacheHit: Boolean) {
+      requests.incrementAndGet()
+      if (cacheHit) cacheHits.incrementAndGet()
+    }
+
+    internal fun recordBuildStarted() {
+      builds.incrementAndGet()
+    }
+
+    internal fun recordBuildReused() {
+      reusedBuilds.incrementAndGet()
+    }
+
+    internal fun recordIncrementalBuild() {
+      incrementalBuilds.incrementAndGet()
+    }
+
+    internal fun recordBuildCancelled() {
+      cancellations.incrementAndGet()
+    }
+
+    internal fun recordBuildFailed() {
+      failures.incrementAndGet()
+    }
+
+    internal fun recordSchemaSize(documentsCount: Int, typeDefinitionsCount: Int) {
+      if (!hasSchemaSize) return
+      this.documentsCount = documentsCount
+      this.typeDefinitionsCount = typeDefinitionsCount
+    }
+
+    fun toJson(): JsonObject = JsonObject().apply {
+      addProperty("scopeId", scopeId)
+      addProperty("scope", scopeName)
+      addProperty("requests", requestsCount)
+      addProperty("cacheHits", cacheHitsCount)
+      addProperty("builds", buildsCount)
+      addProperty("reusedBuilds", reusedBuildsCount)
+      addProperty("incrementalBuilds", incrementalBuildsCount)
+      addProperty("cancellations", cancellationsCount)
+      addProperty("failures", failuresCount)
+      if (hasSchemaSize) {
+        addProperty("documents", documentsCount)
+        addProperty("typeDefinitions", typeDefinitionsCount)
+      }
+      add("waiting", waiting.toJson())
+      add("phases", JsonObject().also { json -> phases.forEach { (phase, timer) -> json.add(phase.id, timer.toJson()) } })
+    }
+  }
+
+  /**
+   * Metrics of all scopes of the project combined, without the schema sizes.
+   */
+  val total = ScopeMetrics("total", "", hasSchemaSize = false)
+
+  private val scopes: ConcurrentMap<GlobalSearchScope, ScopeMetrics> = CollectionFactory.createConcurrentWeakMap()
+
+  fun getScopeMetrics(scope: GlobalSearchScope): ScopeMetrics? = scopes[scope]
+
+  internal fun update(scope: GlobalSearchScope, action: ScopeMetrics.() -> Unit) {
+    total.action()
+    scopes.computeIfAbsent(scope) { ScopeMetrics(it.scopeId, it.displayName) }.action()
+  }
+
+  internal fun recordPhase(scope: GlobalSearchScope, phase: Phase, duration: Duration) {
+    update(scope) { getPhase(phase).record(duration) }
+  }
+
+  fun toJson(): String {
+    val json = JsonObject()
+    json.add("total", total.toJson())
+    json.add("scopes", JsonArray().also { array -> scopes.values.forEach { array.add(it.toJson()) } })
+    return GsonBuilder().setPrettyPrinting().create().toJson(json)
+  }
+}
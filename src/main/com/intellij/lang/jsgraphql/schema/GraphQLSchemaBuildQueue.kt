@@ -0,0 +1,114 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.openapi.diagnostic.debug
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.util.registry.Registry
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import java.util.concurrent.TimeUnit
+
+private const val PARALLELISM_KEY = "graphql.schema.build.parallelism"
+
+private const val PARALLELISM_DEFAULT = 2
+
+/**
+ * A background build which is not requested again during this period is dropped instead of being started.
+ */
+private val UNUSED_BUILD_DROP_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(30)
+
+/**
+ * Limits the number of schema builds running at the same time.
+ * Builds requested for the file in the focused editor are started first, the rest are started in the order they were scheduled.
+ * A background build which is not requested again for a while is dropped, the next request schedules it again.
+ *
+ * @param unusedBuildDropTimeoutNs how long a background build can wait for a slot without being requested again
+ */
+internal class GraphQLSchemaBuildQueue(private val unusedBuildDropTimeoutNs: Long = UNUSED_BUILD_DROP_TIMEOUT_NS) {
+
+  companion object {
+    private val LOG = logger<GraphQLSchemaBuildQueue>()
+  }
+
+  private val pending = ArrayList<Ticket>() // guarded by this
+  private var running = 0 // guarded by this
+
+  class Ticket {
+    internal val turn = CompletableDeferred<Unit>()
+    internal var isGranted = false // guarded by the queue
+
+    @Volatile
+    var isPriority: Boolean = false
+      private set
+
+    @Volatile
+    internal var lastRequestedAt: Long = System.nanoTime()
+      private set
+
+    /**
+     * Called on every request of the build, a build once requested with priority keeps it.
+     */
+    fun touch(priority: Boolean) {
+      lastRequestedAt = System.nanoTime()
+      if (priority) {
+        isPriority = true
+      }
+    }
+  }
+
+  /**
+   * Suspends until the ticket is granted a slot, then runs the [action] and releases the slot.
+   * Only the [action] is a started build, the time spent in the queue is not.
+   *
+   * @throws CancellationException if the build is dropped while waiting
+   */
+  suspend fun <T> run(ticket: Ticket, action: suspend () -> T): T {
+    synchronized(this) {
+      pending.add(ticket)
+      dispatch()
+    }
+
+    try {
+      ticket.turn.await()
+    }
+    catch (e: CancellationException) {
+      synchronized(this) {
+        if (!pending.remove(ticket) && ticket.isGranted) {
+          // cancelled concurrently with being granted a slot
+          running--
+          dispatch()
+        }
+      }
+      throw e
+    }
+
+    try {
+      return action()
+    }
+    finally {
+      synchronized(this) {
+        running--
+        dispatch()
+      }
+    }
+  }
+
+  // guarded by this
+  private fun dispatch() {
+    val now = System.nanoTime()
+    val dropped = pending.filter { !it.isPriority && now - it.lastRequestedAt > unusedBuildDropTimeoutNs }
+    if (dropped.isNotEmpty()) {
+      pending.removeAll(dropped.toSet())
+      LOG.debug { "Unused schema builds dropped (count=${dropped.size})" }
+      dropped.forEach { it.turn.completeExceptionally(CancellationException("Schema build is not requested anymore")) }
+    }
+
+    val limit = Registry.intValue(PARALLELISM_KEY, PARALLELISM_DEFAULT).coerceAtLeast(1)
+    while (running < limit && pending.isNotEmpty()) {
+      val next = pending.firstOrNull { it.isPriority } ?: pending.first()
+      pending.remove(next)
+      next.isGranted = true
+      running++
+      next.turn.complete(Unit)
+    }
+  }
+}
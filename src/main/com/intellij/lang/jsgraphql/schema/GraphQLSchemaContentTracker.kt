@@ -10,11 +10,13 @@ package com.intellij.lang.jsgraphql.schema
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer
 import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectedLanguage
 import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeDependency
+import com.intellij.lang.jsgraphql.psi.GraphQLDefinition
 import com.intellij.lang.jsgraphql.psi.GraphQLFile
 import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition
 import com.intellij.lang.jsgraphql.psi.GraphQLOperationDefinition
 import com.intellij.lang.jsgraphql.skipInTests
 import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationListener
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.components.Service
 import com.intellij.openapi.components.service
@@ -22,19 +24,24 @@ import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.diagnostic.traceThrowable
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.CompositeModificationTracker
+import com.intellij.openapi.util.Key
 import com.intellij.openapi.util.ModificationTracker
+import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiLanguageInjectionHost
 import com.intellij.psi.PsiManager
 import com.intellij.psi.PsiTreeChangeAdapter
 import com.intellij.psi.PsiTreeChangeEvent
 import com.intellij.psi.impl.PsiTreeChangeEventImpl
+import com.intellij.psi.util.parentOfType
 import com.intellij.psi.util.parentOfTypes
+import com.intellij.util.io.DigestUtil
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.debounce
 import kotlinx.coroutines.launch
+import java.util.concurrent.atomic.AtomicLong
 import kotlin.time.Duration.Companion.milliseconds
 
 
@@ -52,6 +59,8 @@ class GraphQLSchemaContentTracker(private val project: Project, coroutineScope:
 
     private const val EVENT_PUBLISH_TIMEOUT = 500
 
+    private val SCHEMA_DEFINITIONS_DIGEST = Key.create<ByteArray>("graphql.schema.definitions.digest")
+
     @JvmStatic
     fun getInstance(project: Project): GraphQLSchemaContentTracker = project.service()
   }
@@ -59,8 +68,33 @@ class GraphQLSchemaContentTracker(private val project: Project, coroutineScope:
   private val changeNotificationsFlow = MutableSharedFlow<Unit>(replay = 1, onBufferOverflow = BufferOverflow.DROP_OLDEST)
   private val modificationTracker = CompositeModificationTracker(GraphQLScopeDependency.getInstance(project))
 
+  private val lock = Any()
+  private val changedFiles = HashMap<GraphQLFile, MutableSet<PsiElement>>() // guarded by lock
+  private val changedHosts = HashSet<PsiLanguageInjectionHost>() // guarded by lock
+  private var isFileRenamed = false // guarded by lock
+
+  private val psiEventsCounter = AtomicLong()
+  private val invalidationsCounter = AtomicLong()
+
+  /**
+   * The number of PSI events received by the tracker.
+   */
+  val psiEventsCount: Long
+    get() = psiEventsCounter.get()
+
+  /**
+   * The number of schema invalidations caused by PSI events, at most one per write action.
+   */
+  val invalidationsCount: Long
+    get() = invalidationsCounter.get()
+
   init {
     PsiManager.getInstance(project).addPsiTreeChangeListener(PsiChangeListener(), this)
+    ApplicationManager.getApplication().addApplicationListener(object : ApplicationListener {
+      override fun afterWriteActionFinished(action: Any) {
+        processChanges()
+      }
+    }, this)
 
     skipInTests {
       coroutineScope.launch {
@@ -82,6 +116,102 @@ class GraphQLSchemaContentTracker(private val project: Project, coroutineScope:
     check(changeNotificationsFlow.tryEmit(Unit))
   }
 
+  /**
+   * PSI events only record the changed elements and injection hosts, they're classified once after the write action,
+   * and a single update is made if any of them affects the schema.
+   */
+  private fun recordChange(file: GraphQLFile?, element: PsiElement?, host: PsiLanguageInjectionHost?, isRenamed: Boolean) {
+    synchronized(lock) {
+      if (file != null) changedFiles.getOrPut(file) { HashSet() }.add(element ?: file)
+      if (host != null) changedHosts.add(host)
+      if (isRenamed) isFileRenamed = true
+    }
+
+    if (!ApplicationManager.getApplication().isWriteAccessAllowed) {
+      processChanges()
+    }
+  }
+
+  private fun processChanges() {
+    val files: Map<GraphQLFile, Set<PsiElement>>
+    val hosts: List<PsiLanguageInjectionHost>
+    val isRenamed: Boolean
+    synchronized(lock) {
+      if (changedFiles.isEmpty() && changedHosts.isEmpty() && !isFileRenamed) return
+      files = HashMap(changedFiles)
+      hosts = changedHosts.toList()
+      isRenamed = isFileRenamed
+      changedFiles.clear()
+      changedHosts.clear()
+      isFileRenamed = false
+    }
+    if (project.isDisposed) return
+
+    // the digests of all the changed files have to be updated, so no short-circuiting here
+    val isSchemaFileChanged = files.map { (file, elements) -> isSchemaChanged(file, elements) }.any { it }
+    if (isRenamed || isSchemaFileChanged || hosts.any { isInjectionTarget(it) }) {
+      invalidationsCounter.incrementAndGet()
+      if (LOG.isDebugEnabled) {
+        LOG.debug("Schema invalidated (files=${files.size}, hosts=${hosts.size}, events=${psiEventsCount}, invalidations=${invalidationsCount})")
+      }
+      update()
+    }
+  }
+
+  /**
+   * Only the changed elements are classified: edits inside operations and fragments don't affect the schema,
+   * edits inside any other definition do. Changes between the definitions, e.g. a reparse of the whole file,
+   * are checked by comparing the digest of the type system definitions with the one from the last check of the file.
+   *
+   * @return true if the schema definitions of the file are changed or the file is checked for the first time
+   */
+  private fun isSchemaChanged(file: GraphQLFile, elements: Collection<PsiElement>): Boolean {
+    if (!file.isValid) return true
+
+    var isDefinitionChanged = false
+    var isFileChanged = false
+    for (element in elements) {
+      when {
+        element == file || !element.isValid -> isFileChanged = true
+        element.parentOfTypes(GraphQLOperationDefinition::class, GraphQLFragmentDefinition::class, withSelf = true) != null -> {}
+        element.parentOfType<GraphQLDefinition>(withSelf = true) != null -> isDefinitionChanged = true
+        else -> isFileChanged = true
+      }
+    }
+
+    if (isFileChanged) {
+      return updateSchemaDefinitionsDigest(file) || isDefinitionChanged
+    }
+    if (isDefinitionChanged) {
+      // the digest is outdated now, the next check of the whole file considers it changed anyway
+      file.putUserData(SCHEMA_DEFINITIONS_DIGEST, null)
+    }
+    return isDefinitionChanged
+  }
+
+  private fun updateSchemaDefinitionsDigest(file: GraphQLFile): Boolean {
+    val contents = file.viewProvider.contents
+    val digest = DigestUtil.sha256()
+    for (definition in file.typeDefinitions) {
+      val range = definition.textRange
+      digest.update(contents.subSequence(range.startOffset, range.endOffset).toString().toByteArray())
+      // separates the definitions, so the text can't be moved from one to another without changing the digest
+      digest.update(0.toByte())
+    }
+    val currentDigest = digest.digest()
+    val previousDigest = file.getUserData(SCHEMA_DEFINITIONS_DIGEST)
+    file.putUserData(SCHEMA_DEFINITIONS_DIGEST, currentDigest)
+    return !currentDigest.contentEquals(previousDigest)
+  }
+
+  private fun isInjectionTarget(host: PsiLanguageInjectionHost): Boolean {
+    // the host is replaced, it's not known anymore whether it was injected
+    if (!host.isValid) return true
+    // TODO: check if it works as expected, looks like event.parent is not enough
+    val injectionHelper = GraphQLInjectedLanguage.forElement(host)
+    return injectionHelper != null && injectionHelper.isLanguageInjectionTarget(host)
+  }
+
   private fun notifySchemaContentChanged() {
     updateModificationTracker()
     project.messageBus.syncPublisher(GraphQLSchemaContentChangeListener.TOPIC).onSchemaChanged()
@@ -99,51 +229,47 @@ class GraphQLSchemaContentTracker(private val project: Project, coroutineScope:
   override fun dispose() {}
 
   /**
-   * always consider the schema changed when editing an endpoint file
-   * change in injection target
-   * ignore the generic event which fires for all other cases above
-   * if it's not the generic case, children have been replaced, e.g. using the commenter
+   * Records changed GraphQL files and injection hosts, the generic children change event which fires for all other cases is ignored.
    */
   private inner class PsiChangeListener : PsiTreeChangeAdapter() {
-    private fun checkForSchemaChange(event: PsiTreeChangeEvent) {
+    /**
+     * @param element the changed element which is still in the tree, the nearest definition containing it is classified later
+     */
+    private fun checkForSchemaChange(event: PsiTreeChangeEvent, element: PsiElement?) {
       if (project.isDisposed) {
         return
       }
 
-      if (event.file is GraphQLFile) {
-        if (affectsGraphQLSchema(event)) {
-          update()
-        }
-      }
-
-      // TODO: check if it works as expected, looks like event.parent is not enough
-      if (event.parent is PsiLanguageInjectionHost) {
-        val injectionHelper = GraphQLInjectedLanguage.forElement(event.parent)
-        if (injectionHelper != null && injectionHelper.isLanguageInjectionTarget(event.parent)) {
-          // change in injection target
-          update()
-        }
+      psiEventsCounter.incrementAndGet()
+      val file = event.file as? GraphQLFile
+      val host = event.parent as? PsiLanguageInjectionHost
+      if (file != null || host != null) {
+        // renames and moves are likely to affect schema blobs etc.
+        val isRenamed = file != null &&
+                        (PsiTreeChangeEvent.PROP_FILE_NAME == event.propertyName || PsiTreeChangeEvent.PROP_DIRECTORY_NAME == event.propertyName)
+        recordChange(file, element, host, isRenamed)
       }
     }
 
     override fun propertyChanged(event: PsiTreeChangeEvent) {
-      checkForSchemaChange(event)
+      checkForSchemaChange(event, event.element)
     }
 
     override fun childAdded(event: PsiTreeChangeEvent) {
-      checkForSchemaChange(event)
+      checkForSchemaChange(event, event.child)
     }
 
     override fun childRemoved(event: PsiTreeChangeEvent) {
-      checkForSchemaChange(event)
+      checkForSchemaChange(event, event.parent)
     }
 
     override fun childMoved(event: PsiTreeChangeEvent) {
-      checkForSchemaChange(event)
+      // the old parent is changed too, so the whole file is checked
+      checkForSchemaChange(event, null)
     }
 
     override fun childReplaced(event: PsiTreeChangeEvent) {
-      checkForSchemaChange(event)
+      checkForSchemaChange(event, event.newChild)
     }
 
     override fun childrenChanged(event: PsiTreeChangeEvent) {
@@ -151,38 +277,9 @@ class GraphQLSchemaContentTracker(private val project: Project, coroutineScope:
         if (!event.isGenericChange) {
           // ignore the generic event which fires for all other cases above
           // if it's not the generic case, children have been replaced, e.g. using the commenter
-          checkForSchemaChange(event)
-        }
-      }
-    }
-
-    /**
-     * Evaluates whether the change event can affect the associated GraphQL schema
-     *
-     * @param event the event that occurred
-     * @return true if the change can affect the declared schema
-     */
-    private fun affectsGraphQLSchema(event: PsiTreeChangeEvent): Boolean {
-      if (PsiTreeChangeEvent.PROP_FILE_NAME == event.propertyName || PsiTreeChangeEvent.PROP_DIRECTORY_NAME == event.propertyName) {
-        // renamed and moves are likely to affect schema blobs etc.
-        return true
-      }
-      val elements = sequenceOf(event.parent, event.child, event.newChild, event.oldChild)
-      for (element in elements) {
-        if (element == null) {
-          continue
-        }
-
-        val containingDeclaration = element
-          .parentOfTypes(GraphQLOperationDefinition::class, GraphQLFragmentDefinition::class, withSelf = true)
-
-        if (containingDeclaration != null) {
-          // edits inside query, mutation, subscription, fragment etc. don't affect the schema
-          return false
+          checkForSchemaChange(event, event.parent)
         }
       }
-      // fallback to assume the schema can be affected by the edit
-      return true
     }
   }
 }
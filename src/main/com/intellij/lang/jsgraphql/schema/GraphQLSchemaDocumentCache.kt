@@ -0,0 +1,124 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.injected.editor.VirtualFileWindow
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLSchemaDefinitionIndex
+import com.intellij.lang.jsgraphql.psi.GraphQLFile
+import com.intellij.lang.jsgraphql.schema.library.GraphQLLibraryManager
+import com.intellij.lang.jsgraphql.types.language.Document
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.concurrency.annotations.RequiresReadLock
+import com.intellij.util.containers.CollectionFactory
+import java.io.IOException
+
+private const val BUILD_FROM_INDEX_KEY = "graphql.schema.build.from.index"
+
+private val LOG = logger<GraphQLSchemaDocumentCache>()
+
+/**
+ * Keeps a schema document per physical GraphQL file, so only the files changed since the previous schema build
+ * are converted again using [GraphQLPsiDocumentBuilder].
+ *
+ * Unlike [GraphQLFile.getDocument], which is cached together with the PSI of a file and is gone as soon as the PSI is collected,
+ * the entries here live as long as the [VirtualFile] and are validated using the PSI modification stamp.
+ * This matters for libraries and generated introspection files, which are rarely open in an editor but make up most of a schema.
+ *
+ * For GraphQL files the documents are read from [GraphQLSchemaDefinitionIndex], so such files aren't even parsed.
+ */
+@Service(Service.Level.PROJECT)
+class GraphQLSchemaDocumentCache(private val project: Project) : Disposable {
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project) = project.service<GraphQLSchemaDocumentCache>()
+  }
+
+  private val cache = CollectionFactory.createConcurrentWeakMap<VirtualFile, Entry>()
+
+  /**
+   * @return a document containing only the type system definitions of the given file
+   */
+  @RequiresReadLock
+  fun getDocument(file: GraphQLFile): Document {
+    val virtualFile = file.virtualFile
+    if (virtualFile == null || virtualFile is VirtualFileWindow || !file.isPhysical) {
+      return file.document
+    }
+
+    val modificationStamp = file.modificationStamp
+    val isInLibrary = GraphQLLibraryManager.getInstance(project).isLibraryRoot(virtualFile)
+    val path = virtualFile.path
+
+    val cached = cache[virtualFile]
+    if (cached != null && !cached.isIndexed && cached.isUpToDate(modificationStamp, isInLibrary, path)) {
+      return cached.document
+    }
+
+    val document = GraphQLPsiDocumentBuilder(file).createSchemaDocument()
+    cache[virtualFile] = Entry(document, modificationStamp, isInLibrary, path, false)
+    return document
+  }
+
+  /**
+   * Same as [getDocument], but the document is restored from [GraphQLSchemaDefinitionIndex] without loading the PSI.
+   * The index reflects the unsaved document content, so the entry is validated using the document or the file stamp.
+   *
+   * @return null if the file isn't indexed, then [getDocument] should be used instead
+   */
+  @RequiresReadLock
+  fun getIndexedDocument(file: VirtualFile): Document? {
+    if (!Registry.`is`(BUILD_FROM_INDEX_KEY, true) || file is VirtualFileWindow) {
+      return null
+    }
+
+    val modificationStamp = FileDocumentManager.getInstance().getCachedDocument(file)?.modificationStamp ?: file.modificationStamp
+    val isInLibrary = GraphQLLibraryManager.getInstance(project).isLibraryRoot(file)
+    val path = file.path
+
+    val cached = cache[file]
+    if (cached != null && cached.isIndexed && cached.isUpToDate(modificationStamp, isInLibrary, path)) {
+      return cached.document
+    }
+
+    val data = GraphQLSchemaDefinitionIndex.getFileData(project, file) ?: return null
+    val document = try {
+      GraphQLSchemaDocumentSerializer.read(data, path, isInLibrary)
+    }
+    catch (e: IOException) {
+      LOG.warn("Unable to read indexed type definitions: $path", e)
+      return null
+    }
+    cache[file] = Entry(document, modificationStamp, isInLibrary, path, true)
+    return document
+  }
+
+  fun clear() {
+    cache.clear()
+  }
+
+  override fun dispose() {
+    clear()
+  }
+
+  /**
+   * Source locations and library markers are stored in the document nodes,
+   * so a moved file or a changed library root requires a new document as well.
+   * Indexed entries are validated using a different stamp, so they are never mixed with the PSI based ones.
+   */
+  private class Entry(
+    val document: Document,
+    val modificationStamp: Long,
+    val isInLibrary: Boolean,
+    val path: String,
+    val isIndexed: Boolean,
+  ) {
+    fun isUpToDate(modificationStamp: Long, isInLibrary: Boolean, path: String): Boolean =
+      this.modificationStamp == modificationStamp && this.isInLibrary == isInLibrary && this.path == path
+  }
+}
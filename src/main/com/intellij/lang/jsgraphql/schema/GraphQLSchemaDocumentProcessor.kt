@@ -5,9 +5,12 @@ import com.intellij.lang.jsgraphql.types.language.Document
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.diagnostic.trace
 import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
 import com.intellij.openapi.roots.ProjectFileIndex
 import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
 import com.intellij.util.Processor
 
 /**
@@ -25,7 +28,10 @@ internal val SCHEMA_SIZE_DEFINITIONS_LIMIT: Int
 private val LOG = logger<GraphQLSchemaDocumentProcessor>()
 
 internal class GraphQLSchemaDocumentProcessor : Processor<PsiFile?> {
-  val documents = HashSet<Document>()
+  /**
+   * Keeps the order in which the files were processed, so the registry built from the documents is stable.
+   */
+  val documents = LinkedHashSet<Document>()
 
   private val currentLimit = SCHEMA_SIZE_DEFINITIONS_LIMIT
   private var totalDefinitionsCount = 0
@@ -43,8 +49,27 @@ internal class GraphQLSchemaDocumentProcessor : Processor<PsiFile?> {
       return true
     }
 
-    val document = psiFile.document
+    addDocument(GraphQLSchemaDocumentCache.getInstance(psiFile.project).getDocument(psiFile))
+    return true
+  }
+
+  /**
+   * Processes a GraphQL file using the indexed type definitions, the PSI is loaded only if the file isn't indexed.
+   */
+  fun processFile(project: Project, file: VirtualFile): Boolean {
+    ProgressManager.checkCanceled()
+
+    if (isTooComplex && !ProjectFileIndex.getInstance(project).isInLibrary(file)) {
+      return true
+    }
+
+    val document = GraphQLSchemaDocumentCache.getInstance(project).getIndexedDocument(file)
+                   ?: return process(PsiManager.getInstance(project).findFile(file))
+    addDocument(document)
+    return true
+  }
 
+  private fun addDocument(document: Document) {
     // We need to add it no matter if it's exceeding the limit to cover the case when there is only a single, but huge file.
     // Preventing limits from being exceeded is important only for cases when there are multiple files, especially when
     // there is no config defined, e.g., a whole project scope or an incorrect config for a monorepo.
@@ -55,16 +80,14 @@ internal class GraphQLSchemaDocumentProcessor : Processor<PsiFile?> {
     }
 
     if (isTooComplex && !limitOverflowReported) {
-      LOG.warn("Schema total definitions count limit exceeded: ${totalDefinitionsCount}, file: ${psiFile.virtualFile?.path.orEmpty()}")
+      LOG.warn("Schema total definitions count limit exceeded: ${totalDefinitionsCount}, file: ${document.filePath}")
       LOG.trace {
-        documents.joinToString("\n") { document ->
-          "file: ${document.filePath}, definitions: ${document.definitions.size}"
+        documents.joinToString("\n") {
+          "file: ${it.filePath}, definitions: ${it.definitions.size}"
         }
       }
       limitOverflowReported = true
     }
-
-    return true
   }
 
   private val Document.filePath: String
@@ -0,0 +1,811 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.types.language.*;
+import com.intellij.openapi.util.io.BufferExposingByteArrayOutputStream;
+import com.intellij.openapi.util.io.ByteArraySequence;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of the type system definitions of a {@link Document} created by {@link GraphQLPsiDocumentBuilder}.
+ * <p>
+ * Names are stored once per document in a string table, source locations are stored as a line and a column.
+ * A source name and the library flag are not serialized and are applied when the document is read back,
+ * so the serialized data only depends on the file content.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class GraphQLSchemaDocumentSerializer {
+
+  private static final byte NONE = 0;
+
+  private static final byte SCHEMA = 1;
+  private static final byte SCHEMA_EXTENSION = 2;
+  private static final byte DIRECTIVE = 3;
+  private static final byte SCALAR = 4;
+  private static final byte SCALAR_EXTENSION = 5;
+  private static final byte OBJECT = 6;
+  private static final byte OBJECT_EXTENSION = 7;
+  private static final byte INTERFACE = 8;
+  private static final byte INTERFACE_EXTENSION = 9;
+  private static final byte UNION = 10;
+  private static final byte UNION_EXTENSION = 11;
+  private static final byte ENUM = 12;
+  private static final byte ENUM_EXTENSION = 13;
+  private static final byte INPUT_OBJECT = 14;
+  private static final byte INPUT_OBJECT_EXTENSION = 15;
+
+  private static final byte TYPE_NAME = 1;
+  private static final byte LIST_TYPE = 2;
+  private static final byte NON_NULL_TYPE = 3;
+
+  private static final byte INT_VALUE = 1;
+  private static final byte FLOAT_VALUE = 2;
+  private static final byte BOOLEAN_VALUE = 3;
+  private static final byte NULL_VALUE = 4;
+  private static final byte STRING_VALUE = 5;
+  private static final byte ENUM_VALUE = 6;
+  private static final byte ARRAY_VALUE = 7;
+  private static final byte OBJECT_VALUE = 8;
+  private static final byte VARIABLE_REFERENCE = 9;
+
+  private GraphQLSchemaDocumentSerializer() {
+  }
+
+  /**
+   * Serializes type system definitions of the document, all other definitions are skipped.
+   */
+  public static @NotNull ByteArraySequence write(@NotNull Document document) throws IOException {
+    Writer writer = new Writer();
+    writer.writeDocument(document);
+
+    BufferExposingByteArrayOutputStream bytes = new BufferExposingByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      DataInputOutputUtil.writeINT(out, writer.myStrings.size());
+      for (String string : writer.myStrings) {
+        IOUtil.writeUTF(out, string);
+      }
+      out.write(writer.myBody.getInternalBuffer(), 0, writer.myBody.size());
+    }
+    return bytes.toByteArraySequence();
+  }
+
+  public static @NotNull Document read(@NotNull ByteArraySequence data,
+                                       @Nullable String sourceName,
+                                       boolean isInLibrary) throws IOException {
+    try (DataInputStream in = new DataInputStream(data.toInputStream())) {
+      int stringsCount = DataInputOutputUtil.readINT(in);
+      String[] strings = new String[stringsCount];
+      for (int i = 0; i < stringsCount; i++) {
+        strings[i] = IOUtil.readUTF(in);
+      }
+      return new Reader(in, strings, sourceName, isInLibrary).readDocument();
+    }
+  }
+
+  private static final class Writer {
+    private final List<String> myStrings = new ArrayList<>();
+    private final Map<String, Integer> myStringIds = new HashMap<>();
+    private final BufferExposingByteArrayOutputStream myBody = new BufferExposingByteArrayOutputStream();
+    private final DataOutput myOut = new DataOutputStream(myBody);
+
+    void writeDocument(@NotNull Document document) throws IOException {
+      List<SDLDefinition> definitions = document.getDefinitionsOfType(SDLDefinition.class);
+      DataInputOutputUtil.writeINT(myOut, definitions.size());
+      for (SDLDefinition definition : definitions) {
+        writeDefinition(definition);
+      }
+    }
+
+    private void writeDefinition(@NotNull SDLDefinition definition) throws IOException {
+      if (definition instanceof SchemaExtensionDefinition extension) {
+        myOut.writeByte(SCHEMA_EXTENSION);
+        writeLocation(extension);
+        writeDirectives(extension.getDirectives());
+        writeOperationTypeDefinitions(extension.getOperationTypeDefinitions());
+      }
+      else if (definition instanceof SchemaDefinition schema) {
+        myOut.writeByte(SCHEMA);
+        writeLocation(schema);
+        writeDescription(schema.getDescription());
+        writeDirectives(schema.getDirectives());
+        writeOperationTypeDefinitions(schema.getOperationTypeDefinitions());
+      }
+      else if (definition instanceof DirectiveDefinition directive) {
+        myOut.writeByte(DIRECTIVE);
+        writeNamed(directive);
+        writeDescription(directive.getDescription());
+        myOut.writeBoolean(directive.isRepeatable());
+        writeInputValueDefinitions(directive.getInputValueDefinitions());
+        DataInputOutputUtil.writeINT(myOut, directive.getDirectiveLocations().size());
+        for (DirectiveLocation location : directive.getDirectiveLocations()) {
+          writeNamed(location);
+        }
+      }
+      else if (definition instanceof ScalarTypeExtensionDefinition extension) {
+        myOut.writeByte(SCALAR_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+      }
+      else if (definition instanceof ScalarTypeDefinition scalar) {
+        myOut.writeByte(SCALAR);
+        writeNamed(scalar);
+        writeDescription(scalar.getDescription());
+        writeDirectives(scalar.getDirectives());
+      }
+      else if (definition instanceof ObjectTypeExtensionDefinition extension) {
+        myOut.writeByte(OBJECT_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+        writeTypes(extension.getImplements());
+        writeFieldDefinitions(extension.getFieldDefinitions());
+      }
+      else if (definition instanceof ObjectTypeDefinition object) {
+        myOut.writeByte(OBJECT);
+        writeNamed(object);
+        writeDescription(object.getDescription());
+        writeDirectives(object.getDirectives());
+        writeTypes(object.getImplements());
+        writeFieldDefinitions(object.getFieldDefinitions());
+      }
+      else if (definition instanceof InterfaceTypeExtensionDefinition extension) {
+        myOut.writeByte(INTERFACE_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+        writeTypes(extension.getImplements());
+        writeFieldDefinitions(extension.getFieldDefinitions());
+      }
+      else if (definition instanceof InterfaceTypeDefinition interfaceType) {
+        myOut.writeByte(INTERFACE);
+        writeNamed(interfaceType);
+        writeDescription(interfaceType.getDescription());
+        writeDirectives(interfaceType.getDirectives());
+        writeTypes(interfaceType.getImplements());
+        writeFieldDefinitions(interfaceType.getFieldDefinitions());
+      }
+      else if (definition instanceof UnionTypeExtensionDefinition extension) {
+        myOut.writeByte(UNION_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+        writeTypes(extension.getMemberTypes());
+      }
+      else if (definition instanceof UnionTypeDefinition union) {
+        myOut.writeByte(UNION);
+        writeNamed(union);
+        writeDescription(union.getDescription());
+        writeDirectives(union.getDirectives());
+        writeTypes(union.getMemberTypes());
+      }
+      else if (definition instanceof EnumTypeExtensionDefinition extension) {
+        myOut.writeByte(ENUM_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+        writeEnumValueDefinitions(extension.getEnumValueDefinitions());
+      }
+      else if (definition instanceof EnumTypeDefinition enumType) {
+        myOut.writeByte(ENUM);
+        writeNamed(enumType);
+        writeDescription(enumType.getDescription());
+        writeDirectives(enumType.getDirectives());
+        writeEnumValueDefinitions(enumType.getEnumValueDefinitions());
+      }
+      else if (definition instanceof InputObjectTypeExtensionDefinition extension) {
+        myOut.writeByte(INPUT_OBJECT_EXTENSION);
+        writeNamed(extension);
+        writeDirectives(extension.getDirectives());
+        writeInputValueDefinitions(extension.getInputValueDefinitions());
+      }
+      else if (definition instanceof InputObjectTypeDefinition inputObject) {
+        myOut.writeByte(INPUT_OBJECT);
+        writeNamed(inputObject);
+        writeDescription(inputObject.getDescription());
+        writeDirectives(inputObject.getDirectives());
+        writeInputValueDefinitions(inputObject.getInputValueDefinitions());
+      }
+      else {
+        throw new IOException("Unexpected definition: " + definition.getClass().getName());
+      }
+    }
+
+    private void writeOperationTypeDefinitions(@NotNull List<OperationTypeDefinition> definitions) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, definitions.size());
+      for (OperationTypeDefinition definition : definitions) {
+        writeNamed(definition);
+        writeType(definition.getTypeName());
+      }
+    }
+
+    private void writeFieldDefinitions(@NotNull List<FieldDefinition> definitions) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, definitions.size());
+      for (FieldDefinition definition : definitions) {
+        writeNamed(definition);
+        writeType(definition.getType());
+        writeDescription(definition.getDescription());
+        writeDirectives(definition.getDirectives());
+        writeInputValueDefinitions(definition.getInputValueDefinitions());
+      }
+    }
+
+    private void writeInputValueDefinitions(@NotNull List<InputValueDefinition> definitions) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, definitions.size());
+      for (InputValueDefinition definition : definitions) {
+        writeNamed(definition);
+        writeType(definition.getType());
+        writeDescription(definition.getDescription());
+        writeValue(definition.getDefaultValue());
+        writeDirectives(definition.getDirectives());
+      }
+    }
+
+    private void writeEnumValueDefinitions(@NotNull List<EnumValueDefinition> definitions) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, definitions.size());
+      for (EnumValueDefinition definition : definitions) {
+        writeNamed(definition);
+        writeDescription(definition.getDescription());
+        writeDirectives(definition.getDirectives());
+      }
+    }
+
+    private void writeDirectives(@NotNull List<Directive> directives) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, directives.size());
+      for (Directive directive : directives) {
+        writeNamed(directive);
+        DataInputOutputUtil.writeINT(myOut, directive.getArguments().size());
+        for (Argument argument : directive.getArguments()) {
+          writeNamed(argument);
+          writeValue(argument.getValue());
+        }
+      }
+    }
+
+    private void writeTypes(@NotNull List<Type> types) throws IOException {
+      DataInputOutputUtil.writeINT(myOut, types.size());
+      for (Type type : types) {
+        writeType(type);
+      }
+    }
+
+    private void writeType(@Nullable Type type) throws IOException {
+      if (type instanceof TypeName typeName) {
+        myOut.writeByte(TYPE_NAME);
+        writeNamed(typeName);
+      }
+      else if (type instanceof ListType listType) {
+        myOut.writeByte(LIST_TYPE);
+        writeLocation(listType);
+        writeType(listType.getType());
+      }
+      else if (type instanceof NonNullType nonNullType) {
+        myOut.writeByte(NON_NULL_TYPE);
+        writeLocation(nonNullType);
+        writeType(nonNullType.getType());
+      }
+      else {
+        myOut.writeByte(NONE);
+      }
+    }
+
+    private void writeValue(@Nullable Value value) throws IOException {
+      if (value instanceof IntValue intValue) {
+        myOut.writeByte(INT_VALUE);
+        writeLocation(intValue);
+        IOUtil.writeUTF(myOut, intValue.getValue().toString());
+      }
+      else if (value instanceof FloatValue floatValue) {
+        myOut.writeByte(FLOAT_VALUE);
+        writeLocation(floatValue);
+        IOUtil.writeUTF(myOut, floatValue.getValue().toString());
+      }
+      else if (value instanceof BooleanValue booleanValue) {
+        myOut.writeByte(BOOLEAN_VALUE);
+        writeLocation(booleanValue);
+        myOut.writeBoolean(booleanValue.isValue());
+      }
+      else if (value instanceof NullValue nullValue) {
+        myOut.writeByte(NULL_VALUE);
+        writeLocation(nullValue);
+      }
+      else if (value instanceof StringValue stringValue) {
+        myOut.writeByte(STRING_VALUE);
+        writeLocation(stringValue);
+        writeString(stringValue.getValue());
+      }
+      else if (value instanceof EnumValue enumValue) {
+        myOut.writeByte(ENUM_VALUE);
+        writeNamed(enumValue);
+      }
+      else if (value instanceof ArrayValue arrayValue) {
+        myOut.writeByte(ARRAY_VALUE);
+        writeLocation(arrayValue);
+        DataInputOutputUtil.writeINT(myOut, arrayValue.getValues().size());
+        for (Value item : arrayValue.getValues()) {
+          writeValue(item);
+        }
+      }
+      else if (value instanceof ObjectValue objectValue) {
+        myOut.writeByte(OBJECT_VALUE);
+        writeLocation(objectValue);
+        DataInputOutputUtil.writeINT(myOut, objectValue.getObjectFields().size());
+        for (ObjectField field : objectValue.getObjectFields()) {
+          writeString(field.getName());
+          writeValue(field.getValue());
+        }
+      }
+      else if (value instanceof VariableReference variableReference) {
+        myOut.writeByte(VARIABLE_REFERENCE);
+        writeNamed(variableReference);
+      }
+      else {
+        myOut.writeByte(NONE);
+      }
+    }
+
+    private void writeDescription(@Nullable Description description) throws IOException {
+      myOut.writeBoolean(description != null);
+      if (description != null) {
+        IOUtil.writeUTF(myOut, description.getContent());
+        writeLocation(description.getSourceLocation());
+        myOut.writeBoolean(description.isMultiLine());
+      }
+    }
+
+    private void writeNamed(@NotNull NamedNode<?> node) throws IOException {
+      writeLocation(node);
+      writeString(node.getName());
+    }
+
+    private void writeLocation(@NotNull Node<?> node) throws IOException {
+      writeLocation(node.getSourceLocation());
+    }
+
+    private void writeLocation(@Nullable SourceLocation location) throws IOException {
+      if (location == null) {
+        location = SourceLocation.EMPTY;
+      }
+      DataInputOutputUtil.writeINT(myOut, location.getLine() + 1);
+      DataInputOutputUtil.writeINT(myOut, location.getColumn() + 1);
+    }
+
+    private void writeString(@Nullable String string) throws IOException {
+      if (string == null) {
+        DataInputOutputUtil.writeINT(myOut, 0);
+        return;
+      }
+
+      Integer id = myStringIds.get(string);
+      if (id == null) {
+        myStrings.add(string);
+        id = myStrings.size();
+        myStringIds.put(string, id);
+      }
+      DataInputOutputUtil.writeINT(myOut, id);
+    }
+  }
+
+  private static final class Reader {
+    private final DataInput myIn;
+    private final String[] myStrings;
+    private final @Nullable String mySourceName;
+    private final boolean myIsInLibrary;
+
+    Reader(@NotNull DataInput in, String @NotNull [] strings, @Nullable String sourceName, boolean isInLibrary) {
+      myIn = in;
+      myStrings = strings;
+      mySourceName = sourceName;
+      myIsInLibrary = isInLibrary;
+    }
+
+    @NotNull
+    Document readDocument() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      List<Definition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        definitions.add(readDefinition());
+      }
+
+      Document.Builder document = Document.newDocument();
+      document.sourceLocation(new SourceLocation(0, 0, mySourceName));
+      if (myIsInLibrary) {
+        document.additionalData(GraphQLPsiDocumentBuilder.IS_IN_LIBRARY_KEY, "");
+      }
+      document.definitions(definitions);
+      document.additionalData(GraphQLPsiDocumentBuilder.TYPE_DEFINITIONS_COUNT, String.valueOf(count));
+      return document.build();
+    }
+
+    private @NotNull SDLDefinition readDefinition() throws IOException {
+      byte kind = myIn.readByte();
+      switch (kind) {
+        case SCHEMA -> {
+          SchemaDefinition.Builder def = SchemaDefinition.newSchemaDefinition();
+          readLocation(def);
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.operationTypeDefinitions(readOperationTypeDefinitions());
+          return def.build();
+        }
+        case SCHEMA_EXTENSION -> {
+          SchemaExtensionDefinition.Builder def = SchemaExtensionDefinition.newSchemaExtensionDefinition();
+          readLocation(def);
+          def.directives(readDirectives());
+          def.operationTypeDefinitions(readOperationTypeDefinitions());
+          return def.build();
+        }
+        case DIRECTIVE -> {
+          DirectiveDefinition.Builder def = DirectiveDefinition.newDirectiveDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.repeatable(myIn.readBoolean());
+          def.inputValueDefinitions(readInputValueDefinitions());
+          int count = DataInputOutputUtil.readINT(myIn);
+          List<DirectiveLocation> locations = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            DirectiveLocation.Builder location = DirectiveLocation.newDirectiveLocation();
+            readLocation(location);
+            location.name(readString());
+            locations.add(location.build());
+          }
+          def.directiveLocations(locations);
+          return def.build();
+        }
+        case SCALAR -> {
+          ScalarTypeDefinition.Builder def = ScalarTypeDefinition.newScalarTypeDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          return def.build();
+        }
+        case SCALAR_EXTENSION -> {
+          ScalarTypeExtensionDefinition.Builder def = ScalarTypeExtensionDefinition.newScalarTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          return def.build();
+        }
+        case OBJECT -> {
+          ObjectTypeDefinition.Builder def = ObjectTypeDefinition.newObjectTypeDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.implementz(readTypes());
+          def.fieldDefinitions(readFieldDefinitions());
+          return def.build();
+        }
+        case OBJECT_EXTENSION -> {
+          ObjectTypeExtensionDefinition.Builder def = ObjectTypeExtensionDefinition.newObjectTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          def.implementz(readTypes());
+          def.fieldDefinitions(readFieldDefinitions());
+          return def.build();
+        }
+        case INTERFACE -> {
+          InterfaceTypeDefinition.Builder def = InterfaceTypeDefinition.newInterfaceTypeDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.implementz(readTypes());
+          def.definitions(readFieldDefinitions());
+          return def.build();
+        }
+        case INTERFACE_EXTENSION -> {
+          InterfaceTypeExtensionDefinition.Builder def = InterfaceTypeExtensionDefinition.newInterfaceTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          def.implementz(readTypes());
+          def.definitions(readFieldDefinitions());
+          return def.build();
+        }
+        case UNION -> {
+          UnionTypeDefinition.Builder def = UnionTypeDefinition.newUnionTypeDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.memberTypes(readTypes());
+          return def.build();
+        }
+        case UNION_EXTENSION -> {
+          UnionTypeExtensionDefinition.Builder def = UnionTypeExtensionDefinition.newUnionTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          def.memberTypes(readTypes());
+          return def.build();
+        }
+        case ENUM -> {
+          EnumTypeDefinition.Builder def = EnumTypeDefinition.newEnumTypeDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.enumValueDefinitions(readEnumValueDefinitions());
+          return def.build();
+        }
+        case ENUM_EXTENSION -> {
+          EnumTypeExtensionDefinition.Builder def = EnumTypeExtensionDefinition.newEnumTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          def.enumValueDefinitions(readEnumValueDefinitions());
+          return def.build();
+        }
+        case INPUT_OBJECT -> {
+          InputObjectTypeDefinition.Builder def = InputObjectTypeDefinition.newInputObjectDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.description(readDescription());
+          def.directives(readDirectives());
+          def.inputValueDefinitions(readInputValueDefinitions());
+          return def.build();
+        }
+        case INPUT_OBJECT_EXTENSION -> {
+          InputObjectTypeExtensionDefinition.Builder def =
+            InputObjectTypeExtensionDefinition.newInputObjectTypeExtensionDefinition();
+          readLocation(def);
+          def.name(readString());
+          def.directives(readDirectives());
+          def.inputValueDefinitions(readInputValueDefinitions());
+          return def.build();
+        }
+        default -> throw new IOException("Unexpected definition kind: " + kind);
+      }
+    }
+
+    private @NotNull List<OperationTypeDefinition> readOperationTypeDefinitions() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      List<OperationTypeDefinition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        OperationTypeDefinition.Builder def = OperationTypeDefinition.newOperationTypeDefinition();
+        readLocation(def);
+        def.name(readString());
+        def.typeName((TypeName)readType());
+        definitions.add(def.build());
+      }
+      return definitions;
+    }
+
+    private @NotNull List<FieldDefinition> readFieldDefinitions() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      List<FieldDefinition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        FieldDefinition.Builder def = FieldDefinition.newFieldDefinition();
+        readLocation(def);
+        def.name(readString());
+        def.type(readType());
+        def.description(readDescription());
+        def.directives(readDirectives());
+        def.inputValueDefinitions(readInputValueDefinitions());
+        definitions.add(def.build());
+      }
+      return definitions;
+    }
+
+    private @NotNull List<InputValueDefinition> readInputValueDefinitions() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      if (count == 0) {
+        return Collections.emptyList();
+      }
+      List<InputValueDefinition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        InputValueDefinition.Builder def = InputValueDefinition.newInputValueDefinition();
+        readLocation(def);
+        def.name(readString());
+        def.type(readType());
+        def.description(readDescription());
+        def.defaultValue(readValue());
+        def.directives(readDirectives());
+        definitions.add(def.build());
+      }
+      return definitions;
+    }
+
+    private @NotNull List<EnumValueDefinition> readEnumValueDefinitions() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      List<EnumValueDefinition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        EnumValueDefinition.Builder def = EnumValueDefinition.newEnumValueDefinition();
+        readLocation(def);
+        def.name(readString());
+        def.description(readDescription());
+        def.directives(readDirectives());
+        definitions.add(def.build());
+      }
+      return definitions;
+    }
+
+    private @NotNull List<Directive> readDirectives() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      if (count == 0) {
+        return Collections.emptyList();
+      }
+      List<Directive> directives = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        Directive.Builder directive = Directive.newDirective();
+        readLocation(directive);
+        directive.name(readString());
+        int argumentsCount = DataInputOutputUtil.readINT(myIn);
+        List<Argument> arguments = new ArrayList<>(argumentsCount);
+        for (int j = 0; j < argumentsCount; j++) {
+          Argument.Builder argument = Argument.newArgument();
+          readLocation(argument);
+          argument.name(readString());
+          argument.value(readValue());
+          arguments.add(argument.build());
+        }
+        directive.arguments(arguments);
+        directives.add(directive.build());
+      }
+      return directives;
+    }
+
+    private @NotNull List<Type> readTypes() throws IOException {
+      int count = DataInputOutputUtil.readINT(myIn);
+      if (count == 0) {
+        return Collections.emptyList();
+      }
+      List<Type> types = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    private @Nullable Type readType() throws IOException {
+      byte kind = myIn.readByte();
+      switch (kind) {
+        case NONE -> {
+          return null;
+        }
+        case TYPE_NAME -> {
+          TypeName.Builder type = TypeName.newTypeName();
+          readLocation(type);
+          type.name(readString());
+          return type.build();
+        }
+        case LIST_TYPE -> {
+          ListType.Builder type = ListType.newListType();
+          readLocation(type);
+          type.type(readType());
+          return type.build();
+        }
+        case NON_NULL_TYPE -> {
+          NonNullType.Builder type = NonNullType.newNonNullType();
+          readLocation(type);
+          type.type(readType());
+          return type.build();
+        }
+        default -> throw new IOException("Unexpected type kind: " + kind);
+      }
+    }
+
+    private @Nullable Value readValue() throws IOException {
+      byte kind = myIn.readByte();
+      switch (kind) {
+        case NONE -> {
+          return null;
+        }
+        case INT_VALUE -> {
+          IntValue.Builder value = IntValue.newIntValue();
+          readLocation(value);
+          value.value(new BigInteger(IOUtil.readUTF(myIn)));
+          return value.build();
+        }
+        case FLOAT_VALUE -> {
+          FloatValue.Builder value = FloatValue.newFloatValue();
+          readLocation(value);
+          value.value(new BigDecimal(IOUtil.readUTF(myIn)));
+          return value.build();
+        }
+        case BOOLEAN_VALUE -> {
+          BooleanValue.Builder value = BooleanValue.newBooleanValue();
+          readLocation(value);
+          value.value(myIn.readBoolean());
+          return value.build();
+        }
+        case NULL_VALUE -> {
+          NullValue.Builder value = NullValue.newNullValue();
+          readLocation(value);
+          return value.build();
+        }
+        case STRING_VALUE -> {
+          StringValue.Builder value = StringValue.newStringValue();
+          readLocation(value);
+          value.value(readString());
+          return value.build();
+        }
+        case ENUM_VALUE -> {
+          EnumValue.Builder value = EnumValue.newEnumValue();
+          readLocation(value);
+          value.name(readString());
+          return value.build();
+        }
+        case ARRAY_VALUE -> {
+          ArrayValue.Builder value = ArrayValue.newArrayValue();
+          readLocation(value);
+          int count = DataInputOutputUtil.readINT(myIn);
+          List<Value> values = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            values.add(readValue());
+          }
+          value.values(values);
+          return value.build();
+        }
+        case OBJECT_VALUE -> {
+          ObjectValue.Builder value = ObjectValue.newObjectValue();
+          readLocation(value);
+          int count = DataInputOutputUtil.readINT(myIn);
+          List<ObjectField> fields = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            fields.add(ObjectField.newObjectField().name(readString()).value(readValue()).build());
+          }
+          value.objectFields(fields);
+          return value.build();
+        }
+        case VARIABLE_REFERENCE -> {
+          VariableReference.Builder value = VariableReference.newVariableReference();
+          readLocation(value);
+          value.name(readString());
+          return value.build();
+        }
+        default -> throw new IOException("Unexpected value kind: " + kind);
+      }
+    }
+
+    private @Nullable Description readDescription() throws IOException {
+      if (!myIn.readBoolean()) {
+        return null;
+      }
+      String content = IOUtil.readUTF(myIn);
+      SourceLocation location = readSourceLocation();
+      return new Description(content, location, myIn.readBoolean());
+    }
+
+    private void readLocation(@NotNull NodeBuilder builder) throws IOException {
+      builder.sourceLocation(readSourceLocation());
+      if (myIsInLibrary) {
+        builder.additionalData(GraphQLPsiDocumentBuilder.IS_IN_LIBRARY_KEY, "");
+      }
+    }
+
+    private @NotNull SourceLocation readSourceLocation() throws IOException {
+      int line = DataInputOutputUtil.readINT(myIn) - 1;
+      int column = DataInputOutputUtil.readINT(myIn) - 1;
+      if (line < 0 || column < 0) {
+        return SourceLocation.EMPTY;
+      }
+      return new SourceLocation(line, column, mySourceName);
+    }
+
+    private @Nullable String readString() throws IOException {
+      int id = DataInputOutputUtil.readINT(myIn);
+      if (id == 0) {
+        return null;
+      }
+      if (id > myStrings.length) {
+        throw new IOException("Invalid string id: " + id);
+      }
+      return myStrings[id - 1];
+    }
+  }
+}
@@ -9,6 +9,7 @@ package com.intellij.lang.jsgraphql.schema
 
 import com.google.common.collect.Lists
 import com.intellij.lang.jsgraphql.ide.validation.GraphQLErrorFilter
+import com.intellij.lang.jsgraphql.psi.getPhysicalFileName
 import com.intellij.lang.jsgraphql.types.GraphQLError
 import com.intellij.lang.jsgraphql.types.GraphQLException
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema
@@ -16,7 +17,11 @@ import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry
 import com.intellij.lang.jsgraphql.types.schema.idl.errors.SchemaProblem
 import com.intellij.lang.jsgraphql.types.schema.validation.InvalidSchemaException
 import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiFile
+import com.intellij.util.SmartList
+import com.intellij.util.concurrency.annotations.RequiresReadLock
 
 class GraphQLSchemaInfo(
   val schema: GraphQLSchema,
@@ -29,7 +34,33 @@ class GraphQLSchemaInfo(
   val isTooComplex: Boolean
     get() = registryInfo.isTooComplex
 
-  fun getErrors(project: Project): List<GraphQLError> {
+  @Volatile
+  private var errorsIndex: ErrorsIndex? = null
+
+  /**
+   * Schema errors which are not suppressed by any [GraphQLErrorFilter].
+   * Computed once per schema build, since resolving the PSI elements of hundreds of errors on each highlighting pass is expensive.
+   *
+   * The filters see the PSI as it is at the first access, e.g. the misplaced directive and the injected boundary checks
+   * of [com.intellij.lang.jsgraphql.ide.validation.GraphQLGeneralErrorFilter]. PSI changes which don't cause a schema rebuild
+   * aren't reflected until the next build.
+   */
+  fun getErrors(project: Project): List<GraphQLError> = getErrorsIndex(project).all
+
+  /**
+   * Schema errors located in the given file, see [getErrors]. Injected GraphQL fragments share the errors of their host file.
+   */
+  @RequiresReadLock
+  fun getErrors(project: Project, file: PsiFile): List<GraphQLError> =
+    getErrorsIndex(project).byFile[getPhysicalFileName(file)].orEmpty()
+
+  private fun getErrorsIndex(project: Project): ErrorsIndex {
+    errorsIndex?.let { return it }
+    // could be computed more than once by racing threads, but the result is the same for the same schema build
+    return computeErrorsIndex(project).also { errorsIndex = it }
+  }
+
+  private fun computeErrorsIndex(project: Project): ErrorsIndex {
     val rawErrors: MutableList<GraphQLException> = Lists.newArrayList(additionalErrors)
     rawErrors.addAll(registryInfo.errors)
     rawErrors.addAll(schema.errors)
@@ -46,11 +77,30 @@ class GraphQLSchemaInfo(
     }
 
     return runReadAction {
-      errors.filter { error: GraphQLError ->
-        GraphQLErrorFilter.EP_NAME.extensionList.none { filter: GraphQLErrorFilter ->
-          filter.isGraphQLErrorSuppressed(project, error, error.findElement(project))
+      val filters = GraphQLErrorFilter.EP_NAME.extensionList
+      val unsuppressed = mutableListOf<GraphQLError>()
+      val byFile = mutableMapOf<String, MutableList<GraphQLError>>()
+      for (error in errors) {
+        ProgressManager.checkCanceled()
+        val element = error.findElement(project)
+        if (filters.any { it.isGraphQLErrorSuppressed(project, error, element) }) continue
+
+        unsuppressed.add(error)
+        for (sourceName in getSourceNames(error)) {
+          byFile.getOrPut(sourceName) { SmartList() }.add(error)
         }
       }
+      ErrorsIndex(unsuppressed, byFile)
     }
   }
+
+  private fun getSourceNames(error: GraphQLError): Set<String> {
+    val sourceNames = mutableSetOf<String>()
+    error.node?.sourceLocation?.sourceName?.let { sourceNames.add(it) }
+    error.locations?.forEach { location -> location.sourceName?.let { sourceNames.add(it) } }
+    sourceNames.remove("")
+    return sourceNames
+  }
+
+  private class ErrorsIndex(val all: List<GraphQLError>, val byFile: Map<String, List<GraphQLError>>)
 }
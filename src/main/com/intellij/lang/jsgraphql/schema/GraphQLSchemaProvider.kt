@@ -8,12 +8,18 @@
 package com.intellij.lang.jsgraphql.schema
 
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer
+import com.intellij.lang.injection.InjectedLanguageManager
 import com.intellij.lang.jsgraphql.GraphQLFileType
 import com.intellij.lang.jsgraphql.awaitFuture
+import com.intellij.lang.jsgraphql.skipInTests
+import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigListener
+import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigProvider
 import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeProvider
 import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaBuildMetrics.Phase
 import com.intellij.lang.jsgraphql.schema.builder.GraphQLCompositeRegistry
 import com.intellij.lang.jsgraphql.types.GraphQLException
+import com.intellij.lang.jsgraphql.types.language.Document
 import com.intellij.lang.jsgraphql.types.schema.GraphQLObjectType
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema
 import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry
@@ -22,6 +28,7 @@ import com.intellij.lang.jsgraphql.types.schema.validation.InvalidSchemaExceptio
 import com.intellij.lang.jsgraphql.types.schema.validation.SchemaValidator
 import com.intellij.openapi.Disposable
 import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.readAction
 import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.application.smartReadAction
 import com.intellij.openapi.components.Service
@@ -29,27 +36,52 @@ import com.intellij.openapi.components.service
 import com.intellij.openapi.diagnostic.debug
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.diagnostic.trace
+import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.progress.checkCanceled
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.ModificationTracker
+import com.intellij.openapi.util.SimpleModificationTracker
 import com.intellij.openapi.util.registry.Registry
 import com.intellij.psi.PsiElement
-import com.intellij.psi.PsiManager
 import com.intellij.psi.impl.source.resolve.ResolveCache
 import com.intellij.psi.search.FileTypeIndex
 import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.concurrency.annotations.RequiresReadLock
 import com.intellij.util.containers.ContainerUtil
 import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.future.asCompletableFuture
 import kotlinx.coroutines.launch
+import org.jetbrains.annotations.TestOnly
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentMap
+import kotlin.time.Duration.Companion.nanoseconds
 import kotlin.time.measureTimedValue
 
 private const val BUILD_TIMEOUT_MS = 500L
 
+private const val INCREMENTAL_BUILD_KEY = "graphql.schema.build.incremental"
+
+private const val REUSE_SUPERSEDED_BUILD_KEY = "graphql.schema.build.reuse.superseded"
+
+/**
+ * Never matches the current modification stamp, so a schema restored from a snapshot is only returned as a fallback.
+ */
+private const val RESTORED_SCHEMA_STAMP = -1L
+
+private const val SHARED_CACHE_SIZE_KEY = "graphql.schema.cache.size"
+
+/**
+ * The total number of type definitions in the schemas kept by the shared cache,
+ * approximately 30 schemas of the GitHub schema size.
+ */
+private const val SHARED_CACHE_SIZE_DEFAULT = 50000
+
 /**
  * GitHub schema evaluation takes approximately 1 second in total for both type definitions and the schema combined.
  * If it exceeds the specified time limit, it indicates a serious issue with the code and not the timeout itself.
@@ -76,42 +108,117 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
   }
 
   private val scopeToTask = ConcurrentHashMap<GlobalSearchScope, SchemaComputation>()
+
+  /**
+   * Only a fast path for the current modification stamp, scopes are often recreated and the entries can be collected at any time.
+   * The built schemas are kept by [sharedSchemaCache] which doesn't depend on scopes.
+   */
   private val scopeToSchemaCache: ConcurrentMap<GlobalSearchScope, SchemaEntry> = ContainerUtil.createConcurrentSoftKeySoftValueMap()
+  private val sharedSchemaCache = SharedSchemaCache()
+  private val buildQueue = GraphQLSchemaBuildQueue()
+  private val requestedSnapshots = ConcurrentHashMap.newKeySet<String>()
+  private val schemaCacheModificationTracker = SimpleModificationTracker()
+
+  /**
+   * Build counters and per-phase timings, shown in the GraphQL tool window.
+   */
+  val metrics = GraphQLSchemaBuildMetrics()
+
+  init {
+    project.messageBus.connect(this).subscribe(GraphQLConfigListener.TOPIC, object : GraphQLConfigListener {
+      override fun onConfigurationChanged() {
+        // the scopes are recreated after the configuration is changed, so a snapshot can be requested for them again
+        requestedSnapshots.clear()
+        skipInTests { scheduleSnapshotsPruning() }
+      }
+    })
+  }
+
+  /**
+   * Changes every time a built or restored schema is put into the cache.
+   * Unlike [GraphQLSchemaContentTracker], also changes when a schema requested before the build was completed becomes available.
+   */
+  val cacheModificationTracker: ModificationTracker
+    get() = schemaCacheModificationTracker
 
   fun getSchemaInfo(context: PsiElement?): GraphQLSchemaInfo {
-    val scope = runReadAction { GraphQLScopeProvider.getInstance(project).getResolveScope(context, true) }
-    return getSchemaInfo(scope)
+    return getSchemaResult(context).schemaInfo
+  }
+
+  /**
+   * Same as [getSchemaInfo], but also reports whether the returned schema is up-to-date.
+   * With [wait] set to false, implements the stale-while-revalidate approach: the cached schema is returned immediately,
+   * and a build is scheduled in the background if the schema is outdated.
+   * A schema built for the scope is put into the cache and [GraphQLSchemaCacheChangeListener] is notified.
+   */
+  @JvmOverloads
+  fun getSchemaResult(context: PsiElement?, wait: Boolean = true): GraphQLSchemaResult {
+    return getSchemaResult(runReadAction { createSchemaRequest(context) }, wait)
+  }
+
+  /**
+   * Same as [getSchemaResult] for a request created beforehand, e.g. in a coroutine using `readAction` or `smartReadAction`.
+   */
+  fun getSchemaResult(request: GraphQLSchemaRequest, wait: Boolean = true): GraphQLSchemaResult {
+    return getFromCacheOrSchedule(request.scope, wait, request.snapshotKey, request.isPriority)
+  }
+
+  @RequiresReadLock
+  fun createSchemaRequest(context: PsiElement?): GraphQLSchemaRequest {
+    return GraphQLSchemaRequest(
+      GraphQLScopeProvider.getInstance(project).getResolveScope(context, true),
+      getSnapshotKey(context),
+      isInFocusedEditor(context)
+    )
   }
 
   fun getSchemaInfo(scope: GlobalSearchScope): GraphQLSchemaInfo {
-    return getFromCacheOrSchedule(scope)
+    return getFromCacheOrSchedule(scope).schemaInfo
   }
 
   fun getCachedSchemaInfo(context: PsiElement?): GraphQLSchemaInfo {
-    val scope = runReadAction { GraphQLScopeProvider.getInstance(project).getResolveScope(context, true) }
-    return getCachedSchemaInfo(scope)
+    return getSchemaResult(context, wait = false).schemaInfo
   }
 
   fun getCachedSchemaInfo(scope: GlobalSearchScope): GraphQLSchemaInfo {
-    return getFromCacheOrSchedule(scope, wait = false)
+    return getFromCacheOrSchedule(scope, wait = false).schemaInfo
   }
 
-  private fun getFromCacheOrSchedule(scope: GlobalSearchScope, wait: Boolean = true): GraphQLSchemaInfo {
+  /**
+   * @param snapshotKey identifies a schema snapshot for the scope which can be used until the first build is finished,
+   * see [GraphQLSchemaSnapshotStorage]
+   * @param isPriority the schema is requested for the file in the focused editor, see [GraphQLSchemaBuildQueue]
+   */
+  private fun getFromCacheOrSchedule(
+    scope: GlobalSearchScope,
+    wait: Boolean = true,
+    snapshotKey: String? = null,
+    isPriority: Boolean = false,
+  ): GraphQLSchemaResult {
     val currentModificationStamp = GraphQLSchemaContentTracker.getInstance(project).modificationCount
 
     val currentSchemaEntry = scopeToSchemaCache[scope]
-    if (currentSchemaEntry?.modificationStamp == currentModificationStamp) {
+    val isCacheHit = currentSchemaEntry?.modificationStamp == currentModificationStamp
+    metrics.update(scope) { recordRequest(isCacheHit) }
+    if (isCacheHit && currentSchemaEntry != null) {
       if (LOG.isTraceEnabled) {
         LOG.trace { "Schema from cache returned (scope=${scope.scopeId}, stamp=$currentModificationStamp)" }
       }
-      return currentSchemaEntry.schemaInfo
+      return GraphQLSchemaResult(currentSchemaEntry.schemaInfo, true)
+    }
+
+    if (currentSchemaEntry == null && snapshotKey != null) {
+      restoreSnapshotIfNeeded(scope, snapshotKey)
     }
 
     val fallbackSchema = currentSchemaEntry?.schemaInfo ?: emptySchemaInfo.value
-    val computation = scheduleComputationIfNeeded(scope, currentModificationStamp).apply { ensureStarted() }
+    val computation = scheduleComputationIfNeeded(scope, currentModificationStamp, snapshotKey)
+    computation.ticket.touch(isPriority)
+    computation.ensureStarted()
 
     val job = computation.getJob()
     checkNotNull(job) { "Schema computation was not started (scope=${scope.scopeId}, stamp=${computation.startModificationStamp})" }
+    val waitStart = System.nanoTime()
     try {
       awaitFuture(job.asCompletableFuture(), if (wait) buildTimeout else 0)
     }
@@ -121,8 +228,15 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
     catch (e: Exception) {
       LOG.warn("Schema computation waiting completed with exception (scope=${scope.scopeId}, stamp=${computation.startModificationStamp})", e)
     }
+    finally {
+      if (wait) {
+        val waitDuration = (System.nanoTime() - waitStart).nanoseconds
+        metrics.update(scope) { waiting.record(waitDuration) }
+      }
+    }
 
-    return scopeToSchemaCache[scope]?.schemaInfo ?: fallbackSchema
+    val schemaEntry = scopeToSchemaCache[scope] ?: return GraphQLSchemaResult(fallbackSchema, false)
+    return GraphQLSchemaResult(schemaEntry.schemaInfo, schemaEntry.modificationStamp == currentModificationStamp)
   }
 
   private val buildTimeout: Long
@@ -134,15 +248,34 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
       return Registry.intValue("graphql.schema.build.timeout", BUILD_TIMEOUT_MS.toInt()).toLong()
     }
 
-  private fun scheduleComputationIfNeeded(scope: GlobalSearchScope, currentModificationStamp: Long): SchemaComputation {
+  private fun scheduleComputationIfNeeded(
+    scope: GlobalSearchScope,
+    currentModificationStamp: Long,
+    snapshotKey: String?,
+  ): SchemaComputation {
     var computation = scopeToTask[scope]
+    var supersededComputation: SchemaComputation? = null
     if (computation != null) {
       val job = computation.getJob()
       if (computation.startModificationStamp != currentModificationStamp || (job != null && job.isCancelled)) {
         // cancel and start a new one
         if (job != null) {
-          if (!job.isCompleted) {
+          if (!job.isCompleted && computation.isBuildStarted && isSupersededBuildReuseEnabled) {
+            // set before checking the registry, so the computation either stops after the registry build itself or is cancelled here
+            computation.isSuperseded = true
+            supersededComputation = computation
+            if (computation.isRegistryBuilt) {
+              LOG.debug { "Cancelling superseded schema computation, its registry is reused (scope=${scope.scopeId}, old=${computation.startModificationStamp}, new=${currentModificationStamp})" }
+              job.cancel()
+            }
+            else {
+              LOG.debug { "Superseded schema computation continues until the registry is built (scope=${scope.scopeId}, old=${computation.startModificationStamp}, new=${currentModificationStamp})" }
+            }
+          }
+          else if (!job.isCompleted) {
             LOG.debug { "Cancelling schema computation (scope=${scope.scopeId}, old=${computation.startModificationStamp}, new=${currentModificationStamp})" }
+            // a queued computation hands over the in-flight build it was going to continue, so its registry isn't lost
+            supersededComputation = computation.takeSupersededComputation()
             job.cancel()
           }
           else if (job.isCancelled) {
@@ -159,7 +292,7 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
     }
 
     if (computation == null) {
-      val scheduledComputation = SchemaComputation(scope, currentModificationStamp)
+      val scheduledComputation = SchemaComputation(scope, currentModificationStamp, snapshotKey, supersededComputation)
       val currentComputation = scopeToTask.putIfAbsent(scope, scheduledComputation)
       if (currentComputation != null) {
         // concurrently started a task already
@@ -174,21 +307,40 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
     return computation
   }
 
-  private suspend fun computeSchema(scope: GlobalSearchScope, modificationStamp: Long): SchemaEntry {
+  private suspend fun computeSchema(computation: SchemaComputation, previousEntry: SchemaEntry?): SchemaEntry {
     checkCanceled()
 
-    val registryInfo = getRegistryInfo(scope, modificationStamp)
+    val scope = computation.scope
+    val modificationStamp = computation.startModificationStamp
+    val fingerprint = collectSchemaFingerprint(scope, modificationStamp)
+    if (previousEntry != null && previousEntry.fingerprint == fingerprint) {
+      metrics.update(scope) { recordBuildReused() }
+      LOG.info("Schema sources are unchanged, the previous schema is reused (scope=${scope.scopeId}, stamp=$modificationStamp)")
+      computation.registryBuilt(previousEntry.registrySnapshot)
+      return previousEntry.withModificationStamp(modificationStamp)
+    }
+
+    val sharedEntry = sharedSchemaCache[fingerprint]
+    if (sharedEntry != null) {
+      metrics.update(scope) { recordBuildReused() }
+      LOG.info("Schema with the same sources is already built, the cached schema is reused (scope=${scope.scopeId}, stamp=$modificationStamp)")
+      computation.registryBuilt(sharedEntry.registrySnapshot)
+      return sharedEntry.withModificationStamp(modificationStamp)
+    }
+
+    // a registry built by a superseded computation is newer than the one of the previous entry
+    val baseSnapshot = computation.awaitSupersededRegistry() ?: previousEntry?.registrySnapshot
+    val registrySnapshot = getRegistrySnapshot(scope, modificationStamp, fingerprint, baseSnapshot)
+    computation.registryBuilt(registrySnapshot)
+    if (computation.isSuperseded) {
+      LOG.debug { "Superseded schema computation stopped after the registry build (scope=${scope.scopeId}, stamp=$modificationStamp)" }
+      throw CancellationException("Schema computation is superseded")
+    }
+    val registryInfo = registrySnapshot.registryInfo
+
     val schemaInfo = try {
       LOG.debug { "Schema build started (scope=${scope.scopeId}, stamp=$modificationStamp)" }
-      val (schema, duration) = measureTimedValue {
-        val schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registryInfo.typeDefinitionRegistry)
-        val validationErrors = SchemaValidator().validateSchema(schema)
-        val errors = if (validationErrors.isEmpty())
-          emptyList()
-        else
-          listOf<GraphQLException>(InvalidSchemaException(validationErrors))
-        GraphQLSchemaInfo(schema, errors, registryInfo)
-      }
+      val (schema, duration) = measureTimedValue { createSchemaInfo(scope, registryInfo) { computation.checkActive() } }
       LOG.info("Schema was built in ${duration} (scope=${scope.scopeId}, stamp=$modificationStamp)")
       schema
     }
@@ -198,15 +350,123 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
     }
     catch (e: Exception) {
       LOG.error("Schema build error (scope=${scope.scopeId}, stamp=$modificationStamp): ", e) // should never happen
+      metrics.update(scope) { recordBuildFailed() }
 
-      GraphQLSchemaInfo(
-        emptySchema.value,
-        listOfNotNull(e as? GraphQLException ?: GraphQLException(e)),
-        registryInfo
+      return SchemaEntry(
+        GraphQLSchemaInfo(emptySchema.value, listOfNotNull(e as? GraphQLException ?: GraphQLException(e)), registryInfo),
+        modificationStamp,
+        registrySnapshot
       )
     }
 
-    return SchemaEntry(schemaInfo, modificationStamp)
+    metrics.update(scope) { recordSchemaSize(fingerprint.documents.size, registryInfo.typeDefinitionRegistry.types().size) }
+    return SchemaEntry(schemaInfo, modificationStamp, registrySnapshot).also { sharedSchemaCache.put(it) }
+  }
+
+  /**
+   * @param recordPhases false for the schemas which are not built from the current sources, e.g. restored from a snapshot,
+   * so they don't distort the build metrics
+   * @param checkActive throws [CancellationException] if the result isn't needed anymore, called between the phases
+   */
+  private fun createSchemaInfo(
+    scope: GlobalSearchScope,
+    registryInfo: GraphQLRegistryInfo,
+    recordPhases: Boolean = true,
+    checkActive: () -> Unit = {},
+  ): GraphQLSchemaInfo {
+    beforePhase(Phase.SCHEMA)
+    val (schema, generationDuration) = measureTimedValue {
+      UnExecutableSchemaGenerator.makeUnExecutableSchema(registryInfo.typeDefinitionRegistry)
+    }
+    if (recordPhases) metrics.recordPhase(scope, Phase.SCHEMA, generationDuration)
+
+    checkActive()
+    beforePhase(Phase.VALIDATION)
+    val (validationErrors, validationDuration) = measureTimedValue { SchemaValidator().validateSchema(schema) }
+    if (recordPhases) metrics.recordPhase(scope, Phase.VALIDATION, validationDuration)
+    val errors = if (validationErrors.isEmpty())
+      emptyList()
+    else
+      listOf<GraphQLException>(InvalidSchemaException(validationErrors))
+    return GraphQLSchemaInfo(schema, errors, registryInfo)
+  }
+
+  @RequiresReadLock
+  private fun isInFocusedEditor(context: PsiElement?): Boolean {
+    if (context == null || !context.isValid) {
+      return false
+    }
+    val file = InjectedLanguageManager.getInstance(project).getTopLevelFile(context)?.originalFile?.virtualFile ?: return false
+    return FileEditorManager.getInstance(project).selectedFiles.contains(file)
+  }
+
+  @RequiresReadLock
+  private fun getSnapshotKey(context: PsiElement?): String? {
+    if (context == null || !GraphQLSchemaSnapshotStorage.isEnabled) {
+      return null
+    }
+    val file = context.containingFile?.originalFile ?: return null
+    val projectConfig = GraphQLConfigProvider.getInstance(project).resolveProjectConfig(file) ?: return null
+    return GraphQLSchemaSnapshotStorage.getKey(projectConfig)
+  }
+
+  /**
+   * Deletes the snapshots of the config projects removed from the configuration.
+   */
+  private fun scheduleSnapshotsPruning() {
+    if (!GraphQLSchemaSnapshotStorage.isEnabled) return
+
+    coroutineScope.launch(Dispatchers.IO) {
+      val keys = readAction {
+        val configProvider = GraphQLConfigProvider.getInstance(project)
+        if (!configProvider.isInitialized) return@readAction null
+        configProvider.getAllConfigs().flatMap { it.getProjects().values }.map { GraphQLSchemaSnapshotStorage.getKey(it) }
+      } ?: return@launch
+      GraphQLSchemaSnapshotStorage.getInstance(project).pruneSnapshots(keys)
+    }
+  }
+
+  /**
+   * Builds a schema from the snapshot in the background, it's shown only while there is no schema built for the scope yet.
+   * Doesn't depend on indexes, so it completes much earlier than a regular build when the project is opened.
+   */
+  private fun restoreSnapshotIfNeeded(scope: GlobalSearchScope, snapshotKey: String) {
+    if (!requestedSnapshots.add(snapshotKey)) {
+      return
+    }
+
+    coroutineScope.launch(Dispatchers.IO) {
+      val snapshot = GraphQLSchemaSnapshotStorage.getInstance(project).load(snapshotKey) ?: return@launch
+      val schemaEntry = try {
+        val (schemaEntry, duration) = measureTimedValue {
+          val fingerprint = SchemaFingerprint(LinkedHashSet(snapshot.documents), snapshot.isTooComplex)
+          val registrySnapshot = getRegistrySnapshot(scope, RESTORED_SCHEMA_STAMP, fingerprint, null, recordPhases = false)
+          SchemaEntry(createSchemaInfo(scope, registrySnapshot.registryInfo, recordPhases = false), RESTORED_SCHEMA_STAMP, registrySnapshot)
+        }
+        LOG.info("Schema was restored from a snapshot in ${duration} (scope=${scope.scopeId}, key=$snapshotKey)")
+        schemaEntry
+      }
+      catch (e: CancellationException) {
+        throw e
+      }
+      catch (e: Exception) {
+        LOG.warn("Unable to restore schema from a snapshot (scope=${scope.scopeId}, key=$snapshotKey)", e)
+        return@launch
+      }
+
+      if (scopeToSchemaCache.putIfAbsent(scope, schemaEntry) == null) {
+        notifySchemaChanged()
+      }
+    }
+  }
+
+  private fun notifySchemaChanged() {
+    schemaCacheModificationTracker.incModificationCount()
+    ResolveCache.getInstance(project).clearCache(true)
+    if (!ApplicationManager.getApplication().isUnitTestMode) {
+      DaemonCodeAnalyzer.getInstance(project).restart("GraphQLSchemaProvider.notifySchemaChanged")
+    }
+    project.messageBus.syncPublisher(GraphQLSchemaCacheChangeListener.TOPIC).onSchemaCacheChanged()
   }
 
   /**
@@ -216,35 +476,123 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
   @Suppress("unused")
   private suspend fun getRegistryInfo(context: PsiElement?): GraphQLRegistryInfo {
     val currentModificationStamp = GraphQLSchemaContentTracker.getInstance(project).modificationCount
-    return getRegistryInfo(GraphQLScopeProvider.getInstance(project).getResolveScope(context, true), currentModificationStamp)
+    val scope = GraphQLScopeProvider.getInstance(project).getResolveScope(context, true)
+    val fingerprint = collectSchemaFingerprint(scope, currentModificationStamp)
+    return getRegistrySnapshot(scope, currentModificationStamp, fingerprint, null).registryInfo
+  }
+
+  /**
+   * Builds a schema from all the documents of the context scope, bypassing the caches and the incremental registry build.
+   */
+  @TestOnly
+  internal suspend fun buildSchemaInfoFromScratch(context: PsiElement?): GraphQLSchemaInfo {
+    val currentModificationStamp = GraphQLSchemaContentTracker.getInstance(project).modificationCount
+    val scope = readAction { GraphQLScopeProvider.getInstance(project).getResolveScope(context, true) }
+    val fingerprint = collectSchemaFingerprint(scope, currentModificationStamp)
+    return createSchemaInfo(scope, getRegistrySnapshot(scope, currentModificationStamp, fingerprint, null).registryInfo)
   }
 
-  private suspend fun getRegistryInfo(scope: GlobalSearchScope, modificationStamp: Long): GraphQLRegistryInfo {
+  private suspend fun collectSchemaFingerprint(scope: GlobalSearchScope, modificationStamp: Long): SchemaFingerprint {
     checkCanceled()
+    beforePhase(Phase.DOCUMENTS)
 
-    LOG.debug { "Registry build started (scope=${scope.scopeId}, stamp=$modificationStamp)" }
-    val (registry, duration) = measureTimedValue {
+    val (fingerprint, duration) = measureTimedValue {
       val documentsProcessor = smartReadAction(project) { processSchemaDocuments(scope) }
+      SchemaFingerprint(documentsProcessor.documents, documentsProcessor.isTooComplex)
+    }
+    metrics.recordPhase(scope, Phase.DOCUMENTS, duration)
+    LOG.debug { "Schema documents were collected in ${duration} (scope=${scope.scopeId}, stamp=$modificationStamp, documents=${fingerprint.documents.size})" }
+    return fingerprint
+  }
 
-      val compositeRegistry = GraphQLCompositeRegistry()
-      documentsProcessor.documents.forEach {
-        compositeRegistry.addFromDocument(it)
-      }
-      GraphQLRegistryInfo(compositeRegistry.build(), documentsProcessor.isTooComplex)
+  private suspend fun getRegistrySnapshot(
+    scope: GlobalSearchScope,
+    modificationStamp: Long,
+    fingerprint: SchemaFingerprint,
+    previousSnapshot: RegistrySnapshot?,
+    recordPhases: Boolean = true,
+  ): RegistrySnapshot {
+    checkCanceled()
+
+    if (previousSnapshot != null && previousSnapshot.fingerprint == fingerprint) {
+      LOG.debug { "Registry with the same sources is already built (scope=${scope.scopeId}, stamp=$modificationStamp)" }
+      return previousSnapshot
+    }
+
+    LOG.debug { "Registry build started (scope=${scope.scopeId}, stamp=$modificationStamp)" }
+    beforePhase(Phase.REGISTRY)
+    val (snapshot, duration) = measureTimedValue {
+      val reusableSnapshot = previousSnapshot?.takeIf { it.fingerprint.isTooComplex == fingerprint.isTooComplex }
+      val compositeRegistry = reusableSnapshot?.let { patchCompositeRegistry(scope, it, fingerprint.documents) }
+                              ?: GraphQLCompositeRegistry.fromDocuments(fingerprint.documents)
+      RegistrySnapshot(GraphQLRegistryInfo(compositeRegistry.build(), fingerprint.isTooComplex), compositeRegistry, fingerprint)
     }
+    if (recordPhases) metrics.recordPhase(scope, Phase.REGISTRY, duration)
     LOG.info("Registry was built in ${duration} (scope=${scope.scopeId}, stamp=$modificationStamp)")
-    return registry
+    return snapshot
   }
 
+  /**
+   * Recreates only the composite definitions affected by the documents changed since the previous build,
+   * the rest are reused from its composite registry, see [GraphQLCompositeRegistry.patch].
+   * Documents are cached per file and compared by identity, so an unchanged file provides the same instance.
+   *
+   * @return null if a full rebuild is required
+   */
+  private fun patchCompositeRegistry(
+    scope: GlobalSearchScope,
+    previousSnapshot: RegistrySnapshot,
+    documents: Set<Document>,
+  ): GraphQLCompositeRegistry? {
+    if (!isIncrementalBuildEnabled) {
+      return null
+    }
+
+    val previousDocuments = previousSnapshot.fingerprint.documents
+    val removed = previousDocuments.filter { it !in documents }
+    val added = documents.filter { it !in previousDocuments }
+    if (removed.size + added.size > documents.size / 2) {
+      LOG.debug { "Too many changed documents for an incremental registry build (scope=${scope.scopeId}, removed=${removed.size}, added=${added.size})" }
+      return null
+    }
+    if (removed.any(GraphQLCompositeRegistry::hasStructuralDefinitions) || added.any(GraphQLCompositeRegistry::hasStructuralDefinitions)) {
+      LOG.debug { "Structural schema change, incremental registry build is skipped (scope=${scope.scopeId})" }
+      return null
+    }
+
+    LOG.debug { "Incremental registry build (scope=${scope.scopeId}, removed=${removed.size}, added=${added.size})" }
+    val compositeRegistry = previousSnapshot.compositeRegistry.patch(documents, removed + added)
+    if (compositeRegistry == null) {
+      LOG.warn("Incremental registry build failed, falling back to a full build (scope=${scope.scopeId})")
+      return null
+    }
+    metrics.update(scope) { recordIncrementalBuild() }
+    return compositeRegistry
+  }
+
+  /**
+   * Called on a build thread before each build phase, lets tests pause a build at a known point.
+   */
+  @Volatile
+  @set:TestOnly
+  internal var beforePhaseListener: ((Phase) -> Unit)? = null
+
+  private fun beforePhase(phase: Phase) {
+    beforePhaseListener?.invoke(phase)
+  }
+
+  private val isIncrementalBuildEnabled: Boolean
+    get() = Registry.`is`(INCREMENTAL_BUILD_KEY, true)
+
+  private val isSupersededBuildReuseEnabled: Boolean
+    get() = isIncrementalBuildEnabled && Registry.`is`(REUSE_SUPERSEDED_BUILD_KEY, true)
+
   private fun processSchemaDocuments(scope: GlobalSearchScope): GraphQLSchemaDocumentProcessor {
     val processor = GraphQLSchemaDocumentProcessor()
 
     FileTypeIndex.processFiles(
       GraphQLFileType.INSTANCE,
-      {
-        val psiFile = PsiManager.getInstance(project).findFile(it)
-        if (psiFile != null) processor.process(psiFile) else true
-      },
+      { processor.processFile(project, it) },
       GlobalSearchScope.getScopeRestrictedByFileTypes(scope, GraphQLFileType.INSTANCE)
     )
 
@@ -256,11 +604,62 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
   }
 
   override fun dispose() {
+    sharedSchemaCache.clear()
+    requestedSnapshots.clear()
   }
 
-  private inner class SchemaComputation(val scope: GlobalSearchScope, val startModificationStamp: Long) {
+  /**
+   * @param supersededComputation an in-progress computation for an outdated modification stamp,
+   * which is not cancelled but stops once its registry is built, so this computation can apply only the latest changes to it.
+   * If this computation is cancelled before it's started, the next one takes it over
+   */
+  private inner class SchemaComputation(
+    val scope: GlobalSearchScope,
+    val startModificationStamp: Long,
+    val snapshotKey: String?,
+    private var supersededComputation: SchemaComputation?, // lock
+  ) {
     private val lock = Any()
     private var job: Job? = null // lock
+    private val registrySnapshot = CompletableDeferred<RegistrySnapshot?>()
+
+    val ticket = GraphQLSchemaBuildQueue.Ticket()
+
+    @Volatile
+    var isBuildStarted = false
+
+    @Volatile
+    var isSuperseded = false
+
+    val isRegistryBuilt: Boolean
+      get() = registrySnapshot.isCompleted
+
+    fun registryBuilt(snapshot: RegistrySnapshot) {
+      registrySnapshot.complete(snapshot)
+    }
+
+    /**
+     * Stops a computation which was superseded or cancelled after its registry was built, e.g. before the schema validation.
+     */
+    fun checkActive() {
+      if (isSuperseded) {
+        throw CancellationException("Schema computation is superseded")
+      }
+      getJob()?.ensureActive()
+    }
+
+    fun takeSupersededComputation(): SchemaComputation? {
+      synchronized(lock) {
+        val superseded = supersededComputation
+        supersededComputation = null
+        return superseded
+      }
+    }
+
+    suspend fun awaitSupersededRegistry(): RegistrySnapshot? {
+      val superseded = takeSupersededComputation() ?: return null
+      return superseded.registrySnapshot.await()
+    }
 
     fun ensureStarted() {
       synchronized(lock) {
@@ -269,17 +668,43 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
         }
         else {
           job = coroutineScope.launch {
-            val schemaEntry = computeSchema(scope, startModificationStamp)
+            var previousEntry: SchemaEntry? = null
+            val schemaEntry = try {
+              buildQueue.run(ticket) {
+                isBuildStarted = true
+                // a build dropped or superseded while queued is not counted as started
+                metrics.update(scope) { recordBuildStarted() }
+                // read when the build is actually started, a queued build can be preceded by a snapshot or another build
+                previousEntry = scopeToSchemaCache[scope]
+                computeSchema(this@SchemaComputation, previousEntry)
+              }
+            }
+            catch (e: CancellationException) {
+              if (isBuildStarted) {
+                metrics.update(scope) { recordBuildCancelled() }
+              }
+              throw e
+            }
+            finally {
+              // a computation waiting for this one continues with its own registry build
+              registrySnapshot.complete(null)
+            }
 
             checkCanceled()
+            if (isSuperseded) {
+              // a newer computation is already scheduled, an outdated schema must not replace its result
+              metrics.update(scope) { recordBuildCancelled() }
+              throw CancellationException("Schema computation is superseded")
+            }
             scopeToSchemaCache[scope] = schemaEntry
             scopeToTask.remove(scope, this@SchemaComputation)
 
-            ResolveCache.getInstance(project).clearCache(true)
-            if (!ApplicationManager.getApplication().isUnitTestMode) {
-              DaemonCodeAnalyzer.getInstance(project).restart("GraphQLSchemaProvider.SchemaComputation.ensureStarted")
+            if (snapshotKey != null && schemaEntry.registrySnapshot !== previousEntry?.registrySnapshot) {
+              val fingerprint = schemaEntry.fingerprint
+              GraphQLSchemaSnapshotStorage.getInstance(project).scheduleSave(snapshotKey, fingerprint.documents, fingerprint.isTooComplex)
             }
-            project.messageBus.syncPublisher(GraphQLSchemaCacheChangeListener.TOPIC).onSchemaCacheChanged()
+
+            notifySchemaChanged()
           }
         }
       }
@@ -292,8 +717,94 @@ class GraphQLSchemaProvider(private val project: Project, private val coroutineS
     }
   }
 
-  private class SchemaEntry(val schemaInfo: GraphQLSchemaInfo, val modificationStamp: Long)
+  private class SchemaEntry(
+    val schemaInfo: GraphQLSchemaInfo,
+    val modificationStamp: Long,
+    val registrySnapshot: RegistrySnapshot,
+  ) {
+    val fingerprint: SchemaFingerprint
+      get() = registrySnapshot.fingerprint
+
+    fun withModificationStamp(modificationStamp: Long): SchemaEntry =
+      if (this.modificationStamp == modificationStamp) this else SchemaEntry(schemaInfo, modificationStamp, registrySnapshot)
+  }
+
+  /**
+   * State of a registry build which the next build for the same scope can be applied to incrementally.
+   */
+  private class RegistrySnapshot(
+    val registryInfo: GraphQLRegistryInfo,
+    val compositeRegistry: GraphQLCompositeRegistry,
+    val fingerprint: SchemaFingerprint,
+  )
 
-  private val GlobalSearchScope.scopeId: String
-    get() = hashCode().toString()
+  /**
+   * Identifies the sources of a schema. Documents are cached per file and recreated only when the file changes,
+   * so the same set of document instances means the same contributing files with the same modification stamps.
+   */
+  private class SchemaFingerprint(val documents: Set<Document>, val isTooComplex: Boolean) {
+    private val hashCode = 31 * documents.hashCode() + isTooComplex.hashCode()
+
+    /**
+     * Used as an estimation of the memory retained by a schema built from these documents.
+     * Only needed for the fingerprints inserted into the [SharedSchemaCache], so it's computed on first access.
+     */
+    val weight: Int by lazy(LazyThreadSafetyMode.PUBLICATION) {
+      documents.sumOf { GraphQLPsiDocumentBuilder.getTypeDefinitionsCount(it) } + 1
+    }
+
+    override fun equals(other: Any?): Boolean {
+      if (this === other) return true
+      return other is SchemaFingerprint &&
+             hashCode == other.hashCode &&
+             isTooComplex == other.isTooComplex &&
+             documents == other.documents
+    }
+
+    override fun hashCode(): Int = hashCode
+  }
+
+  /**
+   * Schemas by the sources they are built from, so scopes with the same schema sources share a single schema
+   * and a recreated scope doesn't require a rebuild.
+   * The least recently used schemas are evicted when the total weight of the cached schemas exceeds the limit.
+   */
+  private class SharedSchemaCache {
+    private val entries = LinkedHashMap<SchemaFingerprint, SchemaEntry>(16, 0.75f, true) // guarded by this
+    private var totalWeight = 0 // guarded by this
+
+    @Synchronized
+    operator fun get(fingerprint: SchemaFingerprint): SchemaEntry? = entries[fingerprint]
+
+    @Synchronized
+    fun put(entry: SchemaEntry) {
+      val previous = entries.put(entry.fingerprint, entry)
+      if (previous != null) {
+        totalWeight -= previous.fingerprint.weight
+      }
+      totalWeight += entry.fingerprint.weight
+
+      val maxWeight = Registry.intValue(SHARED_CACHE_SIZE_KEY, SHARED_CACHE_SIZE_DEFAULT)
+      val iterator = entries.values.iterator()
+      // the last entry is the one just added, it's kept even if it exceeds the limit alone
+      while (totalWeight > maxWeight && entries.size > 1) {
+        val evicted = iterator.next()
+        iterator.remove()
+        totalWeight -= evicted.fingerprint.weight
+        LOG.debug { "Schema evicted from the shared cache (weight=${evicted.fingerprint.weight}, total=$totalWeight)" }
+      }
+    }
+
+    @Synchronized
+    fun clear() {
+      entries.clear()
+      totalWeight = 0
+    }
+  }
 }
+
+/**
+ * Identifies a scope in the logs and in the build metrics.
+ */
+internal val GlobalSearchScope.scopeId: String
+  get() = hashCode().toString()
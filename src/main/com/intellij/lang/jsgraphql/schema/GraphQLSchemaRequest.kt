@@ -0,0 +1,16 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.psi.search.GlobalSearchScope
+
+/**
+ * Everything [GraphQLSchemaProvider] needs from PSI to request a schema for a context element,
+ * created by [GraphQLSchemaProvider.createSchemaRequest] in a read action chosen by the caller.
+ *
+ * @property snapshotKey identifies a schema snapshot for the scope, see [GraphQLSchemaSnapshotStorage]
+ * @property isPriority the schema is requested for the file in the focused editor, see [GraphQLSchemaBuildQueue]
+ */
+class GraphQLSchemaRequest internal constructor(
+  val scope: GlobalSearchScope,
+  internal val snapshotKey: String?,
+  internal val isPriority: Boolean,
+)
@@ -0,0 +1,10 @@
+package com.intellij.lang.jsgraphql.schema
+
+/**
+ * A schema returned by [GraphQLSchemaProvider.getSchemaResult].
+ *
+ * @property isFresh false if the schema was built before the latest change of the schema sources,
+ * restored from a snapshot, or is an empty placeholder because no build has completed for the scope yet.
+ * Validation against a stale schema can report types and fields which were just added as unknown.
+ */
+class GraphQLSchemaResult(val schemaInfo: GraphQLSchemaInfo, val isFresh: Boolean)
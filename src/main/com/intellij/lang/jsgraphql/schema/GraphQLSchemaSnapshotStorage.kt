@@ -0,0 +1,258 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.lang.jsgraphql.GRAPHQL_CACHE_DIR_NAME
+import com.intellij.lang.jsgraphql.ide.config.model.GraphQLProjectConfig
+import com.intellij.lang.jsgraphql.types.language.Document
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.application.readAction
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.debug
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.io.ByteArraySequence
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.openapi.vfs.JarFileSystem
+import com.intellij.openapi.vfs.LocalFileSystem
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.ex.temp.TempFileSystem
+import com.intellij.util.io.DigestUtil
+import com.intellij.util.io.IOUtil
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.io.path.exists
+import kotlin.time.Duration.Companion.seconds
+
+private val LOG = logger<GraphQLSchemaSnapshotStorage>()
+
+private const val SNAPSHOTS_KEY = "graphql.schema.snapshots"
+
+private const val SNAPSHOTS_DIR = "schemas"
+
+/**
+ * Should be incremented on any change of the format, including [GraphQLSchemaDocumentSerializer].
+ */
+private const val STORAGE_VERSION = 1
+
+/**
+ * Schemas are rebuilt often while typing, so only the latest state after a pause is written.
+ */
+private val SAVE_DELAY = 10.seconds
+
+/**
+ * Keeps the documents a schema was built from on disk, so after reopening a project the schema
+ * can be restored before the indexes are ready.
+ *
+ * A snapshot stores a content hash of every contributing file and is rejected
+ * if any of the files has been changed or removed since.
+ * Files added after the snapshot was written are not detected, so a restored schema should only be shown
+ * until a regular build is finished.
+ */
+@Service(Service.Level.PROJECT)
+class GraphQLSchemaSnapshotStorage(private val project: Project, private val coroutineScope: CoroutineScope) {
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project) = project.service<GraphQLSchemaSnapshotStorage>()
+
+    val isEnabled: Boolean
+      get() = Registry.`is`(SNAPSHOTS_KEY, true)
+
+    /**
+     * Snapshots are stored per config project, so the key stays the same after the project is reopened.
+     */
+    @JvmStatic
+    fun getKey(projectConfig: GraphQLProjectConfig): String = "${projectConfig.dir.path}:${projectConfig.name}"
+  }
+
+  class Snapshot(val documents: List<Document>, val isTooComplex: Boolean)
+
+  private val pendingSaves = ConcurrentHashMap<String, Job>()
+
+  private val storageDir: Path
+    get() = Paths.get(PathManager.getSystemPath(), GRAPHQL_CACHE_DIR_NAME, SNAPSHOTS_DIR, project.locationHash)
+
+  /**
+   * Replaces a pending save for the same key, the snapshot is written after [SAVE_DELAY].
+   */
+  fun scheduleSave(key: String, documents: Collection<Document>, isTooComplex: Boolean) {
+    if (!isEnabled) return
+
+    val job = coroutineScope.launch(Dispatchers.IO, start = CoroutineStart.LAZY) {
+      delay(SAVE_DELAY)
+      save(key, documents, isTooComplex)
+    }
+    pendingSaves.put(key, job)?.cancel()
+    job.invokeOnCompletion { pendingSaves.remove(key, job) }
+    job.start()
+  }
+
+  internal suspend fun save(key: String, documents: Collection<Document>, isTooComplex: Boolean) {
+    val paths = LinkedHashSet<String>()
+    for (document in documents) {
+      val sourceName = document.sourceLocation?.sourceName
+      if (sourceName == null) {
+        LOG.debug { "Schema snapshot is skipped due to a document without a source file: $key" }
+        return
+      }
+      paths.add(sourceName)
+    }
+    val files = paths.map { path ->
+      findFile(path) ?: run {
+        LOG.debug { "Schema snapshot is skipped due to a missing file: $key, file: $path" }
+        return
+      }
+    }
+    // the documents may be built from unsaved changes which can't be validated against the file content later
+    if (readAction { files.any { FileDocumentManager.getInstance().isFileModified(it) } }) {
+      LOG.debug { "Schema snapshot is skipped due to unsaved files: $key" }
+      return
+    }
+
+    try {
+      val file = getSnapshotFile(key)
+      Files.createDirectories(file.parent)
+      val tempFile = Files.createTempFile(file.parent, file.fileName.toString(), ".tmp")
+      DataOutputStream(Files.newOutputStream(tempFile).buffered()).use { out ->
+        out.writeInt(STORAGE_VERSION)
+        IOUtil.writeUTF(out, key)
+        out.writeBoolean(isTooComplex)
+
+        out.writeInt(files.size)
+        for (virtualFile in files) {
+          IOUtil.writeUTF(out, virtualFile.path)
+          writeBytes(out, computeHash(virtualFile))
+        }
+
+        out.writeInt(documents.size)
+        for (document in documents) {
+          out.writeBoolean(GraphQLPsiDocumentBuilder.isInLibrary(document))
+          val data = GraphQLSchemaDocumentSerializer.write(document)
+          IOUtil.writeUTF(out, document.sourceLocation.sourceName)
+          writeBytes(out, data.toBytes())
+        }
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+      LOG.debug { "Schema snapshot saved: $key (documents=${documents.size})" }
+    }
+    catch (e: IOException) {
+      LOG.warn("Unable to save schema snapshot: $key", e)
+    }
+  }
+
+  /**
+   * Performs blocking IO and hashes the content of all the files of the snapshot.
+   *
+   * @return null if there is no snapshot or it doesn't match the current content of the files
+   */
+  fun load(key: String): Snapshot? {
+    if (!isEnabled) return null
+
+    val file = getSnapshotFile(key)
+    if (!file.exists()) return null
+
+    try {
+      DataInputStream(Files.newInputStream(file).buffered()).use { input ->
+        if (input.readInt() != STORAGE_VERSION || IOUtil.readUTF(input) != key) {
+          return null
+        }
+        val isTooComplex = input.readBoolean()
+
+        val filesCount = input.readInt()
+        repeat(filesCount) {
+          val path = IOUtil.readUTF(input)
+          val hash = readBytes(input)
+          val virtualFile = findFile(path)
+          if (virtualFile == null || !hash.contentEquals(computeHash(virtualFile))) {
+            LOG.debug { "Schema snapshot is outdated: $key, changed file: $path" }
+            return null
+          }
+        }
+
+        val documentsCount = input.readInt()
+        val documents = ArrayList<Document>(documentsCount)
+        repeat(documentsCount) {
+          val isInLibrary = input.readBoolean()
+          val sourceName = IOUtil.readUTF(input)
+          val data = ByteArraySequence(readBytes(input))
+          documents.add(GraphQLSchemaDocumentSerializer.read(data, sourceName, isInLibrary))
+        }
+        return Snapshot(documents, isTooComplex)
+      }
+    }
+    catch (e: IOException) {
+      LOG.warn("Unable to load schema snapshot: $key", e)
+      return null
+    }
+  }
+
+  /**
+   * Deletes the snapshots of the config projects which don't exist anymore, performs blocking IO.
+   *
+   * @param keys keys of all the existing config projects, see [getKey]
+   */
+  fun pruneSnapshots(keys: Collection<String>) {
+    val dir = storageDir
+    if (!dir.exists()) return
+
+    val fileNames = keys.mapTo(HashSet()) { getSnapshotFileName(it) }
+    try {
+      Files.newDirectoryStream(dir).use { stream ->
+        for (file in stream) {
+          // temp files being written are prefixed with the snapshot file name
+          val fileName = file.fileName.toString()
+          if (fileNames.any { fileName.startsWith(it) }) continue
+
+          Files.deleteIfExists(file)
+          LOG.debug { "Stale schema snapshot deleted: $fileName" }
+        }
+      }
+    }
+    catch (e: IOException) {
+      LOG.warn("Unable to delete stale schema snapshots", e)
+    }
+  }
+
+  private fun getSnapshotFile(key: String): Path = storageDir.resolve(getSnapshotFileName(key))
+
+  private fun getSnapshotFileName(key: String): String = StringUtil.toHexString(DigestUtil.sha256().digest(key.toByteArray()))
+
+  private fun computeHash(file: VirtualFile): ByteArray = DigestUtil.sha256().digest(file.contentsToByteArray())
+
+  private fun findFile(path: String): VirtualFile? {
+    val file = if (path.contains(JarFileSystem.JAR_SEPARATOR)) {
+      JarFileSystem.getInstance().findFileByPath(path)
+    }
+    else {
+      LocalFileSystem.getInstance().findFileByPath(path)
+      ?: if (ApplicationManager.getApplication().isUnitTestMode) TempFileSystem.getInstance().findFileByPath(path) else null
+    }
+    return file?.takeIf { it.isValid && !it.isDirectory }
+  }
+
+  private fun writeBytes(out: DataOutputStream, bytes: ByteArray) {
+    out.writeInt(bytes.size)
+    out.write(bytes)
+  }
+
+  private fun readBytes(input: DataInputStream): ByteArray {
+    val bytes = ByteArray(input.readInt())
+    input.readFully(bytes)
+    return bytes
+  }
+}
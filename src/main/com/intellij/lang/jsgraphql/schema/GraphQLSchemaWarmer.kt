@@ -0,0 +1,94 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.lang.jsgraphql.GraphQLFileType
+import com.intellij.lang.jsgraphql.ide.search.GraphQLFileTypesProvider
+import com.intellij.lang.jsgraphql.skipInTests
+import com.intellij.openapi.application.smartReadAction
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.diagnostic.debug
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.fileEditor.FileEditorManagerListener
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiManager
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.launch
+import kotlin.time.Duration.Companion.milliseconds
+
+private const val PREWARM_KEY = "graphql.schema.prewarm"
+
+private const val PREWARM_DELAY_MS = 300
+
+/**
+ * Schedules schema builds for the scopes of the files opened in editors as soon as the schema sources change,
+ * so highlighting and completion rarely have to wait for a build or fall back to a stale schema.
+ * The builds are started without waiting, see [GraphQLSchemaProvider.getSchemaResult].
+ */
+@OptIn(FlowPreview::class)
+@Service(Service.Level.PROJECT)
+class GraphQLSchemaWarmer(private val project: Project, coroutineScope: CoroutineScope) {
+
+  companion object {
+    @JvmStatic
+    fun getInstance(project: Project) = project.service<GraphQLSchemaWarmer>()
+
+    private val LOG = logger<GraphQLSchemaWarmer>()
+  }
+
+  private val prewarmRequests = MutableSharedFlow<Unit>(replay = 1, onBufferOverflow = BufferOverflow.DROP_OLDEST)
+
+  init {
+    skipInTests {
+      val connection = project.messageBus.connect(coroutineScope)
+      connection.subscribe(GraphQLSchemaContentChangeListener.TOPIC, object : GraphQLSchemaContentChangeListener {
+        override fun onSchemaChanged() {
+          requestPrewarm()
+        }
+      })
+      connection.subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, object : FileEditorManagerListener {
+        override fun fileOpened(source: FileEditorManager, file: VirtualFile) {
+          requestPrewarm()
+        }
+      })
+
+      coroutineScope.launch(Dispatchers.Default) {
+        prewarmRequests.debounce(PREWARM_DELAY_MS.milliseconds).collect {
+          prewarmOpenFiles()
+        }
+      }
+      requestPrewarm()
+    }
+  }
+
+  fun requestPrewarm() {
+    if (Registry.`is`(PREWARM_KEY, true)) {
+      prewarmRequests.tryEmit(Unit)
+    }
+  }
+
+  private suspend fun prewarmOpenFiles() {
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    val requests = smartReadAction(project) {
+      val psiManager = PsiManager.getInstance(project)
+      FileEditorManager.getInstance(project).openFiles
+        .filter { it.isValid && (it.fileType == GraphQLFileType.INSTANCE || GraphQLFileTypesProvider.getService().isAcceptedFile(it)) }
+        .mapNotNull { psiManager.findFile(it) }
+        .map { schemaProvider.createSchemaRequest(it) }
+        .distinctBy { it.scope }
+    }
+    if (requests.isEmpty()) return
+
+    LOG.debug { "Schema prewarm requested for ${requests.size} scopes of open files" }
+    for (request in requests) {
+      schemaProvider.getSchemaResult(request, wait = false)
+    }
+  }
+}
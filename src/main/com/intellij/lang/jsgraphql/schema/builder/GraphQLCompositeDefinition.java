@@ -25,8 +25,23 @@ public abstract class GraphQLCompositeDefinition<T extends SDLDefinition<T>> {
     else {
       myDefinitions.add(definition);
     }
+    myMergedDefinition = null;
   }
 
+  /**
+   * Creates a shallow copy which can be modified independently of this instance.
+   * An already merged definition is shared, so unchanged composites are not merged again.
+   */
+  public @NotNull GraphQLCompositeDefinition<T> copy() {
+    GraphQLCompositeDefinition<T> copy = createEmpty();
+    copy.myDefinitions.addAll(myDefinitions);
+    copy.myLibraryDefinitions.addAll(myLibraryDefinitions);
+    copy.myMergedDefinition = myMergedDefinition;
+    return copy;
+  }
+
+  protected abstract @NotNull GraphQLCompositeDefinition<T> createEmpty();
+
   public @NotNull List<T> getSourceDefinitions() {
     return !myDefinitions.isEmpty() ? myDefinitions : myLibraryDefinitions;
   }
@@ -32,11 +32,19 @@ import com.intellij.lang.jsgraphql.types.schema.idl.errors.TypeRedefinitionError
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.util.registry.Registry
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.ensureActive
 
-internal class GraphQLCompositeRegistry {
+internal class GraphQLCompositeRegistry private constructor(
+  private val namedCompositeDefinitions: MutableMap<String, GraphQLCompositeDefinition<*>>,
+  private val schemaCompositeDefinition: GraphQLSchemaTypeCompositeDefinition,
+) {
 
-  private val namedCompositeDefinitions = mutableMapOf<String, GraphQLCompositeDefinition<*>>()
-  private val schemaCompositeDefinition = GraphQLSchemaTypeCompositeDefinition()
+  constructor() : this(mutableMapOf(), GraphQLSchemaTypeCompositeDefinition())
 
   @Throws(GraphQLException::class)
   fun merge(source: TypeDefinitionRegistry) {
@@ -134,6 +142,63 @@ internal class GraphQLCompositeRegistry {
     }
   }
 
+  /**
+   * Creates a registry equal to the one filled by calling [addFromDocument] for each of the [documents] in order,
+   * reusing the composite definitions of this registry which are not affected by the [changedDocuments].
+   *
+   * A composite is affected if any of the changed documents, both removed and added ones, has a definition with its name.
+   * Affected composites are recreated from the definitions of all the current documents in document order,
+   * so the kind of a composite, the order of its source definitions and the redefinition errors are the same as after a full build.
+   * The composites are ordered by the first occurrence of their names, as in a full build.
+   *
+   * @return null if the result can't be reused from this registry and a full build is required
+   */
+  fun patch(documents: Collection<Document>, changedDocuments: Collection<Document>): GraphQLCompositeRegistry? {
+    val affectedNames = HashSet<String>()
+    var isSchemaAffected = false
+    for (document in changedDocuments) {
+      for (definition in document.definitions) {
+        if (definition is SchemaDefinition) {
+          isSchemaAffected = true
+        }
+        else if (definition is SDLDefinition<*>) {
+          (definition as? NamedNode<*>)?.name?.takeIf { it.isNotEmpty() }?.let { affectedNames.add(it) }
+        }
+      }
+    }
+
+    val affected = GraphQLCompositeRegistry()
+    val names = LinkedHashSet<String>()
+    for (document in documents) {
+      for (definition in document.definitions) {
+        if (definition !is SDLDefinition<*>) continue
+        if (definition is SchemaDefinition) {
+          if (isSchemaAffected) affected.addDefinition(definition)
+          continue
+        }
+
+        val name = (definition as? NamedNode<*>)?.name
+        if (name.isNullOrEmpty()) continue
+        names.add(name)
+        if (name in affectedNames) {
+          affected.addDefinition(definition)
+        }
+      }
+    }
+
+    val namedCompositeDefinitionsCopy = LinkedHashMap<String, GraphQLCompositeDefinition<*>>(names.size)
+    for (name in names) {
+      namedCompositeDefinitionsCopy[name] =
+        if (name in affectedNames) affected.namedCompositeDefinitions.getValue(name)
+        else namedCompositeDefinitions[name]?.copy() ?: return null
+    }
+    return GraphQLCompositeRegistry(
+      namedCompositeDefinitionsCopy,
+      if (isSchemaAffected) affected.schemaCompositeDefinition
+      else schemaCompositeDefinition.copy() as GraphQLSchemaTypeCompositeDefinition
+    )
+  }
+
   fun build(): TypeDefinitionRegistry {
     val registry = TypeDefinitionRegistry()
 
@@ -209,9 +274,96 @@ internal class GraphQLCompositeRegistry {
     return errors
   }
 
+  /**
+   * A part of the registry containing all the definitions whose names fall into the same bucket.
+   * Remembers the position of the first definition for each name to restore the serial order of composites.
+   */
+  private class Shard {
+    val registry = GraphQLCompositeRegistry()
+    val firstOccurrences = HashMap<String, Int>()
+
+    fun add(index: Int, name: String, definition: SDLDefinition<*>) {
+      firstOccurrences.putIfAbsent(name, index)
+      registry.addDefinition(definition)
+    }
+
+    fun mergeDefinitions() {
+      registry.namedCompositeDefinitions.values.forEach { it.buildDefinition() }
+    }
+  }
+
   companion object {
     private val LOG: Logger = logger<GraphQLCompositeRegistry>()
 
+    private const val PARALLEL_BUILD_KEY = "graphql.schema.build.parallel"
+
+    /**
+     * Below this number of definitions per shard the coordination overhead outweighs the gain.
+     */
+    private const val MIN_DEFINITIONS_PER_SHARD = 500
+
+    /**
+     * Creates a registry equal to the one filled by calling [addFromDocument] for each document in order.
+     *
+     * Named definitions are distributed between shards by name, so all the definitions for the same type end up
+     * in a single shard in their original order. Shards are filled and their composite definitions are merged concurrently.
+     * The composites are then ordered by the first occurrence of their names,
+     * so both the resulting registry and the order of redefinition errors are identical to the serial build.
+     *
+     * @param forcedShardsCount the number of shards to use instead of the one chosen by the number of definitions and processors
+     */
+    suspend fun fromDocuments(documents: Collection<Document>, forcedShardsCount: Int? = null): GraphQLCompositeRegistry {
+      val definitions = documents.flatMap { document -> document.definitions.filterIsInstance<SDLDefinition<*>>() }
+      val shardsCount = forcedShardsCount
+                        ?: minOf(Runtime.getRuntime().availableProcessors(), definitions.size / MIN_DEFINITIONS_PER_SHARD)
+      if (shardsCount <= 1 || !Registry.`is`(PARALLEL_BUILD_KEY, true)) {
+        return GraphQLCompositeRegistry().apply { documents.forEach { addFromDocument(it) } }
+      }
+
+      val registry = GraphQLCompositeRegistry()
+      val shardDefinitions = Array(shardsCount) { ArrayList<IndexedValue<SDLDefinition<*>>>() }
+      definitions.forEachIndexed { index, definition ->
+        if (definition is SchemaDefinition) {
+          registry.addDefinition(definition)
+          return@forEachIndexed
+        }
+        val name = (definition as? NamedNode<*>)?.name
+        if (!name.isNullOrEmpty()) {
+          shardDefinitions[Math.floorMod(name.hashCode(), shardsCount)].add(IndexedValue(index, definition))
+        }
+      }
+
+      val shards = coroutineScope {
+        shardDefinitions.map { indexedDefinitions ->
+          async(Dispatchers.Default) {
+            val shard = Shard()
+            for ((index, definition) in indexedDefinitions) {
+              ensureActive()
+              shard.add(index, (definition as NamedNode<*>).name, definition)
+            }
+            shard.mergeDefinitions()
+            shard
+          }
+        }.awaitAll()
+      }
+
+      shards
+        .flatMap { shard -> shard.registry.namedCompositeDefinitions.entries.map { shard.firstOccurrences.getValue(it.key) to it } }
+        .sortedBy { it.first }
+        .forEach { (_, entry) -> registry.namedCompositeDefinitions[entry.key] = entry.value }
+      return registry
+    }
+
+    /**
+     * Schema and directive definitions affect the whole schema,
+     * so documents containing them can't be patched into an existing registry.
+     */
+    fun hasStructuralDefinitions(document: Document): Boolean {
+      return document.definitions.any {
+        it is SchemaDefinition || it is DirectiveDefinition
+      }
+    }
+
     private fun createCompositeDefinition(definition: SDLDefinition<*>): GraphQLCompositeDefinition<*> {
       return when (definition) {
         is InputObjectTypeDefinition -> GraphQLInputObjectTypeCompositeDefinition()
@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.EnumValueDefinition
 class GraphQLEnumTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<EnumTypeDefinition, EnumTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLEnumTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<EnumTypeDefinition>): EnumTypeDefinition {
     val directives = mutableListOf<Directive>()
     val enumValueDefinitions = mutableMapOf<String, EnumValueDefinition>()
@@ -19,4 +19,12 @@ public abstract class GraphQLExtendableCompositeDefinition<T extends SDLDefiniti
   public @NotNull List<E> getSourceExtensions() {
     return myExtensions;
   }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public @NotNull GraphQLCompositeDefinition<T> copy() {
+    GraphQLExtendableCompositeDefinition<T, E> copy = (GraphQLExtendableCompositeDefinition<T, E>)super.copy();
+    copy.myExtensions.addAll(myExtensions);
+    return copy;
+  }
 }
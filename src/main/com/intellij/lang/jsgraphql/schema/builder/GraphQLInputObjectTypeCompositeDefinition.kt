@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.InputValueDefinition
 class GraphQLInputObjectTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<InputObjectTypeDefinition, InputObjectTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLInputObjectTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<InputObjectTypeDefinition>): InputObjectTypeDefinition {
     val directives = mutableListOf<Directive>()
     val inputValueDefinitions = mutableMapOf<String, InputValueDefinition>()
@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.InterfaceTypeExtensionDefiniti
 class GraphQLInterfaceTypeCompositeDefinition :
   GraphQLExtendableCompositeDefinition<InterfaceTypeDefinition, InterfaceTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLInterfaceTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<InterfaceTypeDefinition>): InterfaceTypeDefinition {
     val directives = mutableListOf<Directive>()
     val fieldDefinitions = mutableMapOf<String, FieldDefinition>()
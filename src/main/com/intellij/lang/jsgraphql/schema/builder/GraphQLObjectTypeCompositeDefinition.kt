@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.ObjectTypeExtensionDefinition
 class GraphQLObjectTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<ObjectTypeDefinition, ObjectTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLObjectTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<ObjectTypeDefinition>): ObjectTypeDefinition {
     val directives = mutableListOf<Directive>()
     val fieldDefinitions = mutableMapOf<String, FieldDefinition>()
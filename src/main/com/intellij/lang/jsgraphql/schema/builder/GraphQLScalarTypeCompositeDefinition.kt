@@ -7,6 +7,8 @@ import com.intellij.lang.jsgraphql.types.language.ScalarTypeExtensionDefinition
 class GraphQLScalarTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<ScalarTypeDefinition, ScalarTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLScalarTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<ScalarTypeDefinition>): ScalarTypeDefinition {
     val directives = mutableListOf<Directive>()
 
@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.SchemaExtensionDefinition
 class GraphQLSchemaTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<SchemaDefinition, SchemaExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLSchemaTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<SchemaDefinition>): SchemaDefinition {
     val directives = mutableListOf<Directive>()
     val operationTypeDefinitions = mutableMapOf<String, OperationTypeDefinition>()
@@ -8,6 +8,8 @@ import com.intellij.lang.jsgraphql.types.language.UnionTypeExtensionDefinition
 class GraphQLUnionTypeCompositeDefinition
   : GraphQLExtendableCompositeDefinition<UnionTypeDefinition, UnionTypeExtensionDefinition>() {
 
+  override fun createEmpty() = GraphQLUnionTypeCompositeDefinition()
+
   override fun mergeDefinitions(sourceDefinitions: List<UnionTypeDefinition>): UnionTypeDefinition {
     val directives = mutableListOf<Directive>()
     val memberTypes = mutableMapOf<String, Type<*>>()
@@ -110,29 +110,49 @@ public final class DirectivesUtil {
   }
 
   /**
-   * A holder class that breaks a list of directives into maps to be more easily accessible in using classes
+   * A holder class that breaks a list of directives into maps to be more easily accessible in using classes.
+   * <p>
+   * The maps are only built on the first access, and elements without directives share a single empty holder, see {@link #create}.
    */
   public static class DirectivesHolder {
+    private static final DirectivesHolder EMPTY = new DirectivesHolder(ImmutableList.of());
 
-    private final ImmutableMap<String, List<GraphQLDirective>> allDirectivesByName;
-    private final ImmutableMap<String, GraphQLDirective> nonRepeatableDirectivesByName;
-    private final List<GraphQLDirective> allDirectives;
+    private final ImmutableList<GraphQLDirective> allDirectives;
+    private volatile ImmutableMap<String, List<GraphQLDirective>> allDirectivesByName;
+    private volatile ImmutableMap<String, GraphQLDirective> nonRepeatableDirectivesByName;
+
+    public static DirectivesHolder create(Collection<GraphQLDirective> allDirectives) {
+      return allDirectives.isEmpty() ? EMPTY : new DirectivesHolder(allDirectives);
+    }
 
     public DirectivesHolder(Collection<GraphQLDirective> allDirectives) {
       this.allDirectives = ImmutableList.copyOf(allDirectives);
-      this.allDirectivesByName = ImmutableMap.copyOf(FpKit.groupingBy(allDirectives, GraphQLDirective::getName));
-      // filter out the repeatable directives
-      List<GraphQLDirective> nonRepeatableDirectives = allDirectives.stream()
-        .filter(d -> !d.isRepeatable()).collect(Collectors.toList());
-      this.nonRepeatableDirectivesByName = ImmutableMap.copyOf(FpKit.getByName(nonRepeatableDirectives, GraphQLDirective::getName));
+      if (this.allDirectives.isEmpty()) {
+        // the empty holder is shared, so its maps are never built lazily
+        allDirectivesByName = ImmutableMap.of();
+        nonRepeatableDirectivesByName = ImmutableMap.of();
+      }
     }
 
     public ImmutableMap<String, List<GraphQLDirective>> getAllDirectivesByName() {
-      return allDirectivesByName;
+      ImmutableMap<String, List<GraphQLDirective>> result = allDirectivesByName;
+      if (result == null) {
+        result = ImmutableMap.copyOf(FpKit.groupingBy(allDirectives, GraphQLDirective::getName));
+        allDirectivesByName = result;
+      }
+      return result;
     }
 
     public ImmutableMap<String, GraphQLDirective> getDirectivesByName() {
-      return nonRepeatableDirectivesByName;
+      ImmutableMap<String, GraphQLDirective> result = nonRepeatableDirectivesByName;
+      if (result == null) {
+        // filter out the repeatable directives
+        List<GraphQLDirective> nonRepeatableDirectives = allDirectives.stream()
+          .filter(d -> !d.isRepeatable()).collect(Collectors.toList());
+        result = ImmutableMap.copyOf(FpKit.getByName(nonRepeatableDirectives, GraphQLDirective::getName));
+        nonRepeatableDirectivesByName = result;
+      }
+      return result;
     }
 
     public List<GraphQLDirective> getDirectives() {
@@ -140,7 +160,7 @@ public final class DirectivesUtil {
     }
 
     public GraphQLDirective getDirective(String directiveName) {
-      List<GraphQLDirective> directiveList = allDirectivesByName.get(directiveName);
+      List<GraphQLDirective> directiveList = getAllDirectivesByName().get(directiveName);
       if (directiveList == null || directiveList.isEmpty()) {
         return null;
       }
@@ -151,7 +171,7 @@ public final class DirectivesUtil {
     }
 
     public List<GraphQLDirective> getDirectives(String directiveName) {
-      return allDirectivesByName.getOrDefault(directiveName, emptyList());
+      return getAllDirectivesByName().getOrDefault(directiveName, emptyList());
     }
   }
 
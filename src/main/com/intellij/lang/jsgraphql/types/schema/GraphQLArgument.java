@@ -88,7 +88,7 @@ public class GraphQLArgument implements GraphQLNamedSchemaElement, GraphQLInputV
     this.defaultValue = defaultValue;
     this.value = value;
     this.definition = definition;
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
   }
 
 
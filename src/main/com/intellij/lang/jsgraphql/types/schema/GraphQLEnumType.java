@@ -80,7 +80,7 @@ public class GraphQLEnumType
     this.description = description;
     this.definition = definition;
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
     this.valueDefinitionMap = buildMap(values);
   }
 
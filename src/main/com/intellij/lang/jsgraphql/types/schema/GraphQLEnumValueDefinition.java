@@ -65,7 +65,7 @@ public class GraphQLEnumValueDefinition implements GraphQLNamedSchemaElement, Gr
     this.description = description;
     this.value = value;
     this.deprecationReason = deprecationReason;
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
     this.definition = definition;
   }
 
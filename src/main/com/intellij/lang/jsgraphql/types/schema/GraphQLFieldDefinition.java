@@ -67,7 +67,7 @@ public class GraphQLFieldDefinition implements GraphQLNamedSchemaElement, GraphQ
     this.description = description;
     this.originalType = type;
     this.arguments = ImmutableList.copyOf(arguments);
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
     this.deprecationReason = deprecationReason;
     this.definition = definition;
   }
@@ -72,7 +72,7 @@ public class GraphQLInputObjectField implements GraphQLNamedSchemaElement, Graph
     this.defaultValue = defaultValue;
     this.description = description;
     this.deprecationReason = deprecationReason;
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
     this.definition = definition;
   }
 
@@ -18,12 +18,10 @@
 package com.intellij.lang.jsgraphql.types.schema;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.intellij.lang.jsgraphql.types.DirectivesUtil;
 import com.intellij.lang.jsgraphql.types.PublicApi;
 import com.intellij.lang.jsgraphql.types.language.InputObjectTypeDefinition;
 import com.intellij.lang.jsgraphql.types.language.InputObjectTypeExtensionDefinition;
-import com.intellij.lang.jsgraphql.types.util.FpKit;
 import com.intellij.lang.jsgraphql.types.util.TraversalControl;
 import com.intellij.lang.jsgraphql.types.util.TraverserContext;
 
@@ -35,7 +33,6 @@ import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 import static com.intellij.lang.jsgraphql.types.Assert.assertNotNull;
-import static com.intellij.lang.jsgraphql.types.Assert.assertShouldNeverHappen;
 import static com.intellij.lang.jsgraphql.types.Assert.assertValidName;
 import static com.intellij.lang.jsgraphql.types.util.FpKit.getByName;
 import static java.util.Collections.emptyList;
@@ -52,7 +49,7 @@ public class GraphQLInputObjectType
 
   private final String name;
   private final String description;
-  private final ImmutableMap<String, GraphQLInputObjectField> fieldMap;
+  private final SchemaElementsByName<GraphQLInputObjectField> fields;
   private final InputObjectTypeDefinition definition;
   private final ImmutableList<InputObjectTypeExtensionDefinition> extensionDefinitions;
   private final DirectivesUtil.DirectivesHolder directives;
@@ -74,14 +71,8 @@ public class GraphQLInputObjectType
     this.description = description;
     this.definition = definition;
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
-    this.fieldMap = buildDefinitionMap(fields);
-  }
-
-  private ImmutableMap<String, GraphQLInputObjectField> buildDefinitionMap(List<GraphQLInputObjectField> fieldDefinitions) {
-    return ImmutableMap.copyOf(FpKit.getByName(fieldDefinitions, GraphQLInputObjectField::getName,
-                                               (fld1, fld2) -> assertShouldNeverHappen("Duplicated definition for field '%s' in type '%s'",
-                                                                                       fld1.getName(), this.name)));
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
+    this.fields = new SchemaElementsByName<>(fields, "Duplicated definition for field '%s' in type '%s'", name);
   }
 
   @Override
@@ -99,7 +90,7 @@ public class GraphQLInputObjectType
   }
 
   public GraphQLInputObjectField getField(String name) {
-    return fieldMap.get(name);
+    return fields.get(name);
   }
 
   @Override
@@ -124,12 +115,12 @@ public class GraphQLInputObjectType
 
   @Override
   public GraphQLInputObjectField getFieldDefinition(String name) {
-    return fieldMap.get(name);
+    return fields.get(name);
   }
 
   @Override
   public List<GraphQLInputObjectField> getFieldDefinitions() {
-    return ImmutableList.copyOf(fieldMap.values());
+    return fields.getElements();
   }
 
   @Override
@@ -161,7 +152,7 @@ public class GraphQLInputObjectType
 
   @Override
   public List<GraphQLSchemaElement> getChildren() {
-    List<GraphQLSchemaElement> children = new ArrayList<>(fieldMap.values());
+    List<GraphQLSchemaElement> children = new ArrayList<>(fields.getElements());
     children.addAll(directives.getDirectives());
     return children;
   }
@@ -169,7 +160,7 @@ public class GraphQLInputObjectType
   @Override
   public SchemaElementChildrenContainer getChildrenWithTypeReferences() {
     return SchemaElementChildrenContainer.newSchemaElementChildrenContainer()
-      .children(CHILD_FIELD_DEFINITIONS, fieldMap.values())
+      .children(CHILD_FIELD_DEFINITIONS, fields.getElements())
       .children(CHILD_DIRECTIVES, directives.getDirectives())
       .build();
   }
@@ -204,7 +195,7 @@ public class GraphQLInputObjectType
     return "GraphQLInputObjectType{" +
            "name='" + name + '\'' +
            ", description='" + description + '\'' +
-           ", fieldMap=" + fieldMap +
+           ", fields=" + fields.getElements() +
            ", definition=" + definition +
            ", directives=" + directives +
            '}';
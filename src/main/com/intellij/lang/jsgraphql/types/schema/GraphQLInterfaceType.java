@@ -18,7 +18,6 @@
 package com.intellij.lang.jsgraphql.types.schema;
 
 import com.google.common.collect.ImmutableList;
-import com.intellij.lang.jsgraphql.types.AssertException;
 import com.intellij.lang.jsgraphql.types.DirectivesUtil;
 import com.intellij.lang.jsgraphql.types.PublicApi;
 import com.intellij.lang.jsgraphql.types.language.InterfaceTypeDefinition;
@@ -39,7 +38,6 @@ import static com.intellij.lang.jsgraphql.types.Assert.assertValidName;
 import static com.intellij.lang.jsgraphql.types.schema.GraphqlTypeComparators.sortTypes;
 import static com.intellij.lang.jsgraphql.types.util.FpKit.getByName;
 import static com.intellij.lang.jsgraphql.types.util.FpKit.valuesToList;
-import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 
 /**
@@ -58,7 +56,7 @@ public class GraphQLInterfaceType
 
   private final String name;
   private final String description;
-  private final Map<String, GraphQLFieldDefinition> fieldDefinitionsByName = new LinkedHashMap<>();
+  private final SchemaElementsByName<GraphQLFieldDefinition> fieldDefinitions;
   private final TypeResolver typeResolver;
   private final InterfaceTypeDefinition definition;
   private final ImmutableList<InterfaceTypeExtensionDefinition> extensionDefinitions;
@@ -93,29 +91,20 @@ public class GraphQLInterfaceType
     this.interfaceComparator = interfaceComparator;
     this.originalInterfaces = ImmutableList.copyOf(sortTypes(interfaceComparator, interfaces));
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
-    buildDefinitionMap(fieldDefinitions);
-  }
-
-  private void buildDefinitionMap(List<GraphQLFieldDefinition> fieldDefinitions) {
-    for (GraphQLFieldDefinition fieldDefinition : fieldDefinitions) {
-      String name = fieldDefinition.getName();
-      if (fieldDefinitionsByName.containsKey(name)) {
-        throw new AssertException(format("Duplicated definition for field '%s' in interface '%s'", name, this.name));
-      }
-      fieldDefinitionsByName.put(name, fieldDefinition);
-    }
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
+    this.fieldDefinitions =
+      new SchemaElementsByName<>(fieldDefinitions, "Duplicated definition for field '%s' in interface '%s'", name);
   }
 
   @Override
   public GraphQLFieldDefinition getFieldDefinition(String name) {
-    return fieldDefinitionsByName.get(name);
+    return fieldDefinitions.get(name);
   }
 
 
   @Override
   public List<GraphQLFieldDefinition> getFieldDefinitions() {
-    return ImmutableList.copyOf(fieldDefinitionsByName.values());
+    return fieldDefinitions.getElements();
   }
 
   @Override
@@ -167,7 +156,7 @@ public class GraphQLInterfaceType
     return "GraphQLInterfaceType{" +
            "name='" + name + '\'' +
            ", description='" + description + '\'' +
-           ", fieldDefinitionsByName=" + fieldDefinitionsByName.keySet() +
+           ", fieldDefinitionsByName=" + fieldDefinitions.getNames() +
            ", typeResolver=" + typeResolver +
            '}';
   }
@@ -192,7 +181,7 @@ public class GraphQLInterfaceType
 
   @Override
   public List<GraphQLSchemaElement> getChildren() {
-    List<GraphQLSchemaElement> children = new ArrayList<>(fieldDefinitionsByName.values());
+    List<GraphQLSchemaElement> children = new ArrayList<>(fieldDefinitions.getElements());
     children.addAll(directives.getDirectives());
     children.addAll(getInterfaces());
     return children;
@@ -201,7 +190,7 @@ public class GraphQLInterfaceType
   @Override
   public SchemaElementChildrenContainer getChildrenWithTypeReferences() {
     return SchemaElementChildrenContainer.newSchemaElementChildrenContainer()
-      .children(CHILD_FIELD_DEFINITIONS, fieldDefinitionsByName.values())
+      .children(CHILD_FIELD_DEFINITIONS, fieldDefinitions.getElements())
       .children(CHILD_DIRECTIVES, directives.getDirectives())
       .children(CHILD_INTERFACES, originalInterfaces)
       .build();
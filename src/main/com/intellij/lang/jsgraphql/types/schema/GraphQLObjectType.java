@@ -18,13 +18,11 @@
 package com.intellij.lang.jsgraphql.types.schema;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.intellij.lang.jsgraphql.types.Assert;
 import com.intellij.lang.jsgraphql.types.DirectivesUtil;
 import com.intellij.lang.jsgraphql.types.PublicApi;
 import com.intellij.lang.jsgraphql.types.language.ObjectTypeDefinition;
 import com.intellij.lang.jsgraphql.types.language.ObjectTypeExtensionDefinition;
-import com.intellij.lang.jsgraphql.types.util.FpKit;
 import com.intellij.lang.jsgraphql.types.util.TraversalControl;
 import com.intellij.lang.jsgraphql.types.util.TraverserContext;
 
@@ -37,7 +35,6 @@ import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 import static com.intellij.lang.jsgraphql.types.Assert.assertNotNull;
-import static com.intellij.lang.jsgraphql.types.Assert.assertShouldNeverHappen;
 import static com.intellij.lang.jsgraphql.types.Assert.assertValidName;
 import static com.intellij.lang.jsgraphql.types.schema.GraphqlTypeComparators.sortTypes;
 import static com.intellij.lang.jsgraphql.types.util.FpKit.getByName;
@@ -62,7 +59,7 @@ public class GraphQLObjectType
   private final String name;
   private final String description;
   private final Comparator<? super GraphQLSchemaElement> interfaceComparator;
-  private final ImmutableMap<String, GraphQLFieldDefinition> fieldDefinitionsByName;
+  private final SchemaElementsByName<GraphQLFieldDefinition> fieldDefinitions;
   private final ImmutableList<GraphQLNamedOutputType> originalInterfaces;
   private final DirectivesUtil.DirectivesHolder directives;
   private final ObjectTypeDefinition definition;
@@ -92,20 +89,15 @@ public class GraphQLObjectType
     this.originalInterfaces = ImmutableList.copyOf(sortTypes(interfaceComparator, interfaces));
     this.definition = definition;
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
-    this.directives = new DirectivesUtil.DirectivesHolder(assertNotNull(directives));
-    this.fieldDefinitionsByName = buildDefinitionMap(fieldDefinitions);
+    this.directives = DirectivesUtil.DirectivesHolder.create(assertNotNull(directives));
+    this.fieldDefinitions =
+      new SchemaElementsByName<>(fieldDefinitions, "Duplicated definition for field '%s' in type '%s'", name);
   }
 
   void replaceInterfaces(List<GraphQLNamedOutputType> interfaces) {
     this.replacedInterfaces = ImmutableList.copyOf(sortTypes(interfaceComparator, interfaces));
   }
 
-  private ImmutableMap<String, GraphQLFieldDefinition> buildDefinitionMap(List<GraphQLFieldDefinition> fieldDefinitions) {
-    return ImmutableMap.copyOf(FpKit.getByName(fieldDefinitions, GraphQLFieldDefinition::getName,
-                                               (fld1, fld2) -> assertShouldNeverHappen("Duplicated definition for field '%s' in type '%s'",
-                                                                                       fld1.getName(), this.name)));
-  }
-
   @Override
   public List<GraphQLDirective> getDirectives() {
     return directives.getDirectives();
@@ -128,12 +120,12 @@ public class GraphQLObjectType
 
   @Override
   public GraphQLFieldDefinition getFieldDefinition(String name) {
-    return fieldDefinitionsByName.get(name);
+    return fieldDefinitions.get(name);
   }
 
   @Override
   public List<GraphQLFieldDefinition> getFieldDefinitions() {
-    return ImmutableList.copyOf(fieldDefinitionsByName.values());
+    return fieldDefinitions.getElements();
   }
 
 
@@ -170,7 +162,7 @@ public class GraphQLObjectType
     return "GraphQLObjectType{" +
            "name='" + name + '\'' +
            ", description='" + description + '\'' +
-           ", fieldDefinitionsByName=" + fieldDefinitionsByName.keySet() +
+           ", fieldDefinitionsByName=" + fieldDefinitions.getNames() +
            ", interfaces=" + getInterfaces() +
            '}';
   }
@@ -195,7 +187,7 @@ public class GraphQLObjectType
 
   @Override
   public List<GraphQLSchemaElement> getChildren() {
-    List<GraphQLSchemaElement> children = new ArrayList<>(fieldDefinitionsByName.values());
+    List<GraphQLSchemaElement> children = new ArrayList<>(fieldDefinitions.getElements());
     children.addAll(getInterfaces());
     children.addAll(directives.getDirectives());
     return children;
@@ -204,7 +196,7 @@ public class GraphQLObjectType
   @Override
   public SchemaElementChildrenContainer getChildrenWithTypeReferences() {
     return SchemaElementChildrenContainer.newSchemaElementChildrenContainer()
-      .children(CHILD_FIELD_DEFINITIONS, fieldDefinitionsByName.values())
+      .children(CHILD_FIELD_DEFINITIONS, fieldDefinitions.getElements())
       .children(CHILD_DIRECTIVES, directives.getDirectives())
       .children(CHILD_INTERFACES, originalInterfaces)
       .build();
@@ -102,7 +102,7 @@ public class GraphQLScalarType
     this.description = description;
     this.coercing = coercing;
     this.definition = definition;
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
     this.specifiedByUrl = specifiedByUrl;
   }
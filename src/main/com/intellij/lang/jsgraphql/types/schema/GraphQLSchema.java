@@ -86,8 +86,8 @@ public class GraphQLSchema {
     this.mutationType = builder.mutationType;
     this.subscriptionType = builder.subscriptionType;
     this.additionalTypes = ImmutableSet.copyOf(builder.additionalTypes);
-    this.directives = new DirectivesUtil.DirectivesHolder(builder.additionalDirectives);
-    this.schemaDirectives = new DirectivesUtil.DirectivesHolder(builder.schemaDirectives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(builder.additionalDirectives);
+    this.schemaDirectives = DirectivesUtil.DirectivesHolder.create(builder.schemaDirectives);
     this.definition = builder.definition;
     this.extensionDefinitions = nonNullCopyOf(builder.extensionDefinitions);
     // sorted by type name
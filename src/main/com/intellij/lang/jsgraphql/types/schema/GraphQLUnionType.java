@@ -84,7 +84,7 @@ public class GraphQLUnionType
     this.typeResolver = typeResolver;
     this.definition = definition;
     this.extensionDefinitions = ImmutableList.copyOf(extensionDefinitions);
-    this.directives = new DirectivesUtil.DirectivesHolder(directives);
+    this.directives = DirectivesUtil.DirectivesHolder.create(directives);
   }
 
   void replaceTypes(List<GraphQLNamedOutputType> types) {
@@ -0,0 +1,92 @@
+/*
+    The MIT License (MIT)
+
+    Copyright (c) 2015 Andreas Marek and Contributors
+
+    Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files
+    (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge,
+    publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+    so, subject to the following conditions:
+
+    The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+    THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+    OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+    LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+    CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.intellij.lang.jsgraphql.types.schema;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.intellij.lang.jsgraphql.types.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.intellij.lang.jsgraphql.types.Assert.assertShouldNeverHappen;
+
+/**
+ * Keeps the fields of a type in a single immutable list instead of a map and a list copied on each access.
+ * Most types have just a few fields, so they are looked up linearly,
+ * a map is built only for the larger ones and only when a field is looked up by name.
+ */
+@Internal
+final class SchemaElementsByName<T extends GraphQLNamedSchemaElement> {
+  private static final int MAP_THRESHOLD = 8;
+
+  private final ImmutableList<T> elements;
+  private volatile ImmutableMap<String, T> elementsByName;
+
+  /**
+   * @param duplicateMessageFormat a message with the element name and the owner name arguments used if the names aren't unique
+   */
+  SchemaElementsByName(@NotNull Collection<? extends T> elements,
+                       @NotNull String duplicateMessageFormat,
+                       @NotNull String ownerName) {
+    this.elements = ImmutableList.copyOf(elements);
+
+    if (this.elements.size() > 1) {
+      Set<String> names = new HashSet<>();
+      for (T element : this.elements) {
+        if (!names.add(element.getName())) {
+          assertShouldNeverHappen(duplicateMessageFormat, element.getName(), ownerName);
+        }
+      }
+    }
+  }
+
+  @NotNull List<T> getElements() {
+    return elements;
+  }
+
+  @Nullable T get(String name) {
+    if (elements.size() <= MAP_THRESHOLD) {
+      for (T element : elements) {
+        if (element.getName().equals(name)) {
+          return element;
+        }
+      }
+      return null;
+    }
+
+    ImmutableMap<String, T> map = elementsByName;
+    if (map == null) {
+      ImmutableMap.Builder<String, T> builder = ImmutableMap.builderWithExpectedSize(elements.size());
+      for (T element : elements) {
+        builder.put(element.getName(), element);
+      }
+      map = builder.build();
+      elementsByName = map;
+    }
+    return map.get(name);
+  }
+
+  @NotNull List<String> getNames() {
+    return elements.stream().map(GraphQLNamedSchemaElement::getName).collect(ImmutableList.toImmutableList());
+  }
+}
@@ -0,0 +1,243 @@
+package com.intellij.lang.jsgraphql.types.validation;
+
+import com.intellij.lang.jsgraphql.types.Internal;
+import com.intellij.lang.jsgraphql.types.language.Argument;
+import com.intellij.lang.jsgraphql.types.language.Directive;
+import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.Field;
+import com.intellij.lang.jsgraphql.types.language.FragmentDefinition;
+import com.intellij.lang.jsgraphql.types.language.FragmentSpread;
+import com.intellij.lang.jsgraphql.types.language.InlineFragment;
+import com.intellij.lang.jsgraphql.types.language.Node;
+import com.intellij.lang.jsgraphql.types.language.OperationDefinition;
+import com.intellij.lang.jsgraphql.types.language.SelectionSet;
+import com.intellij.lang.jsgraphql.types.language.TypeName;
+import com.intellij.lang.jsgraphql.types.language.VariableDefinition;
+import com.intellij.lang.jsgraphql.types.language.VariableReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Has the same semantics as {@link RulesVisitor}, but only dispatches a node to the rules which override the corresponding callback.
+ * The rules are grouped per callback once, so visiting a node doesn't allocate anything.
+ * <p>
+ * Like in {@link RulesVisitor}, the rules visiting fragment spreads are skipped inside fragment definitions
+ * and are run on a fragment from every spread instead.
+ */
+@Internal
+public class FusedRulesVisitor implements DocumentVisitor {
+
+  private static final int CHECK_DOCUMENT = 0;
+  private static final int CHECK_ARGUMENT = 1;
+  private static final int CHECK_TYPE_NAME = 2;
+  private static final int CHECK_VARIABLE_DEFINITION = 3;
+  private static final int CHECK_FIELD = 4;
+  private static final int CHECK_INLINE_FRAGMENT = 5;
+  private static final int CHECK_DIRECTIVE = 6;
+  private static final int CHECK_FRAGMENT_SPREAD = 7;
+  private static final int CHECK_FRAGMENT_DEFINITION = 8;
+  private static final int CHECK_OPERATION_DEFINITION = 9;
+  private static final int CHECK_SELECTION_SET = 10;
+  private static final int CHECK_VARIABLE = 11;
+  private static final int LEAVE_OPERATION_DEFINITION = 12;
+  private static final int LEAVE_SELECTION_SET = 13;
+  private static final int DOCUMENT_FINISHED = 14;
+  private static final int CALLBACKS_COUNT = 15;
+
+  private static final ClassValue<boolean[]> OVERRIDDEN_CALLBACKS = new ClassValue<>() {
+    @Override
+    protected boolean[] computeValue(Class<?> type) {
+      boolean[] result = new boolean[CALLBACKS_COUNT];
+      result[CHECK_DOCUMENT] = isOverridden(type, "checkDocument", Document.class);
+      result[CHECK_ARGUMENT] = isOverridden(type, "checkArgument", Argument.class);
+      result[CHECK_TYPE_NAME] = isOverridden(type, "checkTypeName", TypeName.class);
+      result[CHECK_VARIABLE_DEFINITION] = isOverridden(type, "checkVariableDefinition", VariableDefinition.class);
+      result[CHECK_FIELD] = isOverridden(type, "checkField", Field.class);
+      result[CHECK_INLINE_FRAGMENT] = isOverridden(type, "checkInlineFragment", InlineFragment.class);
+      result[CHECK_DIRECTIVE] = isOverridden(type, "checkDirective", Directive.class, List.class);
+      result[CHECK_FRAGMENT_SPREAD] = isOverridden(type, "checkFragmentSpread", FragmentSpread.class);
+      result[CHECK_FRAGMENT_DEFINITION] = isOverridden(type, "checkFragmentDefinition", FragmentDefinition.class);
+      result[CHECK_OPERATION_DEFINITION] = isOverridden(type, "checkOperationDefinition", OperationDefinition.class);
+      result[CHECK_SELECTION_SET] = isOverridden(type, "checkSelectionSet", SelectionSet.class);
+      result[CHECK_VARIABLE] = isOverridden(type, "checkVariable", VariableReference.class);
+      result[LEAVE_OPERATION_DEFINITION] = isOverridden(type, "leaveOperationDefinition", OperationDefinition.class);
+      result[LEAVE_SELECTION_SET] = isOverridden(type, "leaveSelectionSet", SelectionSet.class);
+      result[DOCUMENT_FINISHED] = isOverridden(type, "documentFinished", Document.class);
+      return result;
+    }
+  };
+
+  private final ValidationContext validationContext;
+  private final boolean subVisitor;
+
+  private final AbstractRule[][] rules;
+  /**
+   * Same as {@link #rules}, but without the rules visiting fragment spreads.
+   */
+  private final AbstractRule[][] rulesInFragmentDefinition;
+  private final @Nullable FusedRulesVisitor fragmentSpreadsVisitor;
+
+  private @Nullable FragmentDefinition currentFragmentDefinition;
+
+  public FusedRulesVisitor(@NotNull ValidationContext validationContext, @NotNull List<AbstractRule> rules) {
+    this(validationContext, rules, false);
+  }
+
+  private FusedRulesVisitor(@NotNull ValidationContext validationContext, @NotNull List<AbstractRule> rules, boolean subVisitor) {
+    this.validationContext = validationContext;
+    this.subVisitor = subVisitor;
+
+    List<AbstractRule> rulesVisitingFragmentSpreads = new ArrayList<>();
+    List<AbstractRule> otherRules = new ArrayList<>();
+    for (AbstractRule rule : rules) {
+      (rule.isVisitFragmentSpreads() ? rulesVisitingFragmentSpreads : otherRules).add(rule);
+    }
+
+    this.rules = groupByCallback(rules);
+    this.rulesInFragmentDefinition = subVisitor ? this.rules : groupByCallback(otherRules);
+
+    if (rulesVisitingFragmentSpreads.isEmpty()) {
+      fragmentSpreadsVisitor = null;
+    }
+    else if (subVisitor) {
+      fragmentSpreadsVisitor = this;
+    }
+    else {
+      fragmentSpreadsVisitor = new FusedRulesVisitor(validationContext, rulesVisitingFragmentSpreads, true);
+    }
+  }
+
+  @Override
+  public void enter(Node node, List<Node> ancestors) {
+    validationContext.getTraversalContext().enter(node, ancestors);
+
+    if (node instanceof FragmentDefinition && !subVisitor) {
+      currentFragmentDefinition = (FragmentDefinition)node;
+    }
+    AbstractRule[][] rules = currentFragmentDefinition != null ? rulesInFragmentDefinition : this.rules;
+
+    if (node instanceof Document) {
+      for (AbstractRule rule : rules[CHECK_DOCUMENT]) {
+        rule.checkDocument((Document)node);
+      }
+    }
+    else if (node instanceof Argument) {
+      for (AbstractRule rule : rules[CHECK_ARGUMENT]) {
+        rule.checkArgument((Argument)node);
+      }
+    }
+    else if (node instanceof TypeName) {
+      for (AbstractRule rule : rules[CHECK_TYPE_NAME]) {
+        rule.checkTypeName((TypeName)node);
+      }
+    }
+    else if (node instanceof VariableDefinition) {
+      for (AbstractRule rule : rules[CHECK_VARIABLE_DEFINITION]) {
+        rule.checkVariableDefinition((VariableDefinition)node);
+      }
+    }
+    else if (node instanceof Field) {
+      for (AbstractRule rule : rules[CHECK_FIELD]) {
+        rule.checkField((Field)node);
+      }
+    }
+    else if (node instanceof InlineFragment) {
+      for (AbstractRule rule : rules[CHECK_INLINE_FRAGMENT]) {
+        rule.checkInlineFragment((InlineFragment)node);
+      }
+    }
+    else if (node instanceof Directive) {
+      for (AbstractRule rule : rules[CHECK_DIRECTIVE]) {
+        rule.checkDirective((Directive)node, ancestors);
+      }
+    }
+    else if (node instanceof FragmentSpread) {
+      for (AbstractRule rule : rules[CHECK_FRAGMENT_SPREAD]) {
+        rule.checkFragmentSpread((FragmentSpread)node);
+      }
+      if (currentFragmentDefinition == null) {
+        visitFragmentSpread((FragmentSpread)node, ancestors);
+      }
+    }
+    else if (node instanceof FragmentDefinition) {
+      for (AbstractRule rule : rules[CHECK_FRAGMENT_DEFINITION]) {
+        rule.checkFragmentDefinition((FragmentDefinition)node);
+      }
+    }
+    else if (node instanceof OperationDefinition) {
+      for (AbstractRule rule : rules[CHECK_OPERATION_DEFINITION]) {
+        rule.checkOperationDefinition((OperationDefinition)node);
+      }
+    }
+    else if (node instanceof VariableReference) {
+      for (AbstractRule rule : rules[CHECK_VARIABLE]) {
+        rule.checkVariable((VariableReference)node);
+      }
+    }
+    else if (node instanceof SelectionSet) {
+      for (AbstractRule rule : rules[CHECK_SELECTION_SET]) {
+        rule.checkSelectionSet((SelectionSet)node);
+      }
+    }
+  }
+
+  private void visitFragmentSpread(@NotNull FragmentSpread fragmentSpread, @NotNull List<Node> ancestors) {
+    if (fragmentSpreadsVisitor == null) return;
+
+    FragmentDefinition fragment = validationContext.getFragment(fragmentSpread.getName());
+    if (fragment != null && !ancestors.contains(fragment)) {
+      new LanguageTraversal(ancestors).traverse(fragment, fragmentSpreadsVisitor);
+    }
+  }
+
+  @Override
+  public void leave(Node node, List<Node> ancestors) {
+    validationContext.getTraversalContext().leave(node, ancestors);
+
+    if (node instanceof Document) {
+      for (AbstractRule rule : rules[DOCUMENT_FINISHED]) {
+        rule.documentFinished((Document)node);
+      }
+    }
+    else if (node instanceof OperationDefinition) {
+      for (AbstractRule rule : rules[LEAVE_OPERATION_DEFINITION]) {
+        rule.leaveOperationDefinition((OperationDefinition)node);
+      }
+    }
+    else if (node instanceof SelectionSet) {
+      for (AbstractRule rule : rules[LEAVE_SELECTION_SET]) {
+        rule.leaveSelectionSet((SelectionSet)node);
+      }
+    }
+
+    if (node == currentFragmentDefinition) {
+      currentFragmentDefinition = null;
+    }
+  }
+
+  private static AbstractRule[][] groupByCallback(@NotNull List<AbstractRule> rules) {
+    AbstractRule[][] result = new AbstractRule[CALLBACKS_COUNT][];
+    for (int callback = 0; callback < CALLBACKS_COUNT; callback++) {
+      List<AbstractRule> callbackRules = new ArrayList<>();
+      for (AbstractRule rule : rules) {
+        if (OVERRIDDEN_CALLBACKS.get(rule.getClass())[callback]) {
+          callbackRules.add(rule);
+        }
+      }
+      result[callback] = callbackRules.toArray(new AbstractRule[0]);
+    }
+    return result;
+  }
+
+  private static boolean isOverridden(@NotNull Class<?> ruleClass, @NotNull String methodName, Class<?> @NotNull ... parameterTypes) {
+    try {
+      return ruleClass.getMethod(methodName, parameterTypes).getDeclaringClass() != AbstractRule.class;
+    }
+    catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
+}
@@ -19,9 +19,15 @@ package com.intellij.lang.jsgraphql.types.validation;
 
 
 import com.intellij.lang.jsgraphql.types.Internal;
+import com.intellij.lang.jsgraphql.types.execution.TypeFromAST;
 import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.Field;
 import com.intellij.lang.jsgraphql.types.language.FragmentDefinition;
+import com.intellij.lang.jsgraphql.types.language.FragmentSpread;
+import com.intellij.lang.jsgraphql.types.language.InlineFragment;
+import com.intellij.lang.jsgraphql.types.language.Selection;
+import com.intellij.lang.jsgraphql.types.language.SelectionSet;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLArgument;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLCompositeType;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLDirective;
@@ -29,7 +35,11 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldDefinition;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLInputType;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLOutputType;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +52,9 @@ public class ValidationContext {
 
   private final TraversalContext traversalContext;
   private final Map<String, FragmentDefinition> fragmentDefinitionMap = new LinkedHashMap<>();
+  // shared between the rules, so each fragment is only processed once per document
+  private final Map<String, List<FragmentSpread>> fragmentSpreadsMap = new HashMap<>();
+  private final Map<FragmentDefinition, GraphQLType> fragmentTypeMap = new IdentityHashMap<>();
 
 
   public ValidationContext(GraphQLSchema schema, Document document) {
@@ -74,6 +87,49 @@ public class ValidationContext {
     return fragmentDefinitionMap.get(name);
   }
 
+  /**
+   * @return the fragment spreads of the fragment selection set in the document order, or null if there is no such fragment
+   */
+  public List<FragmentSpread> getFragmentSpreads(String fragmentName) {
+    FragmentDefinition fragmentDefinition = getFragment(fragmentName);
+    if (fragmentDefinition == null) {
+      return null;
+    }
+    return fragmentSpreadsMap.computeIfAbsent(fragmentName, name -> {
+      List<FragmentSpread> fragmentSpreads = new ArrayList<>();
+      collectFragmentSpreads(fragmentDefinition.getSelectionSet(), fragmentSpreads);
+      return fragmentSpreads;
+    });
+  }
+
+  private static void collectFragmentSpreads(SelectionSet selectionSet, List<FragmentSpread> result) {
+    if (selectionSet == null) return;
+
+    for (Selection<?> selection : selectionSet.getSelections()) {
+      if (selection instanceof FragmentSpread fragmentSpread) {
+        result.add(fragmentSpread);
+      }
+      else if (selection instanceof Field field) {
+        collectFragmentSpreads(field.getSelectionSet(), result);
+      }
+      else if (selection instanceof InlineFragment inlineFragment) {
+        collectFragmentSpreads(inlineFragment.getSelectionSet(), result);
+      }
+    }
+  }
+
+  /**
+   * @return the schema type of the fragment type condition, or null if it's unknown
+   */
+  public GraphQLType getFragmentType(FragmentDefinition fragmentDefinition) {
+    if (fragmentTypeMap.containsKey(fragmentDefinition)) {
+      return fragmentTypeMap.get(fragmentDefinition);
+    }
+    GraphQLType type = TypeFromAST.getTypeFromAST(schema, fragmentDefinition.getTypeCondition());
+    fragmentTypeMap.put(fragmentDefinition, type);
+    return type;
+  }
+
   public GraphQLCompositeType getParentType() {
     return traversalContext.getParentType();
   }
@@ -60,7 +60,7 @@ public class Validator {
     ValidationErrorCollector validationErrorCollector = new ValidationErrorCollector();
     List<AbstractRule> rules = createRules(validationContext, validationErrorCollector);
     LanguageTraversal languageTraversal = new LanguageTraversal();
-    languageTraversal.traverse(document, new RulesVisitor(validationContext, rules));
+    languageTraversal.traverse(document, new FusedRulesVisitor(validationContext, rules));
 
     return validationErrorCollector.getErrors();
   }
@@ -19,64 +19,23 @@ package com.intellij.lang.jsgraphql.types.validation.rules;
 
 
 import com.intellij.lang.jsgraphql.types.Internal;
-import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.FragmentDefinition;
 import com.intellij.lang.jsgraphql.types.language.FragmentSpread;
-import com.intellij.lang.jsgraphql.types.language.Node;
 import com.intellij.lang.jsgraphql.types.validation.AbstractRule;
-import com.intellij.lang.jsgraphql.types.validation.DocumentVisitor;
-import com.intellij.lang.jsgraphql.types.validation.LanguageTraversal;
 import com.intellij.lang.jsgraphql.types.validation.ValidationContext;
 import com.intellij.lang.jsgraphql.types.validation.ValidationErrorCollector;
 import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 @Internal
 public class NoFragmentCycles extends AbstractRule {
 
-  private final Map<String, List<FragmentSpread>> fragmentSpreads = new LinkedHashMap<>();
-
-
   public NoFragmentCycles(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
     super(validationContext, validationErrorCollector);
-    prepareFragmentMap();
-  }
-
-  private void prepareFragmentMap() {
-    List<Definition> definitions = getValidationContext().getDocument().getDefinitions();
-    for (Definition definition : definitions) {
-      if (definition instanceof FragmentDefinition fragmentDefinition) {
-        fragmentSpreads.put(fragmentDefinition.getName(), gatherSpreads(fragmentDefinition));
-      }
-    }
-  }
-
-
-  private List<FragmentSpread> gatherSpreads(FragmentDefinition fragmentDefinition) {
-    final List<FragmentSpread> fragmentSpreads = new ArrayList<>();
-    DocumentVisitor visitor = new DocumentVisitor() {
-      @Override
-      public void enter(Node node, List<Node> path) {
-        if (node instanceof FragmentSpread) {
-          fragmentSpreads.add((FragmentSpread)node);
-        }
-      }
-
-      @Override
-      public void leave(Node node, List<Node> path) {
-
-      }
-    };
-
-    new LanguageTraversal().traverse(fragmentDefinition, visitor);
-    return fragmentSpreads;
   }
 
-
   @Override
   public void checkFragmentDefinition(FragmentDefinition fragmentDefinition) {
     List<FragmentSpread> spreadPath = new ArrayList<>();
@@ -84,7 +43,7 @@ public class NoFragmentCycles extends AbstractRule {
   }
 
   private void detectCycleRecursive(String fragmentName, String initialName, List<FragmentSpread> spreadPath) {
-    List<FragmentSpread> fragmentSpreads = this.fragmentSpreads.get(fragmentName);
+    List<FragmentSpread> fragmentSpreads = getValidationContext().getFragmentSpreads(fragmentName);
     if (fragmentSpreads == null) {
       // KnownFragmentNames will have picked this up.  Lets not NPE
       return;
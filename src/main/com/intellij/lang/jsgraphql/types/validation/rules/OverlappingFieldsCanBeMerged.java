@@ -40,6 +40,7 @@ import com.intellij.lang.jsgraphql.types.validation.ValidationContext;
 import com.intellij.lang.jsgraphql.types.validation.ValidationErrorCollector;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -65,7 +66,7 @@ import static java.lang.String.format;
 public class OverlappingFieldsCanBeMerged extends AbstractRule {
 
 
-  private final List<FieldPair> alreadyChecked = new ArrayList<>();
+  private final Set<FieldPair> alreadyChecked = new HashSet<>();
 
   public OverlappingFieldsCanBeMerged(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
     super(validationContext, validationErrorCollector);
@@ -98,28 +99,15 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     return result;
   }
 
-  private boolean isAlreadyChecked(Field field1, Field field2) {
-    for (FieldPair fieldPair : alreadyChecked) {
-      if (fieldPair.field1 == field1 && fieldPair.field2 == field2) {
-        return true;
-      }
-      if (fieldPair.field1 == field2 && fieldPair.field2 == field1) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   @SuppressWarnings("ConstantConditions")
   private Conflict findConflict(String responseName, FieldAndType fieldAndTypeA, FieldAndType fieldAndTypeB) {
 
     Field fieldA = fieldAndTypeA.field;
     Field fieldB = fieldAndTypeB.field;
 
-    if (isAlreadyChecked(fieldA, fieldB)) {
+    if (!alreadyChecked.add(new FieldPair(fieldA, fieldB))) {
       return null;
     }
-    alreadyChecked.add(new FieldPair(fieldA, fieldB));
 
     String fieldNameA = fieldA.getName();
     String fieldNameB = fieldB.getName();
@@ -331,8 +319,7 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
       return;
     }
     visitedFragmentSpreads.add(fragment.getName());
-    GraphQLType graphQLType = TypeFromAST.getTypeFromAST(getValidationContext().getSchema(),
-                                                         fragment.getTypeCondition());
+    GraphQLType graphQLType = getValidationContext().getFragmentType(fragment);
     collectFields(fieldMap, fragment.getSelectionSet(), graphQLType, visitedFragmentSpreads);
   }
 
@@ -372,6 +359,18 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
       this.field1 = field1;
       this.field2 = field2;
     }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof FieldPair pair)) return false;
+      return field1 == pair.field1 && field2 == pair.field2 || field1 == pair.field2 && field2 == pair.field1;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(field1) + System.identityHashCode(field2);
+    }
   }
 
   private static class Conflict {
@@ -0,0 +1,11 @@
+function fn() {
+    gql`
+        type User {
+            name: String
+        }
+
+        type Query {
+            user: User
+        }
+    `
+}
@@ -0,0 +1,5 @@
+const typeDefs = gql`
+    extend type MissingInjected {
+        id: ID
+    }
+`;
@@ -0,0 +1,88 @@
+package com.intellij.lang.jsgraphql.config
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.lang.jsgraphql.ide.config.scope.GraphQLConfigGlobMatcher
+import com.intellij.openapi.progress.runBlockingCancellable
+
+class GraphQLConfigGlobMatcherTest : GraphQLTestCaseBase() {
+
+  fun testLiteralPath() = runBlockingCancellable {
+    createFiles("schema.graphql", "other.graphql", "dir/other.graphql", "dir/schema.graphql")
+    val matcher = compile("schema.graphql", "dir/other.graphql")
+    assertMatches(matcher, "schema.graphql", "dir/other.graphql")
+    assertDoesntMatch(matcher, "other.graphql", "dir/schema.graphql")
+  }
+
+  fun testRecursiveGlob() = runBlockingCancellable {
+    createFiles("x.graphql", "a/x.graphql", "a/b/x.graphql", "a/y.graphql")
+    val matcher = compile("**/x.graphql")
+    assertMatches(matcher, "x.graphql", "a/x.graphql", "a/b/x.graphql")
+    assertDoesntMatch(matcher, "a/y.graphql")
+  }
+
+  fun testGlobInContextDir() = runBlockingCancellable {
+    createFiles("schema.graphql", "schema.js", "dir/schema.graphql")
+    val matcher = compile("*.graphql")
+    assertMatches(matcher, "schema.graphql")
+    assertDoesntMatch(matcher, "schema.js", "dir/schema.graphql")
+  }
+
+  fun testBraceAlternatives() = runBlockingCancellable {
+    createFiles("a/query.graphql", "b/query.graphql", "c/query.graphql", "a/nested/query.graphql")
+    val matcher = compile("{a,b}/*.graphql")
+    assertMatches(matcher, "a/query.graphql", "b/query.graphql")
+    assertDoesntMatch(matcher, "c/query.graphql", "a/nested/query.graphql")
+  }
+
+  fun testGlobOutsideContextDir() = runBlockingCancellable {
+    createFiles("frontend/query.graphql", "outside/schema.graphql", "other/schema.graphql")
+    val matcher = compile("../outside/*.graphql", context = "frontend")
+    assertMatches(matcher, "outside/schema.graphql")
+    assertDoesntMatch(matcher, "frontend/query.graphql", "other/schema.graphql")
+  }
+
+  fun testAbsoluteGlob() = runBlockingCancellable {
+    createFiles("frontend/query.graphql", "abs/schema.graphql", "abs/nested/schema.graphql")
+    val root = myFixture.findFileInTempDir("")
+    val matcher = compile("${root.path}/abs/*.graphql", context = "frontend")
+    assertMatches(matcher, "abs/schema.graphql")
+    assertDoesntMatch(matcher, "frontend/query.graphql", "abs/nested/schema.graphql")
+  }
+
+  fun testIncludeAndExclude() = runBlockingCancellable {
+    createFiles("schema.graphql", "dir/query.graphql", "generated/types.graphql", "generated/nested/types.graphql")
+    val include = compile("**/*.graphql")
+    val exclude = compile("generated/**")
+    val included = listOf("schema.graphql", "dir/query.graphql", "generated/types.graphql", "generated/nested/types.graphql")
+      .filter { path -> myFixture.findFileInTempDir(path).let { include.matches(it) && !exclude.matches(it) } }
+    assertSameElements(included, "schema.graphql", "dir/query.graphql")
+  }
+
+  fun testEmpty() = runBlockingCancellable {
+    createFiles("schema.graphql")
+    val matcher = compile("", " ")
+    assertTrue(matcher.isEmpty)
+    assertDoesntMatch(matcher, "schema.graphql")
+  }
+
+  private fun createFiles(vararg paths: String) {
+    for (path in paths) {
+      myFixture.addFileToProject(path, "")
+    }
+  }
+
+  private fun compile(vararg patterns: String, context: String = ""): GraphQLConfigGlobMatcher =
+    GraphQLConfigGlobMatcher.compile(patterns.toList(), myFixture.findFileInTempDir(context))
+
+  private fun assertMatches(matcher: GraphQLConfigGlobMatcher, vararg paths: String) {
+    for (path in paths) {
+      assertTrue("$path should match", matcher.matches(myFixture.findFileInTempDir(path)))
+    }
+  }
+
+  private fun assertDoesntMatch(matcher: GraphQLConfigGlobMatcher, vararg paths: String) {
+    for (path in paths) {
+      assertFalse("$path shouldn't match", matcher.matches(myFixture.findFileInTempDir(path)))
+    }
+  }
+}
@@ -8,13 +8,16 @@ import com.intellij.lang.jsgraphql.ide.config.loader.GraphQLRawConfig
 import com.intellij.lang.jsgraphql.ide.config.model.GraphQLConfig
 import com.intellij.lang.jsgraphql.ide.config.model.GraphQLProjectConfig
 import com.intellij.lang.jsgraphql.ide.config.serialization.GraphQLConfigPrinter
+import com.intellij.lang.jsgraphql.reloadConfig
 import com.intellij.lang.jsgraphql.reloadGraphQLConfiguration
 import com.intellij.lang.jsgraphql.withCustomEnv
+import com.intellij.openapi.application.edtWriteAction
 import com.intellij.openapi.application.readAction
 import com.intellij.openapi.application.smartReadAction
 import com.intellij.openapi.command.WriteCommandAction
 import com.intellij.openapi.progress.runBlockingCancellable
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VfsUtil
 import com.intellij.psi.PsiFileFactory
 import com.intellij.psi.PsiManager
 import com.intellij.psi.codeStyle.CodeStyleManager
@@ -143,6 +146,30 @@ class GraphQLConfigResolveTest : GraphQLTestCaseBase() {
     assertEquals("/src/graphql.config.js", resolveConfig("src/query.js").file?.path)
   }
 
+  fun testResolvedAfterMove() = runBlockingCancellable {
+    TestCase.assertEquals("foo", resolveConfig("foo/schema.graphql").name)
+
+    val file = myFixture.findFileInTempDir("foo/schema.graphql")
+    edtWriteAction {
+      file.rename(this, "moved.graphql")
+      file.move(this, myFixture.findFileInTempDir("bar"))
+    }
+    TestCase.assertEquals("bar", resolveConfig("bar/moved.graphql").name)
+  }
+
+  fun testResolvedAfterConfigReload() = runBlockingCancellable {
+    TestCase.assertEquals("foo", resolveConfig("foo/schema.graphql").name)
+
+    val configFile = myFixture.findFileInTempDir("graphql.config.yml")
+    edtWriteAction {
+      VfsUtil.saveText(configFile, "projects:\n  foo:\n    schema: bar/*.graphql\n  bar:\n    schema: foo/*.graphql\n")
+    }
+    GraphQLConfigProvider.getInstance(project).invalidate(configFile)
+    reloadConfig(project)
+    // the file is already indexed, the reload drops the index
+    TestCase.assertEquals("bar", resolveConfig("foo/schema.graphql").name)
+  }
+
   private suspend fun resolveConfig(filePath: String): GraphQLProjectConfig {
     val context = myFixture.configureFromTempProjectFile(filePath)
     assertNotNull("source file is not found", context)
@@ -8,16 +8,20 @@ import com.intellij.lang.jsgraphql.ide.config.GraphQLConfigProvider
 import com.intellij.lang.jsgraphql.ide.config.loader.GraphQLRawConfig
 import com.intellij.lang.jsgraphql.ide.config.loader.GraphQLRawSchemaPointer
 import com.intellij.lang.jsgraphql.ide.config.model.GraphQLConfig
+import com.intellij.lang.jsgraphql.ide.config.scope.GraphQLConfigScope
 import com.intellij.lang.jsgraphql.reloadGraphQLConfiguration
 import com.intellij.lang.jsgraphql.schema.library.GraphQLLibraryManager
+import com.intellij.openapi.application.edtWriteAction
 import com.intellij.openapi.application.readAction
 import com.intellij.openapi.application.smartReadAction
 import com.intellij.openapi.components.PathMacroManager
+import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.progress.runBlockingCancellable
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.roots.ProjectFileIndex
 import com.intellij.openapi.vfs.LocalFileSystem
 import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiDocumentManager
 import com.intellij.psi.search.FileTypeIndex
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.testFramework.IndexingTestUtil
@@ -178,6 +182,23 @@ class GraphQLConfigScopeTest : GraphQLTestCaseBase() {
     doScopeTest("graphql.config.yml", setOf("node_modules/@octokit/graphql-schema/schema.graphql"), emptySet())
   }
 
+  fun testMembershipCache() = runBlockingCancellable {
+    val projectConfig = checkNotNull(loadConfig("graphql.config.yml").getDefault())
+    val scope = GraphQLConfigScope(project, GlobalSearchScope.allScope(project), projectConfig)
+    val file = myFixture.findFileInTempDir("query.graphql")
+    readAction { assertTrue(scope.contains(file)) }
+
+    edtWriteAction {
+      val document = FileDocumentManager.getInstance().getDocument(file)!!
+      document.insertString(0, "# comment\n")
+      PsiDocumentManager.getInstance(project).commitDocument(document)
+    }
+
+    readAction { assertTrue(scope.contains(file)) }
+    assertEquals(1, scope.cacheMissesCount)
+    assertEquals(1, scope.cacheHitsCount)
+  }
+
   private suspend fun doScopeTest(
     configPath: String,
     expectedSchemas: Set<String>,
@@ -0,0 +1,48 @@
+package com.intellij.lang.jsgraphql.injection
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLFragmentNameIndex
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIdentifierIndex
+import com.intellij.openapi.application.readAction
+import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.util.indexing.FileBasedIndex
+
+class GraphQLInjectedIndexTest : GraphQLTestCaseBase() {
+
+  fun testOperationNamedAsKeyword() = runBlockingCancellable {
+    doTest("query type { user { id } }", listOf("type", "user", "id"), listOf("query"))
+  }
+
+  fun testTypeNamedAsKeyword() = runBlockingCancellable {
+    doTest("type input { id: ID }", listOf("input", "id", "ID"), listOf("type"))
+  }
+
+  fun testImplementedInterfacesNamedAsKeywords() = runBlockingCancellable {
+    doTest("type User implements on & enum { id: ID }", listOf("User", "on", "enum"), listOf("type", "implements"))
+  }
+
+  fun testExtensionNamedAsKeyword() = runBlockingCancellable {
+    doTest("extend type input { id: ID }", listOf("input"), listOf("extend", "type"))
+  }
+
+  fun testKeywordAfterKeywordUsedAsName() = runBlockingCancellable {
+    doTest("type type implements Node { id: ID }", listOf("type", "Node"), listOf("implements"))
+  }
+
+  fun testUnionMembersNamedAsKeywords() = runBlockingCancellable {
+    doTest("union Result = type | input", listOf("Result", "type", "input"), listOf("union"))
+  }
+
+  fun testFragmentNamedAsKeyword() = runBlockingCancellable {
+    doTest("fragment query on type { id }", listOf("query", "type", "id"), listOf("fragment", "on"))
+    val fragments = readAction { FileBasedIndex.getInstance().getFileData(GraphQLFragmentNameIndex.NAME, myFixture.file.virtualFile, project) }
+    assertEquals(mapOf("query" to "type"), fragments)
+  }
+
+  private suspend fun doTest(text: String, expected: List<String>, unexpected: List<String>) {
+    val file = myFixture.configureByText("${getTestName(true)}.js", "const doc = gql`\n$text\n`;")
+    val identifiers = readAction { FileBasedIndex.getInstance().getFileData(GraphQLIdentifierIndex.NAME, file.virtualFile, project).keys }
+    assertContainsElements(identifiers, expected)
+    assertDoesntContain(identifiers, unexpected)
+  }
+}
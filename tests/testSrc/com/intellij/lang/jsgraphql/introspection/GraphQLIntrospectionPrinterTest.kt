@@ -2,6 +2,7 @@ package com.intellij.lang.jsgraphql.introspection
 
 import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
 import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionService
+import com.intellij.lang.jsgraphql.ide.introspection.GraphQLQueryClient
 import com.intellij.openapi.application.edtWriteAction
 import com.intellij.openapi.diagnostic.thisLogger
 import com.intellij.openapi.editor.impl.DocumentImpl
@@ -64,6 +65,14 @@ class GraphQLIntrospectionPrinterTest : GraphQLTestCaseBase() {
     doTest("schemaWithJavaFormatterSpecifiersInDescriptions.json", "schemaWithJavaFormatterSpecifiersInDescriptions.graphql")
   }
 
+  fun testStreamingMatchesParsedResponse() = runBlockingCancellable {
+    val introspectionJson = checkNotNull(readSchemaJson("schemaWithCustomRootTypes.json"))
+    assertEquals(
+      GraphQLIntrospectionService.printIntrospectionAsGraphQL(project, GraphQLQueryClient.parseResponseJsonAsMap(introspectionJson)),
+      GraphQLIntrospectionService.printIntrospectionAsGraphQL(project, introspectionJson)
+    )
+  }
+
   private suspend fun doTest(source: String, expected: String) {
     val introspection =
       GraphQLIntrospectionService.printIntrospectionAsGraphQL(project, checkNotNull(readSchemaJson(source)))
@@ -1,11 +1,26 @@
 package com.intellij.lang.jsgraphql.resolve
 
 import com.intellij.lang.jsgraphql.GraphQLResolveTestCaseBase
+import com.intellij.lang.jsgraphql.ide.resolve.GraphQLResolveUtil
 import com.intellij.lang.jsgraphql.psi.GraphQLDirectiveDefinition
+import com.intellij.lang.jsgraphql.psi.GraphQLEnumValueDefinition
+import com.intellij.lang.jsgraphql.psi.GraphQLField
 import com.intellij.lang.jsgraphql.psi.GraphQLFieldDefinition
 import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition
+import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier
 import com.intellij.lang.jsgraphql.psi.GraphQLInputValueDefinition
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider
+import com.intellij.lang.jsgraphql.types.schema.GraphQLNamedType
+import com.intellij.openapi.application.EDT
+import com.intellij.openapi.application.edtWriteAction
+import com.intellij.openapi.application.smartReadAction
 import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.PsiTreeUtil
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
 
 class GraphQLOperationsResolveTest : GraphQLResolveTestCaseBase() {
 
@@ -85,6 +100,72 @@ class GraphQLOperationsResolveTest : GraphQLResolveTestCaseBase() {
     doResolveWithOffsetTest(GraphQLInputValueDefinition::class.java, "second")
   }
 
+  fun testEnumValue() = runBlockingCancellable<Unit> {
+    doResolveWithOffsetTest(GraphQLEnumValueDefinition::class.java, "ADMIN")
+  }
+
+  fun testArgumentsDuplicateDefinitions() = runBlockingCancellable {
+    initTestProject(false)
+
+    val psiFile = withContext(Dispatchers.EDT) { myFixture.configureFromTempProjectFile("query.graphql")!! }
+    smartReadAction(project) {
+      val field = resolveIdentifierAt(psiFile, "friends")
+      val fieldArgument = resolveIdentifierAt(psiFile, "after")
+      assertInstanceOf(field, GraphQLFieldDefinition::class.java)
+      assertInstanceOf(fieldArgument, GraphQLInputValueDefinition::class.java)
+      assertTrue("field argument is resolved to another definition", PsiTreeUtil.isAncestor(field, fieldArgument, true))
+
+      val directive = resolveIdentifierAt(psiFile, "someDir")
+      val directiveArgument = resolveIdentifierAt(psiFile, "second")
+      assertInstanceOf(directive, GraphQLDirectiveDefinition::class.java)
+      assertInstanceOf(directiveArgument, GraphQLInputValueDefinition::class.java)
+      assertTrue("directive argument is resolved to another definition", PsiTreeUtil.isAncestor(directive, directiveArgument, true))
+    }
+  }
+
+  fun testTypeScopeRecomputed() = runBlockingCancellable {
+    val schemaFile = withContext(Dispatchers.EDT) {
+      myFixture.configureByText("schema.graphql", "type Query { user: User viewer: Viewer }\ntype User { id: ID }\ntype Viewer { id: ID }")
+    }
+    val queryFile = withContext(Dispatchers.EDT) { myFixture.configureByText("query.graphql", "query { user { id } }") }
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    schemaProvider.getSchemaInfo(queryFile)
+    assertEquals("User", getFieldTypeScopeName(queryFile, "user"))
+    assertEquals("User", getFieldTypeScopeName(queryFile, "user"))
+
+    // the operation isn't changed, the scope is recomputed for a new schema
+    val cacheModificationCount = schemaProvider.cacheModificationTracker.modificationCount
+    setFileText(schemaFile, "type Query { user: Viewer viewer: User }\ntype User { id: ID }\ntype Viewer { id: ID }")
+    schemaProvider.getSchemaInfo(queryFile)
+    assertTrue(schemaProvider.cacheModificationTracker.modificationCount > cacheModificationCount)
+    assertEquals("Viewer", getFieldTypeScopeName(queryFile, "user"))
+
+    // the scopes cached for the operation are dropped after its own edit
+    setFileText(queryFile, "query { viewer { id } }")
+    assertEquals("User", getFieldTypeScopeName(queryFile, "viewer"))
+  }
+
+  private suspend fun getFieldTypeScopeName(psiFile: PsiFile, name: String): String? = smartReadAction(project) {
+    val field = PsiTreeUtil.findChildrenOfType(psiFile, GraphQLField::class.java).single { it.name == name }
+    (field.typeScope as? GraphQLNamedType)?.name
+  }
+
+  private suspend fun setFileText(psiFile: PsiFile, text: String) {
+    edtWriteAction {
+      val document = PsiDocumentManager.getInstance(project).getDocument(psiFile)!!
+      document.setText(text)
+      PsiDocumentManager.getInstance(project).commitDocument(document)
+    }
+  }
+
+  private fun resolveIdentifierAt(psiFile: PsiFile, name: String): PsiElement? {
+    val offset = psiFile.text.indexOf(name)
+    assertTrue("$name is not found", offset >= 0)
+    val identifier = PsiTreeUtil.getParentOfType(psiFile.findElementAt(offset), GraphQLIdentifier::class.java)
+    assertNotNull(identifier)
+    return GraphQLResolveUtil.resolve(identifier)
+  }
+
   fun testDirective() = runBlockingCancellable<Unit> {
     doResolveWithOffsetTest(GraphQLDirectiveDefinition::class.java, "someDir")
   }
@@ -165,6 +246,15 @@ class GraphQLOperationsResolveTest : GraphQLResolveTestCaseBase() {
     )
   }
 
+  fun testFieldInjectedSchema() = runBlockingCancellable<Unit> {
+    doProjectResolveTest(
+      "query.graphql",
+      GraphQLFieldDefinition::class.java,
+      "name",
+      "schema.js"
+    )
+  }
+
   fun testFragmentIncluded() = runBlockingCancellable<Unit> {
     doProjectResolveTest(
       "query.graphql",
@@ -22,6 +22,25 @@ class GraphQLPsiSearchTest : GraphQLTestCaseBase() {
     assertSameElements(actual, listOf("SomeFragmentInJs", "SomeFragmentInTs", "FragmentInVue"))
   }
 
+  fun testFragmentsByName() = runBlockingCancellable {
+    initTestProject()
+    val file = myFixture.configureFromTempProjectFile("fragments-in-js.js")
+    val (definitions, typeConditions) = smartReadAction(project) {
+      val searchHelper = GraphQLPsiSearchHelper.getInstance(project)
+      val scope = GlobalSearchScope.projectScope(project)
+      val definitions = searchHelper.findFragmentDefinitions("SomeFragmentInTs", scope).map { it.containingFile.name }
+
+      val typeConditions = mutableMapOf<String, String>()
+      searchHelper.processFragmentTypeConditions(file) { name, typeCondition ->
+        typeConditions[name] = typeCondition
+        true
+      }
+      definitions to typeConditions
+    }
+    assertSameElements(definitions, listOf("fragments-in-ts.ts"))
+    assertEquals(mapOf("SomeFragmentInJs" to "User", "SomeFragmentInTs" to "User", "FragmentInVue" to "User"), typeConditions)
+  }
+
   fun testNamedElements() = runBlockingCancellable {
     initTestProject()
     val expectedNames = listOf("User", "userId", "userName", "UserInput", "newUserId", "newUserName", "UserRole", "ADMIN", "USER")
@@ -38,6 +57,26 @@ class GraphQLPsiSearchTest : GraphQLTestCaseBase() {
     assertSameElements(actual, expectedNames)
   }
 
+  fun testNamedDefinitions() = runBlockingCancellable {
+    initTestProject()
+
+    val actual = smartReadAction(project) {
+      val scope = GlobalSearchScope.projectScope(project)
+      listOf("name", "Node", "format", "FULL", "SHORT").associateWith { name ->
+        val processor = CommonProcessors.CollectProcessor<PsiNamedElement>()
+        GraphQLPsiSearchHelper.getInstance(project).processNamedElements(project, name, scope, processor)
+        processor.results.map { it.parent.javaClass.simpleName }.sorted()
+      }
+    }
+
+    // the identifiers are processed together with the named elements owning them
+    assertEquals(listOf("GraphQLFieldDefinitionImpl", "GraphQLFieldsDefinitionImpl"), actual["name"])
+    assertEquals(listOf("GraphQLImplementsInterfacesImpl", "GraphQLInterfaceTypeDefinitionImpl", "GraphQLTypeNameDefinitionImpl", "GraphQLTypeNameImpl"), actual["Node"])
+    assertEquals(listOf("GraphQLArgumentsDefinitionImpl", "GraphQLInputValueDefinitionImpl"), actual["format"])
+    assertEquals(listOf("GraphQLEnumValueDefinitionImpl", "GraphQLEnumValueImpl"), actual["FULL"])
+    assertEquals(listOf("GraphQLEnumValueDefinitionImpl", "GraphQLEnumValueImpl"), actual["SHORT"])
+  }
+
   fun testInjections() = runBlockingCancellable {
     initTestProject()
     val actual = smartReadAction(project) {
@@ -0,0 +1,67 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.openapi.util.registry.Registry
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import java.util.Collections
+import java.util.concurrent.TimeUnit
+
+class GraphQLSchemaBuildQueueTest : GraphQLTestCaseBase() {
+
+  override fun setUp() {
+    super.setUp()
+    Registry.get("graphql.schema.build.parallelism").setValue(1, testRootDisposable)
+  }
+
+  fun testPriorityFirstThenFifo() = runBlockingCancellable {
+    val queue = GraphQLSchemaBuildQueue()
+    val started = Collections.synchronizedList(ArrayList<String>())
+    val gate = CompletableDeferred<Unit>()
+
+    coroutineScope {
+      // started undispatched, so the tickets are queued in the order of the calls
+      val running = async(start = CoroutineStart.UNDISPATCHED) { queue.run(GraphQLSchemaBuildQueue.Ticket()) { gate.await() } }
+      val builds = listOf("first", "second", "priority", "third").map { name ->
+        val ticket = GraphQLSchemaBuildQueue.Ticket().apply { touch(name == "priority") }
+        async(start = CoroutineStart.UNDISPATCHED) { queue.run(ticket) { started.add(name) } }
+      }
+      assertEmpty(started)
+
+      gate.complete(Unit)
+      running.await()
+      builds.forEach { it.await() }
+    }
+    assertEquals(listOf("priority", "first", "second", "third"), started)
+  }
+
+  fun testUnusedBackgroundBuildIsDropped() = runBlockingCancellable {
+    val queue = GraphQLSchemaBuildQueue(TimeUnit.MILLISECONDS.toNanos(100))
+    val started = Collections.synchronizedList(ArrayList<String>())
+    val gate = CompletableDeferred<Unit>()
+
+    coroutineScope {
+      val running = async(start = CoroutineStart.UNDISPATCHED) { queue.run(GraphQLSchemaBuildQueue.Ticket()) { gate.await() } }
+      val unusedTicket = GraphQLSchemaBuildQueue.Ticket()
+      val requestedTicket = GraphQLSchemaBuildQueue.Ticket()
+      val priorityTicket = GraphQLSchemaBuildQueue.Ticket().apply { touch(true) }
+      val unused = async(start = CoroutineStart.UNDISPATCHED) { runCatching { queue.run(unusedTicket) { started.add("unused") } } }
+      val requested = async(start = CoroutineStart.UNDISPATCHED) { queue.run(requestedTicket) { started.add("requested") } }
+      val priority = async(start = CoroutineStart.UNDISPATCHED) { queue.run(priorityTicket) { started.add("priority") } }
+
+      delay(200)
+      requestedTicket.touch(false)
+      gate.complete(Unit)
+      running.await()
+      priority.await()
+      requested.await()
+      assertInstanceOf(unused.await().exceptionOrNull(), CancellationException::class.java)
+    }
+    assertEquals(listOf("priority", "requested"), started)
+  }
+}
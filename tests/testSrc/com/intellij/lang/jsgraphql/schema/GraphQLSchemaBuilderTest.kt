@@ -1,14 +1,41 @@
 package com.intellij.lang.jsgraphql.schema
 
+import com.intellij.lang.annotation.HighlightSeverity
 import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.lang.jsgraphql.ide.resolve.GraphQLScopeProvider
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper
+import com.intellij.lang.jsgraphql.ide.validation.inspections.GraphQLUnresolvedReferenceInspection
+import com.intellij.lang.jsgraphql.psi.GraphQLFile
+import com.intellij.lang.jsgraphql.psi.getPhysicalFileName
+import com.intellij.lang.jsgraphql.schema.builder.GraphQLCompositeRegistry
+import com.intellij.lang.jsgraphql.types.language.AstPrinter
+import com.intellij.lang.jsgraphql.types.language.Node
+import com.intellij.lang.jsgraphql.types.language.SourceLocation
 import com.intellij.lang.jsgraphql.types.schema.idl.SchemaPrinter
+import com.intellij.openapi.application.EDT
+import com.intellij.openapi.application.edtWriteAction
+import com.intellij.openapi.application.readAction
+import com.intellij.openapi.application.smartReadAction
+import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.openapi.util.Disposer
+import com.intellij.openapi.util.registry.Registry
+import com.intellij.psi.PsiDocumentManager
 import com.intellij.psi.PsiFile
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.CommonProcessors
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 import java.util.function.UnaryOperator
 
 class GraphQLSchemaBuilderTest : GraphQLTestCaseBase() {
 
   companion object {
+    private const val PAUSE_TIMEOUT_SECONDS = 10L
+
     private fun getOptions(optionsBuilder: UnaryOperator<SchemaPrinter.Options>?): SchemaPrinter.Options {
       val options = SchemaPrinter.Options.defaultOptions().includeDirectiveDefinitions(false)
       return optionsBuilder?.apply(options) ?: options
@@ -61,6 +88,245 @@ class GraphQLSchemaBuilderTest : GraphQLTestCaseBase() {
     doTest()
   }
 
+  fun testIncrementalBuild() = runBlockingCancellable {
+    initTestProject()
+    val file = myFixture.configureFromTempProjectFile("type1.graphql")!!
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    val initialSchema = schemaProvider.getSchemaInfo(file).schema
+
+    setFileText("type2.graphql", "type User {\n    id: ID\n    email: String\n}\n")
+
+    assertNotSame(initialSchema, schemaProvider.getSchemaInfo(file).schema)
+    checkByExpectedSchema(file, null)
+    assertEquals(1, getIncrementalBuildsCount(file))
+  }
+
+  fun testIncrementalBuildAfterRemoveAndAdd() = runBlockingCancellable {
+    initTestProject()
+    val file = myFixture.configureFromTempProjectFile("type1.graphql")!!
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    schemaProvider.getSchemaInfo(file)
+
+    // a definition of another kind with the same name as the one to be removed and added back
+    setFileText("type3.graphql", "type Address {\n    city: String\n}\n\ninput User {\n    id: ID\n}\n")
+    schemaProvider.getSchemaInfo(file)
+    val type2Text = readFileAsString(myFixture.findFileInTempDir("type2.graphql"))
+    setFileText("type2.graphql", "")
+    schemaProvider.getSchemaInfo(file)
+    setFileText("type2.graphql", type2Text)
+
+    val schemaInfo = schemaProvider.getSchemaInfo(file)
+    assertEquals(3, getIncrementalBuildsCount(file))
+
+    val fullBuildSchemaInfo = schemaProvider.buildSchemaInfoFromScratch(file)
+    val printer = SchemaPrinter(project, getOptions(null))
+    assertEquals(printer.print(fullBuildSchemaInfo.schema), printer.print(schemaInfo.schema))
+    assertEquals(fullBuildSchemaInfo.getErrors(project).map { it.message }, schemaInfo.getErrors(project).map { it.message })
+  }
+
+  fun testSupersededQueuedBuild() = runBlockingCancellable {
+    // the superseding build has to wait in the queue while the superseded one is running
+    Registry.get("graphql.schema.build.parallelism").setValue(1, testRootDisposable)
+    initTestProject()
+    val file = myFixture.configureFromTempProjectFile("type1.graphql")!!
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    schemaProvider.getSchemaInfo(file)
+    val scope = readAction { GraphQLScopeProvider.getInstance(project).getResolveScope(file, true) }
+    val metrics = schemaProvider.metrics.getScopeMetrics(scope)!!
+    val buildsCount = metrics.buildsCount
+    val registryBuildsCount = metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.REGISTRY).callsCount
+
+    setFileText("type2.graphql", "type User {\n    id: ID\n    email: String\n}\n")
+    val pause = PhasePause(schemaProvider, GraphQLSchemaBuildMetrics.Phase.DOCUMENTS)
+    schemaProvider.getSchemaResult(file, wait = false)
+    pause.awaitReached()
+    assertEquals(buildsCount + 1, metrics.buildsCount)
+
+    // the second build is queued, and cancelled before it's started by the third one
+    val tracker = GraphQLSchemaContentTracker.getInstance(project)
+    tracker.update()
+    schemaProvider.getSchemaResult(file, wait = false)
+    tracker.update()
+    schemaProvider.getSchemaResult(file, wait = false)
+    pause.release()
+
+    val schemaInfo = schemaProvider.getSchemaInfo(file)
+    assertNotNull(schemaInfo.schema.getObjectType("User")!!.getFieldDefinition("email"))
+    assertEquals(buildsCount + 2, metrics.buildsCount)
+    // the registry of the first build is reused by the third one
+    assertEquals(registryBuildsCount + 1, metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.REGISTRY).callsCount)
+  }
+
+  fun testSupersededDuringSchemaPhase() = runBlockingCancellable {
+    initTestProject()
+    val file = myFixture.configureFromTempProjectFile("type1.graphql")!!
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    schemaProvider.getSchemaInfo(file)
+    val scope = readAction { GraphQLScopeProvider.getInstance(project).getResolveScope(file, true) }
+    val metrics = schemaProvider.metrics.getScopeMetrics(scope)!!
+    val registryBuildsCount = metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.REGISTRY).callsCount
+    val validationsCount = metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.VALIDATION).callsCount
+    val cancellationsCount = metrics.cancellationsCount
+
+    setFileText("type2.graphql", "type User {\n    id: ID\n    email: String\n}\n")
+    val pause = PhasePause(schemaProvider, GraphQLSchemaBuildMetrics.Phase.SCHEMA)
+    schemaProvider.getSchemaResult(file, wait = false)
+    pause.awaitReached()
+
+    // the registry of the first build is already built, so it's cancelled instead of generating and validating an outdated schema
+    GraphQLSchemaContentTracker.getInstance(project).update()
+    schemaProvider.getSchemaResult(file, wait = false)
+    pause.release()
+
+    val schemaInfo = schemaProvider.getSchemaInfo(file)
+    assertNotNull(schemaInfo.schema.getObjectType("User")!!.getFieldDefinition("email"))
+    assertEquals(cancellationsCount + 1, metrics.cancellationsCount)
+    assertEquals(validationsCount + 1, metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.VALIDATION).callsCount)
+    // the registry of the first build is reused by the second one
+    assertEquals(registryBuildsCount + 1, metrics.getPhase(GraphQLSchemaBuildMetrics.Phase.REGISTRY).callsCount)
+  }
+
+  fun testErrorsByFile() = runBlockingCancellable {
+    initTestProject()
+    val schemaFile = myFixture.configureFromTempProjectFile("schema.graphql")!!
+    val extensionsFile = myFixture.configureFromTempProjectFile("extensions.graphql")!!
+    val hostFile = myFixture.configureFromTempProjectFile("injected.js")!!
+    val schemaInfo = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(schemaFile)
+
+    smartReadAction(project) {
+      val injectedFiles = mutableListOf<PsiFile>()
+      GraphQLPsiSearchHelper.getInstance(project).processInjectedGraphQLFiles(
+        project, GlobalSearchScope.allScope(project), CommonProcessors.CollectProcessor(injectedFiles)
+      )
+      val injectedFile = injectedFiles.single()
+
+      assertEmpty(schemaInfo.getErrors(project, schemaFile))
+      val extensionErrors = schemaInfo.getErrors(project, extensionsFile)
+      assertEquals(listOf("The extension 'Missing' type is missing its base underlying type"), extensionErrors.map { it.message })
+      // injected fragments are routed by the name of the host file
+      val injectedErrors = schemaInfo.getErrors(project, injectedFile)
+      assertEquals(listOf("The extension 'MissingInjected' type is missing its base underlying type"), injectedErrors.map { it.message })
+      assertEquals(injectedErrors, schemaInfo.getErrors(project, hostFile))
+      assertSameElements(schemaInfo.getErrors(project), extensionErrors + injectedErrors)
+
+      // each error is routed by the source names of both its node and its locations
+      for (file in listOf(extensionsFile, hostFile)) {
+        val fileName = getPhysicalFileName(file)
+        for (error in schemaInfo.getErrors(project, file)) {
+          val sourceNames = listOfNotNull(error.node?.sourceLocation?.sourceName) + error.locations.orEmpty().mapNotNull { it.sourceName }
+          assertContainsElements(sourceNames, fileName)
+        }
+      }
+    }
+  }
+
+  fun testSchemaSharedBetweenScopes() = runBlockingCancellable {
+    myFixture.configureByFile("objects.graphql")
+    val virtualFile = myFixture.file.virtualFile
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    val schema = schemaProvider.getSchemaInfo(GlobalSearchScope.fileScope(project, virtualFile)).schema
+    val sameSourcesSchema = schemaProvider.getSchemaInfo(GlobalSearchScope.filesScope(project, listOf(virtualFile))).schema
+    assertSame(schema, sameSourcesSchema)
+  }
+
+  fun testBuildMetrics() = runBlockingCancellable {
+    myFixture.configureByText("metrics.graphql", "type BuildMetrics { id: ID }")
+    val scope = GlobalSearchScope.fileScope(project, myFixture.file.virtualFile)
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    schemaProvider.getSchemaInfo(scope)
+    schemaProvider.getSchemaInfo(scope)
+
+    val metrics = schemaProvider.metrics.getScopeMetrics(scope)!!
+    assertEquals(2, metrics.requestsCount)
+    assertEquals(1, metrics.cacheHitsCount)
+    assertEquals(1, metrics.buildsCount)
+    assertEquals(1, metrics.documentsCount)
+    assertEquals(scope.scopeId, metrics.scopeId)
+    assertEquals(0, schemaProvider.metrics.total.documentsCount)
+    GraphQLSchemaBuildMetrics.Phase.values().forEach { assertEquals(it.id, 1, metrics.getPhase(it).callsCount) }
+    assertTrue(schemaProvider.metrics.toJson().contains("\"typeDefinitions\""))
+  }
+
+  fun testStaleWhileRevalidate() = runBlockingCancellable {
+    myFixture.enableInspections(GraphQLUnresolvedReferenceInspection::class.java)
+    val file = myFixture.configureByText("staleWhileRevalidate.graphql", "type Query { user: User }\ntype User { id: ID }\n")
+    val schemaProvider = GraphQLSchemaProvider.getInstance(project)
+    assertTrue(schemaProvider.getSchemaResult(file).isFresh)
+
+    setFileText(file.name, "type Query { user: User }\ntype User { id: ID name: String }\nquery { user { name unknown } }\n")
+    // the build can't read the sources until the write action is finished, so the cached schema is returned
+    val staleResult = edtWriteAction { schemaProvider.getSchemaResult(file, wait = false) }
+    assertFalse(staleResult.isFresh)
+    assertNull(staleResult.schemaInfo.schema.getObjectType("User")!!.getFieldDefinition("name"))
+
+    val freshResult = schemaProvider.getSchemaResult(file)
+    assertTrue(freshResult.isFresh)
+    assertNotNull(freshResult.schemaInfo.schema.getObjectType("User")!!.getFieldDefinition("name"))
+
+    // unresolved references are reported again once the schema is up-to-date
+    val errors = withContext(Dispatchers.EDT) {
+      myFixture.doHighlighting(HighlightSeverity.ERROR).map { it.description }
+    }
+    assertEquals(listOf("Unknown field \"unknown\" on object type \"User\""), errors)
+  }
+
+  fun testSchemaSnapshot() = runBlockingCancellable {
+    myFixture.configureByFile("objects.graphql")
+    val file = myFixture.file as GraphQLFile
+    val document = readAction { GraphQLPsiDocumentBuilder(file).createSchemaDocument() }
+    val storage = GraphQLSchemaSnapshotStorage.getInstance(project)
+    storage.save(getTestName(true), listOf(document), false)
+    assertEquals(AstPrinter.printAst(document), AstPrinter.printAst(storage.load(getTestName(true))!!.documents.single()))
+
+    edtWriteAction {
+      FileDocumentManager.getInstance().getDocument(file.virtualFile)!!.setText("type Changed { id: ID }")
+      FileDocumentManager.getInstance().saveAllDocuments()
+    }
+    assertNull(storage.load(getTestName(true)))
+  }
+
+  fun testSchemaSnapshotPruning() = runBlockingCancellable {
+    myFixture.configureByFile("objects.graphql")
+    val file = myFixture.file as GraphQLFile
+    val document = readAction { GraphQLPsiDocumentBuilder(file).createSchemaDocument() }
+    val storage = GraphQLSchemaSnapshotStorage.getInstance(project)
+    storage.save("existing", listOf(document), false)
+    storage.save("removed", listOf(document), false)
+
+    storage.pruneSnapshots(listOf("existing"))
+    assertNotNull(storage.load("existing"))
+    assertNull(storage.load("removed"))
+  }
+
+  fun testIndexedDocument() = runBlockingCancellable {
+    myFixture.configureByFile("directives.graphql")
+    val file = myFixture.file as GraphQLFile
+    readAction {
+      val expected = GraphQLPsiDocumentBuilder(file).createSchemaDocument()
+      val actual = GraphQLSchemaDocumentCache.getInstance(project).getIndexedDocument(file.virtualFile)!!
+      assertEquals(AstPrinter.printAst(expected), AstPrinter.printAst(actual))
+      assertEquals(collectSourceLocations(expected), collectSourceLocations(actual))
+    }
+  }
+
+  fun testParallelRegistryBuild() = runBlockingCancellable {
+    // overlapping type names across files produce both merged types and redefinition errors
+    val documents = (0 until 4).map { fileIndex ->
+      val text = (0 until 500).joinToString("\n") { "type Type${it + fileIndex * 250} { field$fileIndex: String }" }
+      val file = myFixture.addFileToProject("types$fileIndex.graphql", text) as GraphQLFile
+      readAction { GraphQLPsiDocumentBuilder(file).createSchemaDocument() }
+    }
+
+    val serialRegistry = GraphQLCompositeRegistry().apply { documents.forEach { addFromDocument(it) } }.build()
+    // the shards count is forced, so the parallel build is used regardless of the available processors
+    val parallelRegistry = GraphQLCompositeRegistry.fromDocuments(documents, forcedShardsCount = 4).build()
+    assertEquals(serialRegistry.types().keys.toList(), parallelRegistry.types().keys.toList())
+    assertEquals(serialRegistry.errors.map { it.message }, parallelRegistry.errors.map { it.message })
+  }
+
+  private fun collectSourceLocations(node: Node<*>): List<SourceLocation?> =
+    listOf(node.sourceLocation) + node.children.flatMap { collectSourceLocations(it) }
+
   private fun doTest(optionsBuilder: UnaryOperator<SchemaPrinter.Options>? = null) {
     myFixture.configureByFile(getTestName(true) + ".graphql")
 
@@ -83,4 +349,46 @@ class GraphQLSchemaBuilderTest : GraphQLTestCaseBase() {
     myFixture.configureByText("result.graphql", SchemaPrinter(project, getOptions(optionsBuilder)).print(schema))
     myFixture.checkResultByFile("${getTestName(true)}_expected.graphql")
   }
+
+  private suspend fun setFileText(path: String, text: String) {
+    val virtualFile = myFixture.findFileInTempDir(path)
+    edtWriteAction {
+      val document = FileDocumentManager.getInstance().getDocument(virtualFile)!!
+      document.setText(text)
+      PsiDocumentManager.getInstance(project).commitDocument(document)
+    }
+  }
+
+  private suspend fun getIncrementalBuildsCount(file: PsiFile): Long {
+    val scope = readAction { GraphQLScopeProvider.getInstance(project).getResolveScope(file, true) }
+    return GraphQLSchemaProvider.getInstance(project).metrics.getScopeMetrics(scope)!!.incrementalBuildsCount
+  }
+
+  /**
+   * Blocks the first schema build which reaches the [phase] until [release] is called.
+   */
+  private inner class PhasePause(private val schemaProvider: GraphQLSchemaProvider, private val phase: GraphQLSchemaBuildMetrics.Phase) {
+    private val isPaused = AtomicBoolean()
+    private val reached = CountDownLatch(1)
+    private val released = CountDownLatch(1)
+
+    init {
+      schemaProvider.beforePhaseListener = {
+        if (it == phase && isPaused.compareAndSet(false, true)) {
+          reached.countDown()
+          released.await(PAUSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        }
+      }
+      Disposer.register(testRootDisposable) { release() }
+    }
+
+    suspend fun awaitReached() {
+      assertTrue("$phase phase is not reached", withContext(Dispatchers.IO) { reached.await(PAUSE_TIMEOUT_SECONDS, TimeUnit.SECONDS) })
+    }
+
+    fun release() {
+      schemaProvider.beforePhaseListener = null
+      released.countDown()
+    }
+  }
 }
@@ -0,0 +1,65 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.openapi.application.edtWriteAction
+import com.intellij.openapi.editor.Document
+import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.psi.PsiDocumentManager
+
+class GraphQLSchemaContentTrackerTest : GraphQLTestCaseBase() {
+
+  fun testSingleInvalidationPerWriteAction() = runBlockingCancellable {
+    val file = myFixture.configureByText("schema.graphql", "type User { id: ID }\ntype Post { id: ID }\nquery { user { id } }\n")
+    val tracker = GraphQLSchemaContentTracker.getInstance(project)
+    val document = PsiDocumentManager.getInstance(project).getDocument(file)!!
+
+    // the file is seen for the first time
+    edit(document, listOf("query { user { id } }" to "query { user { id name } }"))
+
+    var events = tracker.psiEventsCount
+    var invalidations = tracker.invalidationsCount
+    var modificationCount = tracker.modificationCount
+    edit(document, listOf("type User { id: ID }" to "type User { id: ID name: String }", "type Post { id: ID }" to "type Post { id: ID title: String }"))
+    assertTrue(tracker.psiEventsCount - events >= 2)
+    assertEquals(1, tracker.invalidationsCount - invalidations)
+    assertTrue(tracker.modificationCount > modificationCount)
+
+    events = tracker.psiEventsCount
+    invalidations = tracker.invalidationsCount
+    modificationCount = tracker.modificationCount
+    edit(document, listOf("query { user { id name } }" to "query { user { name } }"))
+    assertTrue(tracker.psiEventsCount > events)
+    assertEquals(0, tracker.invalidationsCount - invalidations)
+    assertEquals(modificationCount, tracker.modificationCount)
+  }
+
+  fun testInvalidationByChangedRange() = runBlockingCancellable {
+    val file = myFixture.configureByText("schema.graphql", "type User { Ab: ID }\n\nquery { user { Ab } }\n")
+    val tracker = GraphQLSchemaContentTracker.getInstance(project)
+    val document = PsiDocumentManager.getInstance(project).getDocument(file)!!
+    // the file is checked for the first time
+    edit(document, listOf("}\n\nquery" to "}\n\n\nquery"))
+
+    // the text between the definitions is checked with a digest of the type definitions
+    var invalidations = tracker.invalidationsCount
+    edit(document, listOf("}\n\n\nquery" to "}\n\n\n\nquery"))
+    assertEquals(0, tracker.invalidationsCount - invalidations)
+
+    // "Ab" and "BC" have the same string hash code
+    invalidations = tracker.invalidationsCount
+    edit(document, listOf("Ab: ID" to "BC: ID"))
+    assertEquals(1, tracker.invalidationsCount - invalidations)
+  }
+
+  private suspend fun edit(document: Document, replacements: List<Pair<String, String>>) {
+    edtWriteAction {
+      for ((oldText, newText) in replacements) {
+        val offset = document.text.indexOf(oldText)
+        assertTrue(offset >= 0)
+        document.replaceString(offset, offset + oldText.length, newText)
+        // every commit produces its own PSI events in the same write action
+        PsiDocumentManager.getInstance(project).commitDocument(document)
+      }
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.intellij.lang.jsgraphql.schema
+
+import com.intellij.lang.jsgraphql.types.Scalars
+import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldDefinition
+import com.intellij.lang.jsgraphql.types.schema.GraphQLInputObjectField
+import com.intellij.lang.jsgraphql.types.schema.GraphQLInputObjectType
+import com.intellij.lang.jsgraphql.types.schema.GraphQLObjectType
+import junit.framework.TestCase
+
+class GraphQLSchemaElementsLookupTest : TestCase() {
+
+  fun testObjectFieldsLookup() {
+    // small types are searched linearly, large ones through a map
+    for (fieldsCount in listOf(1, 8, 9, 50)) {
+      val type = GraphQLObjectType.newObject().name("Type").apply {
+        repeat(fieldsCount) { field(GraphQLFieldDefinition.newFieldDefinition().name("field$it").type(Scalars.GraphQLString)) }
+      }.build()
+
+      assertEquals((0 until fieldsCount).map { "field$it" }, type.fieldDefinitions.map { it.name })
+      repeat(fieldsCount) { assertEquals("field$it", type.getFieldDefinition("field$it")?.name) }
+      assertNull(type.getFieldDefinition("unknown"))
+    }
+  }
+
+  fun testInputObjectFieldsLookup() {
+    for (fieldsCount in listOf(1, 8, 9, 50)) {
+      val type = GraphQLInputObjectType.newInputObject().name("Input").apply {
+        repeat(fieldsCount) { field(GraphQLInputObjectField.newInputObjectField().name("field$it").type(Scalars.GraphQLString)) }
+      }.build()
+
+      assertEquals((0 until fieldsCount).map { "field$it" }, type.fieldDefinitions.map { it.name })
+      repeat(fieldsCount) { assertEquals("field$it", type.getField("field$it")?.name) }
+      assertNull(type.getField("unknown"))
+    }
+  }
+}
@@ -1,7 +1,19 @@
 package com.intellij.lang.jsgraphql.validation
 
 import com.intellij.lang.jsgraphql.GraphQLTestCaseBase
+import com.intellij.lang.jsgraphql.ide.validation.GraphQLValidationResultCache
+import com.intellij.lang.jsgraphql.psi.GraphQLFile
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider
+import com.intellij.lang.jsgraphql.types.validation.LanguageTraversal
+import com.intellij.lang.jsgraphql.types.validation.RulesVisitor
+import com.intellij.lang.jsgraphql.types.validation.ValidationContext
+import com.intellij.lang.jsgraphql.types.validation.ValidationErrorCollector
+import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType
+import com.intellij.lang.jsgraphql.types.validation.Validator
+import com.intellij.openapi.application.edtWriteAction
+import com.intellij.openapi.application.readAction
 import com.intellij.openapi.progress.runBlockingCancellable
+import com.intellij.psi.PsiDocumentManager
 
 class GraphQLOperationsValidationTest : GraphQLTestCaseBase() {
   override fun getBasePath(): String {
@@ -24,4 +36,45 @@ class GraphQLOperationsValidationTest : GraphQLTestCaseBase() {
   fun testDuplicates() = runBlockingCancellable {
     doHighlightingTest()
   }
+
+  fun testValidationCache() = runBlockingCancellable {
+    doHighlightingTest()
+
+    val file = myFixture.file as GraphQLFile
+    val schema = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(file).schema
+    val cache = GraphQLValidationResultCache.getInstance(project)
+    val errors = readAction { cache.validate(schema, file) }
+    assertSame(errors, readAction { cache.validate(schema, file) })
+
+    edtWriteAction {
+      val document = myFixture.editor.document
+      val offset = document.text.indexOf("        id\n")
+      document.replaceString(offset, offset + "        id".length, "        name")
+      PsiDocumentManager.getInstance(project).commitDocument(document)
+    }
+
+    val newErrors = readAction { cache.validate(schema, file) }
+    assertNotSame(errors, newErrors)
+    assertSame(
+      errors.single { it.validationErrorType == ValidationErrorType.DuplicateArgumentNames },
+      newErrors.single { it.validationErrorType == ValidationErrorType.DuplicateArgumentNames },
+    )
+    assertNotNull(newErrors.singleOrNull { it.validationErrorType == ValidationErrorType.WrongType })
+  }
+
+  fun testFusedRulesVisitor() = runBlockingCancellable {
+    myFixture.configureByFile("Duplicates.graphql")
+    val file = myFixture.file as GraphQLFile
+    val schema = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(file).schema
+    readAction {
+      val document = file.document
+      val validationContext = ValidationContext(schema, document)
+      val collector = ValidationErrorCollector()
+      LanguageTraversal().traverse(document, RulesVisitor(validationContext, Validator().createRules(validationContext, collector)))
+
+      val expected = collector.errors.map { it.toString() }
+      assertNotEmpty(expected)
+      assertSameElements(Validator().validateDocument(schema, document).map { it.toString() }, expected)
+    }
+  }
 }